@@ -0,0 +1,61 @@
+package frc.robot.CrevoLib.math;
+
+import frc.robot.drivetrain.DrivetrainConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Falcon unit conversions used on every module read / write.
+ */
+@State(Scope.Thread)
+public class ConversionsBenchmark {
+    private static final int kSamples = 1024;
+
+    private final double[] counts = new double[kSamples];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5940);
+        for (int i = 0; i < kSamples; i++) {
+            counts[i] = random.nextDouble() * 100000;
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (kSamples - 1);
+        return index;
+    }
+
+    @Benchmark
+    public double falconToDegrees() {
+        return Conversions.falconToDegrees(counts[next()], DrivetrainConfig.kAngleGearRatio);
+    }
+
+    @Benchmark
+    public double degreesToFalcon() {
+        return Conversions.degreesToFalcon(counts[next()], DrivetrainConfig.kAngleGearRatio);
+    }
+
+    @Benchmark
+    public double falconToMPS() {
+        return Conversions.falconToMPS(counts[next()], DrivetrainConfig.kWheelCircumfurence,
+                DrivetrainConfig.kDriveGearRatio);
+    }
+
+    @Benchmark
+    public double MPSToFalcon() {
+        return Conversions.MPSToFalcon(counts[next()], DrivetrainConfig.kWheelCircumfurence,
+                DrivetrainConfig.kDriveGearRatio);
+    }
+
+    @Benchmark
+    public double falconToMeters() {
+        return Conversions.falconToMeters(counts[next()], DrivetrainConfig.kWheelCircumfurence,
+                DrivetrainConfig.kDriveGearRatio);
+    }
+}
@@ -0,0 +1,110 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import edu.wpi.first.hal.HAL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Before / after for moving DutyCycleEncoderVelocity onto the shared scheduler: N encoder style 100hz
+ * loops either each on their own Looper (one Notifier thread apiece, the old pattern) or all on
+ * {@link LoopScheduler}. The benchmark method only parks the calling thread for a millisecond, its score
+ * is not the result; each trial prints the loop threads used and the background wakeups per second.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 5)
+public class LoopSchedulerBenchmark {
+    private static final double kEncoderPeriod = 0.01;
+
+    @Param({"1", "4", "8"})
+    public int loopCount;
+
+    @Param({"perLoopLooper", "sharedScheduler"})
+    public String mode;
+
+    private final List<Looper> loopers = new ArrayList<>();
+    private final List<Loop> loops = new ArrayList<>();
+    private final Set<Thread> loopThreads = ConcurrentHashMap.newKeySet();
+    private long startWakeups;
+    private long startNanos;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HAL.initialize(500, 0);
+        for (int i = 0; i < loopCount; i++) {
+            Loop loop = new Loop() {
+                private double value;
+
+                @Override
+                public void onStart() {
+                }
+
+                @Override
+                public void onLoop() {
+                    loopThreads.add(Thread.currentThread());
+                    // Roughly one encoder read and velocity update
+                    value = Math.sin(value + 0.01);
+                }
+
+                @Override
+                public void onStop() {
+                }
+            };
+            loops.add(loop);
+
+            if (mode.equals("perLoopLooper")) {
+                Looper looper = new Looper("Benchmark" + i, kEncoderPeriod);
+                looper.register(loop);
+                looper.start();
+                loopers.add(looper);
+            } else {
+                LoopScheduler.getInstance().register(loop, kEncoderPeriod, "Benchmark" + i);
+            }
+        }
+        startWakeups = wakeups();
+        startNanos = System.nanoTime();
+    }
+
+    private long wakeups() {
+        if (mode.equals("perLoopLooper")) {
+            long total = 0;
+            for (Looper looper : loopers) {
+                total += looper.getIterationCount();
+            }
+            return total;
+        }
+        return LoopScheduler.getInstance().getWakeupCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%n%s, %d loops at %.0fhz: %d loop threads, %.0f wakeups/s%n",
+                mode, loopCount, 1.0 / kEncoderPeriod, loopThreads.size(), (wakeups() - startWakeups) / seconds);
+
+        for (Looper looper : loopers) {
+            looper.stop();
+        }
+        for (Loop loop : loops) {
+            LoopScheduler.getInstance().unregister(loop);
+        }
+    }
+
+    @Benchmark
+    public void mainThreadIdle() {
+        LockSupport.parkNanos(1_000_000);
+    }
+}
@@ -0,0 +1,137 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.CrevoLib.util.CTREModuleState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * Per cycle cost of the drive path, object based math (what Drivetrain.drive used to do) vs the real
+ * {@link Drivetrain#drive} against fake modules. The drivetrain benchmark reads the modules into the
+ * sensor snapshot and runs the whole primitive pipeline, including the setpoint generator, second order
+ * terms, feedforward, IO calls and binary log record, so only the hardware is missing. The object path has
+ * no generator or feedforward, so its score is a lower bound on what the old code cost.
+ */
+@State(Scope.Thread)
+public class DriveKinematicsBenchmark {
+    private static final int kSamples = 1024;
+
+    private final double[] vx = new double[kSamples];
+    private final double[] vy = new double[kSamples];
+    private final double[] omega = new double[kSamples];
+    private final double[] yawDegrees = new double[kSamples];
+    private final double[] moduleAnglesDegrees = new double[4];
+    private final Rotation2d[] moduleAngles = new Rotation2d[4];
+
+    /**
+     * Fake hardware that tracks perfectly, each module reports whatever it was last told. A module that
+     * never turned would leave the continuous setpoint angles winding away from the measured ones, and
+     * optimize would get slower every cycle.
+     */
+    private static class EchoModuleIO implements ModuleIO {
+        private double angleDegrees = 0.0;
+        private double velocityMetersPerSecond = 0.0;
+
+        @Override
+        public void updateInputs(ModuleIOInputs inputs) {
+            inputs.angleDegrees = angleDegrees;
+            inputs.driveVelocityMetersPerSecond = velocityMetersPerSecond;
+        }
+
+        @Override
+        public void setDriveVelocity(double metersPerSecond, double feedforwardPercent) {
+            velocityMetersPerSecond = metersPerSecond;
+        }
+
+        @Override
+        public void setAnglePosition(double degrees, double feedforwardPercent) {
+            angleDegrees = degrees;
+        }
+    }
+
+    private SwerveSetpoints setpoints;
+    private Drivetrain drivetrain;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5940);
+        for (int i = 0; i < kSamples; i++) {
+            vx[i] = (random.nextDouble() * 2 - 1) * DrivetrainConfig.kMaxVelocity;
+            vy[i] = (random.nextDouble() * 2 - 1) * DrivetrainConfig.kMaxVelocity;
+            omega[i] = (random.nextDouble() * 2 - 1) * DrivetrainConfig.kMaxAngularVelocity;
+            yawDegrees[i] = random.nextDouble() * 360;
+        }
+        for (int i = 0; i < 4; i++) {
+            moduleAnglesDegrees[i] = random.nextDouble() * 720 - 360;
+            moduleAngles[i] = Rotation2d.fromDegrees(moduleAnglesDegrees[i]);
+        }
+        setpoints = new SwerveSetpoints(DrivetrainConfig.kModuleLocationsX, DrivetrainConfig.kModuleLocationsY);
+
+        HAL.initialize(500, 0);
+        drivetrain = new Drivetrain(
+                new GyroIO() {},
+                new EchoModuleIO(), new EchoModuleIO(), new EchoModuleIO(), new EchoModuleIO(),
+                false
+        );
+    }
+
+    private int next() {
+        index = (index + 1) & (kSamples - 1);
+        return index;
+    }
+
+    @Benchmark
+    public void objectDrivePath(Blackhole blackhole) {
+        int i = next();
+        ChassisSpeeds speeds = ChassisSpeeds.fromFieldRelativeSpeeds(vx[i], vy[i], omega[i],
+                Rotation2d.fromDegrees(yawDegrees[i]));
+        SwerveModuleState[] states = DrivetrainConfig.kKinematics.toSwerveModuleStates(speeds);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, DrivetrainConfig.kMaxVelocity);
+        for (int m = 0; m < states.length; m++) {
+            blackhole.consume(CTREModuleState.optimize(states[m], moduleAngles[m]));
+        }
+    }
+
+    @Benchmark
+    public void drivetrainDrive() {
+        int i = next();
+        for (SwerveModule module : drivetrain.m_swerveMods) {
+            module.updateInputs();
+        }
+        drivetrain.getSensors().refresh(drivetrain);
+        drivetrain.drive(vx[i], vy[i], omega[i], true, false, 0.0, 0.0);
+    }
+
+    @Benchmark
+    public SwerveModuleState[] toSwerveModuleStates() {
+        int i = next();
+        return DrivetrainConfig.kKinematics.toSwerveModuleStates(new ChassisSpeeds(vx[i], vy[i], omega[i]));
+    }
+
+    @Benchmark
+    public SwerveModuleState optimizeObject() {
+        int i = next();
+        return CTREModuleState.optimize(
+                new SwerveModuleState(vx[i], Rotation2d.fromDegrees(yawDegrees[i])), moduleAngles[i & 3]);
+    }
+
+    @Benchmark
+    public double optimizeInPlace() {
+        int i = next();
+        setpoints.speedsMetersPerSecond[0] = vx[i];
+        setpoints.anglesDegrees[0] = yawDegrees[i];
+        CTREModuleState.optimize(setpoints.speedsMetersPerSecond, setpoints.anglesDegrees, 0,
+                moduleAnglesDegrees[i & 3]);
+        return setpoints.anglesDegrees[0];
+    }
+}
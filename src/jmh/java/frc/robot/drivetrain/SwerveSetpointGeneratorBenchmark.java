@@ -0,0 +1,61 @@
+package frc.robot.drivetrain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Per cycle cost of the setpoint generator. Random targets force the bisection on almost every call,
+ * which is the worst case; holding one target exercises the feasible-at-once fast path.
+ */
+@State(Scope.Thread)
+public class SwerveSetpointGeneratorBenchmark {
+    private static final int kSamples = 1024;
+
+    private final double[] vx = new double[kSamples];
+    private final double[] vy = new double[kSamples];
+    private final double[] omega = new double[kSamples];
+
+    private SwerveSetpoints setpoints;
+    private SwerveSetpointGenerator generator;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5940);
+        for (int i = 0; i < kSamples; i++) {
+            vx[i] = (random.nextDouble() * 2 - 1) * DrivetrainConfig.kMaxVelocity;
+            vy[i] = (random.nextDouble() * 2 - 1) * DrivetrainConfig.kMaxVelocity;
+            omega[i] = (random.nextDouble() * 2 - 1) * DrivetrainConfig.kMaxAngularVelocity;
+        }
+        setpoints = new SwerveSetpoints(DrivetrainConfig.kModuleLocationsX, DrivetrainConfig.kModuleLocationsY);
+        generator = new SwerveSetpointGenerator(
+                setpoints.size(),
+                DrivetrainConfig.kMaxDriveAcceleration,
+                DrivetrainConfig.kMaxSteerVelocity
+        );
+    }
+
+    private int next() {
+        index = (index + 1) & (kSamples - 1);
+        return index;
+    }
+
+    @Benchmark
+    public double randomTargets() {
+        int i = next();
+        setpoints.fromChassisSpeeds(vx[i], vy[i], omega[i], 0.0, 0.0);
+        setpoints.desaturate(DrivetrainConfig.kMaxVelocity);
+        return generator.apply(setpoints, DrivetrainConfig.kLoopPeriod);
+    }
+
+    @Benchmark
+    public double heldTarget() {
+        setpoints.fromChassisSpeeds(vx[0], vy[0], omega[0], 0.0, 0.0);
+        setpoints.desaturate(DrivetrainConfig.kMaxVelocity);
+        return generator.apply(setpoints, DrivetrainConfig.kLoopPeriod);
+    }
+}
@@ -0,0 +1,76 @@
+package frc.robot.navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Full field Theta* searches on the deployed map, for start / goal pairs a match actually asks for:
+ * wall to wall, around a charge station, a short hop at the grid and random free pairs.
+ */
+@State(Scope.Thread)
+public class GridPlannerBenchmark {
+    private static final int kSamples = 256;
+
+    private final double[] startX = new double[kSamples];
+    private final double[] startY = new double[kSamples];
+    private final double[] goalX = new double[kSamples];
+    private final double[] goalY = new double[kSamples];
+
+    private GridPlanner planner;
+    private int index = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        NavGrid grid = NavGrid.load(new File("src/main/deploy/navigation/navgrid.json"),
+                NavigationConfig.kInflationRadius);
+        planner = new GridPlanner(grid);
+
+        Random random = new Random(5940);
+        int i = 0;
+        while (i < kSamples) {
+            double sx = random.nextDouble() * grid.fieldLength;
+            double sy = random.nextDouble() * grid.fieldWidth;
+            double gx = random.nextDouble() * grid.fieldLength;
+            double gy = random.nextDouble() * grid.fieldWidth;
+            if (grid.isBlocked(grid.toCellX(sx), grid.toCellY(sy)) || grid.isBlocked(grid.toCellX(gx), grid.toCellY(gy))) {
+                continue;
+            }
+            startX[i] = sx;
+            startY[i] = sy;
+            goalX[i] = gx;
+            goalY[i] = gy;
+            i++;
+        }
+    }
+
+    @Benchmark
+    public void crossField(Blackhole blackhole) {
+        // Blue loading zone to the red grid
+        blackhole.consume(planner.plan(1.0, 7.0, 14.6, 0.8));
+    }
+
+    @Benchmark
+    public void aroundChargeStation(Blackhole blackhole) {
+        // Straight line runs through the blue charge station
+        blackhole.consume(planner.plan(2.0, 2.75, 5.8, 2.75));
+    }
+
+    @Benchmark
+    public void shortHop(Blackhole blackhole) {
+        // Alignment at the red grid, goal is snapped out of the barrier clearance
+        blackhole.consume(planner.plan(12.5, 6.5, 13.56, 5.2));
+    }
+
+    @Benchmark
+    public void randomPairs(Blackhole blackhole) {
+        index = (index + 1) & (kSamples - 1);
+        blackhole.consume(planner.plan(startX[index], startY[index], goalX[index], goalY[index]));
+    }
+}
@@ -4,6 +4,8 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.RobotBase;
+
 /**
  * The Constants class provides a convenient place for teams to hold robot-wide numerical or boolean
  * constants. This class should not be used for any other purpose. All constants should be declared
@@ -13,6 +15,24 @@ package frc.robot;
  * constants are needed, to reduce verbosity.
  */
 public final class Constants {
+  public enum Mode {
+    /** Running on the robot. */
+    REAL,
+    /** Physics simulation. */
+    SIM,
+    /** Re-running a log file, every IO layer is a no-op. */
+    REPLAY
+  }
+
+  /** Mode used when not on the robot; switch to REPLAY to re-run a log. */
+  public static final Mode kSimMode = Mode.SIM;
+  public static final Mode kCurrentMode = RobotBase.isReal() ? Mode.REAL : kSimMode;
+
+  public static final class LoggingConstants {
+    /** USB stick on the roboRIO. */
+    public static final String kLogDirectory = "/media/sda1/";
+  }
+
   public static class OperatorConstants {
     
   }
@@ -0,0 +1,51 @@
+package frc.robot.CrevoLib.math;
+
+/**
+ * Alpha-beta (g-h) filter over a constant velocity model. Alpha weights the position residual,
+ * beta the velocity correction; smaller values filter harder and lag more.
+ */
+public class AlphaBetaVelocityEstimator implements VelocityEstimator {
+    private final double alpha;
+    private final double beta;
+
+    private double position;
+    private double velocity;
+    private double lastTime;
+
+    /**
+     * @param alpha Position gain, 0 to 1
+     * @param beta Velocity gain, 0 to 2, typically well below alpha
+     */
+    public AlphaBetaVelocityEstimator(double alpha, double beta) {
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    @Override
+    public double update(double measuredPosition, double timestamp) {
+        double dt = timestamp - lastTime;
+        if (dt <= 0) {
+            return velocity;
+        }
+
+        double predicted = position + velocity * dt;
+        double residual = measuredPosition - predicted;
+
+        position = predicted + alpha * residual;
+        velocity += (beta / dt) * residual;
+        lastTime = timestamp;
+        return velocity;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public void reset(double measuredPosition, double timestamp) {
+        position = measuredPosition;
+        velocity = 0;
+        lastTime = timestamp;
+    }
+}
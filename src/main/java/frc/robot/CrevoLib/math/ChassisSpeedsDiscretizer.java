@@ -0,0 +1,38 @@
+package frc.robot.CrevoLib.math;
+
+/**
+ * Discretizes chassis speeds for a control loop that holds each command for dt.
+ *
+ * <p>Holding vx, vy, omega constant for a whole loop drives an arc, so translating while rotating
+ * drifts toward the direction of rotation. This finds the constant twist whose pose exponential over dt
+ * lands on the straight line pose (vx dt, vy dt, omega dt), the same as Pose2d#log of that pose divided
+ * by dt, without allocating.
+ */
+public final class ChassisSpeedsDiscretizer {
+    private ChassisSpeedsDiscretizer() {}
+
+    /**
+     * @param vx Robot relative x speed (m/s)
+     * @param vy Robot relative y speed (m/s)
+     * @param omega Rotation rate (rad/s)
+     * @param dt Loop period the speeds will be held for (s)
+     * @param out Written with the discretized [vx, vy, omega]
+     */
+    public static void discretize(double vx, double vy, double omega, double dt, double[] out) {
+        double dtheta = omega * dt;
+        double halfDtheta = 0.5 * dtheta;
+        double cosMinusOne = Math.cos(dtheta) - 1.0;
+
+        // Same small angle handling as Pose2d#log
+        double halfThetaByTanOfHalfDtheta;
+        if (Math.abs(cosMinusOne) < 1e-9) {
+            halfThetaByTanOfHalfDtheta = 1.0 - dtheta * dtheta / 12.0;
+        } else {
+            halfThetaByTanOfHalfDtheta = -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+        }
+
+        out[0] = vx * halfThetaByTanOfHalfDtheta + vy * halfDtheta;
+        out[1] = vy * halfThetaByTanOfHalfDtheta - vx * halfDtheta;
+        out[2] = omega;
+    }
+}
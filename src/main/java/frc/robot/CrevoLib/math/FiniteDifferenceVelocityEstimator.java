@@ -0,0 +1,34 @@
+package frc.robot.CrevoLib.math;
+
+/**
+ * Two point finite difference. Lowest lag, but noise is amplified by 1/dt.
+ */
+public class FiniteDifferenceVelocityEstimator implements VelocityEstimator {
+    private double lastPosition;
+    private double lastTime;
+    private double velocity;
+
+    @Override
+    public double update(double position, double timestamp) {
+        double dt = timestamp - lastTime;
+        if (dt <= 0) {
+            return velocity;
+        }
+        velocity = (position - lastPosition) / dt;
+        lastPosition = position;
+        lastTime = timestamp;
+        return velocity;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public void reset(double position, double timestamp) {
+        lastPosition = position;
+        lastTime = timestamp;
+        velocity = 0;
+    }
+}
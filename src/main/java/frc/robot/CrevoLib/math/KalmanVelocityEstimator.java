@@ -0,0 +1,78 @@
+package frc.robot.CrevoLib.math;
+
+/**
+ * Two state (position, velocity) Kalman filter with a constant velocity model driven by white noise
+ * acceleration. Unlike the alpha-beta filter the gains adapt to the actual sample period, so jittery
+ * loop timing is handled correctly. The covariance is kept in plain doubles so updates don't allocate.
+ */
+public class KalmanVelocityEstimator implements VelocityEstimator {
+    private final double accelerationVariance;
+    private final double measurementVariance;
+
+    private double position;
+    private double velocity;
+    private double lastTime;
+
+    // Covariance
+    private double p00, p01, p10, p11;
+
+    /**
+     * @param accelerationStdDev Expected acceleration noise (position units / s^2)
+     * @param measurementStdDev Position measurement noise (position units)
+     */
+    public KalmanVelocityEstimator(double accelerationStdDev, double measurementStdDev) {
+        accelerationVariance = accelerationStdDev * accelerationStdDev;
+        measurementVariance = measurementStdDev * measurementStdDev;
+        reset(0, 0);
+    }
+
+    @Override
+    public double update(double measuredPosition, double timestamp) {
+        double dt = timestamp - lastTime;
+        if (dt <= 0) {
+            return velocity;
+        }
+        lastTime = timestamp;
+
+        // Predict: x = F x, P = F P F' + Q
+        position += velocity * dt;
+        double dt2 = dt * dt;
+        double q = accelerationVariance;
+        double n00 = p00 + dt * (p01 + p10) + dt2 * p11 + q * dt2 * dt / 3.0;
+        double n01 = p01 + dt * p11 + q * dt2 / 2.0;
+        double n10 = p10 + dt * p11 + q * dt2 / 2.0;
+        double n11 = p11 + q * dt;
+
+        // Correct with the position measurement (H = [1 0])
+        double innovationVariance = n00 + measurementVariance;
+        double k0 = n00 / innovationVariance;
+        double k1 = n10 / innovationVariance;
+        double residual = measuredPosition - position;
+
+        position += k0 * residual;
+        velocity += k1 * residual;
+
+        p00 = (1 - k0) * n00;
+        p01 = (1 - k0) * n01;
+        p10 = n10 - k1 * n00;
+        p11 = n11 - k1 * n01;
+        return velocity;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public void reset(double measuredPosition, double timestamp) {
+        position = measuredPosition;
+        velocity = 0;
+        lastTime = timestamp;
+        p00 = measurementVariance;
+        p01 = 0;
+        p10 = 0;
+        // Unknown initial velocity, let the first few samples set it
+        p11 = 1e3;
+    }
+}
@@ -0,0 +1,75 @@
+package frc.robot.CrevoLib.math;
+
+/**
+ * Least squares slope over the last N samples, kept in a ring buffer. Averages noise over the window
+ * at the cost of roughly half a window of lag.
+ */
+public class LinearRegressionVelocityEstimator implements VelocityEstimator {
+    private final double[] positions;
+    private final double[] times;
+    private int head = 0;
+    private int size = 0;
+    private double velocity;
+
+    /**
+     * @param windowSize Number of samples to fit, at least 2
+     */
+    public LinearRegressionVelocityEstimator(int windowSize) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("Regression window needs at least two samples");
+        }
+        positions = new double[windowSize];
+        times = new double[windowSize];
+    }
+
+    @Override
+    public double update(double position, double timestamp) {
+        if (size > 0) {
+            int newest = (head - 1 + times.length) % times.length;
+            if (timestamp <= times[newest]) {
+                return velocity;
+            }
+        }
+
+        positions[head] = position;
+        times[head] = timestamp;
+        head = (head + 1) % times.length;
+        if (size < times.length) {
+            size++;
+        }
+        if (size < 2) {
+            return velocity;
+        }
+
+        // Fit relative to the newest sample to keep the sums well conditioned
+        double sumT = 0, sumX = 0, sumTT = 0, sumTX = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (head - 1 - i + times.length) % times.length;
+            double t = times[index] - timestamp;
+            double x = positions[index] - position;
+            sumT += t;
+            sumX += x;
+            sumTT += t * t;
+            sumTX += t * x;
+        }
+
+        double denominator = size * sumTT - sumT * sumT;
+        if (denominator > 1e-12) {
+            velocity = (size * sumTX - sumT * sumX) / denominator;
+        }
+        return velocity;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public void reset(double position, double timestamp) {
+        head = 0;
+        size = 0;
+        velocity = 0;
+        update(position, timestamp);
+    }
+}
@@ -0,0 +1,23 @@
+package frc.robot.CrevoLib.math;
+
+/**
+ * Estimates velocity from timestamped position samples. Implementations are allocation free and must
+ * tolerate repeated timestamps (dt of zero) by keeping their previous estimate.
+ */
+public interface VelocityEstimator {
+    /**
+     * Adds a position sample.
+     *
+     * @param position Position (any unit)
+     * @param timestamp Sample time (s)
+     * @return The updated velocity estimate (position units / s)
+     */
+    double update(double position, double timestamp);
+
+    double getVelocity();
+
+    /**
+     * Clears history and zeroes the velocity estimate.
+     */
+    void reset(double position, double timestamp);
+}
@@ -24,14 +24,35 @@ public class CTREModuleState {
       }        
       return new SwerveModuleState(targetSpeed, Rotation2d.fromDegrees(targetAngle));
     }
-  
+
+    /**
+     * Allocation free version of {@link #optimize(SwerveModuleState, Rotation2d)}. Optimizes the
+     * speed / angle pair stored at {@code index} in place.
+     *
+     * @param speeds Module speeds (m/s)
+     * @param anglesDegrees Module angles (degrees)
+     * @param index Module to optimize
+     * @param currentAngleDegrees The current module angle (degrees)
+     */
+    public static void optimize(double[] speeds, double[] anglesDegrees, int index, double currentAngleDegrees) {
+      double targetAngle = placeInAppropriate0To360Scope(currentAngleDegrees, anglesDegrees[index]);
+      double targetSpeed = speeds[index];
+      double delta = targetAngle - currentAngleDegrees;
+      if (Math.abs(delta) > 90) {
+          targetSpeed = -targetSpeed;
+          targetAngle = delta > 90 ? targetAngle - 180 : targetAngle + 180;
+      }
+      speeds[index] = targetSpeed;
+      anglesDegrees[index] = targetAngle;
+    }
+
       /**
        * @param scopeReference Current Angle
        * @param newAngle Target Angle
        * @return Closest angle within scope
        */
   
-      private static double placeInAppropriate0To360Scope(double scopeReference, double newAngle) {
+      public static double placeInAppropriate0To360Scope(double scopeReference, double newAngle) {
         double lowerBound;
         double upperBound;
         double lowerOffset = scopeReference % 360;
@@ -2,40 +2,56 @@ package frc.robot.CrevoLib.util;
 
 import edu.wpi.first.wpilibj.DutyCycleEncoder;
 import edu.wpi.first.wpilibj.Timer;
+import frc.robot.CrevoLib.math.LinearRegressionVelocityEstimator;
+import frc.robot.CrevoLib.math.VelocityEstimator;
 import frc.robot.CrevoLib.util.loopController.Loop;
-import frc.robot.CrevoLib.util.loopController.Looper;
+import frc.robot.CrevoLib.util.loopController.LoopScheduler;
 
 public class DutyCycleEncoderVelocity extends DutyCycleEncoder implements Loop {
   private final Timer m_timer = new Timer();
-  private Looper looper = new Looper(0.01); // Update velocity @ 100hz
-  private double lastPosition;
-  private double lastTime;
-  private double currentVelocity;
-  
+  private static final double kUpdatePeriod = 0.01; // Update velocity @ 100hz
+  private static final int kDefaultRegressionWindow = 5;
+  private final VelocityEstimator estimator;
+  private volatile double currentVelocity;
+
   public DutyCycleEncoderVelocity(int channel) {
+    this(channel, new LinearRegressionVelocityEstimator(kDefaultRegressionWindow));
+  }
+
+  /**
+   * @param channel DIO channel
+   * @param estimator Velocity estimator, see the VelocityEstimator implementations in CrevoLib.math
+   */
+  public DutyCycleEncoderVelocity(int channel, VelocityEstimator estimator) {
     super(channel);
+    this.estimator = estimator;
     m_timer.reset();
     m_timer.start();
 
-    lastPosition = getDistance();
-    lastTime = m_timer.get();
+    estimator.reset(getDistance(), m_timer.get());
 
-    looper.register(this);
-    looper.start();
+    // Shares the process wide scheduler thread instead of a Notifier per encoder
+    LoopScheduler.getInstance().register(this, kUpdatePeriod, "DutyCycleEncoderVelocity/" + channel);
   }
-  
+
+  @Override
+  public void close() {
+    LoopScheduler.getInstance().unregister(this);
+    super.close();
+  }
+
   @Override
   public void reset() {
     super.reset();
-    m_timer.reset();
-    
-    lastPosition = getDistance();
-    lastTime = m_timer.get();
 
-    // Needed???
-    currentVelocity = 0;
+    // Runs against onLoop on the scheduler thread
+    synchronized (estimator) {
+      m_timer.reset();
+      estimator.reset(getDistance(), m_timer.get());
+      currentVelocity = 0;
+    }
   }
-  
+
   // Returns Encoder Distance / Seconds
   public double getVelocity() {
     return currentVelocity;
@@ -47,17 +63,9 @@ public class DutyCycleEncoderVelocity extends DutyCycleEncoder implements Loop {
 
   @Override
   public void onLoop() {
-    // Get current Position and Time
-    double currentPosition = getDistance();
-    double currentTime = m_timer.get();
-    
-    // Calculate current Velocity
-    currentVelocity = (currentPosition - lastPosition)
-      / (currentTime - lastTime);
-    
-    // Set previous Position and Time to current Position and Time
-    lastPosition = currentPosition;
-    lastTime = currentTime;
+    synchronized (estimator) {
+      currentVelocity = estimator.update(getDistance(), m_timer.get());
+    }
   }
 
   @Override
@@ -0,0 +1,149 @@
+package frc.robot.CrevoLib.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.util.Optional;
+
+/**
+ * Fixed capacity ring buffer of timestamped poses stored in primitive arrays. Inserting never
+ * allocates; lookups binary search the buffer and linearly interpolate between the two samples that
+ * bracket the requested time.
+ *
+ * <p>Samples must be added in increasing timestamp order. Safe to write from one thread (e.g. the
+ * odometry Looper) while reading from another.
+ */
+public class PoseHistory {
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+
+    private int head = 0; // Next slot to write
+    private int size = 0;
+
+    public PoseHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Pose history needs at least two samples");
+        }
+        timestamps = new double[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        thetas = new double[capacity];
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @param timestamp FPGA timestamp of the sample (seconds)
+     * @param x Field x (m)
+     * @param y Field y (m)
+     * @param thetaRadians Heading (rad)
+     */
+    public synchronized void addSample(double timestamp, double x, double y, double thetaRadians) {
+        if (size > 0) {
+            double newest = timestamps[physicalIndex(size - 1)];
+            if (timestamp < newest) {
+                return;
+            } else if (timestamp == newest) {
+                // Same timestamp, replace the newest sample instead of growing the buffer
+                head = (head - 1 + timestamps.length) % timestamps.length;
+                size--;
+            }
+        }
+
+        timestamps[head] = timestamp;
+        xs[head] = x;
+        ys[head] = y;
+        thetas[head] = thetaRadians;
+
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    public void addSample(double timestamp, Pose2d pose) {
+        addSample(timestamp, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Interpolated pose at a timestamp without allocating. Requests outside the buffered window are
+     * clamped to the oldest / newest sample.
+     *
+     * @param timestamp FPGA timestamp (seconds)
+     * @param out Array of at least length 3, filled with x (m), y (m), theta (rad)
+     * @return false if the buffer is empty and nothing was written
+     */
+    public synchronized boolean getSample(double timestamp, double[] out) {
+        if (size == 0) {
+            return false;
+        }
+
+        int oldest = physicalIndex(0);
+        int newest = physicalIndex(size - 1);
+        if (timestamp <= timestamps[oldest]) {
+            copySample(oldest, out);
+            return true;
+        }
+        if (timestamp >= timestamps[newest]) {
+            copySample(newest, out);
+            return true;
+        }
+
+        // Find the first sample newer than the timestamp, the one before it is the lower bound
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physicalIndex(mid)] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        int upper = physicalIndex(low);
+        int lower = physicalIndex(low - 1);
+        double t = (timestamp - timestamps[lower]) / (timestamps[upper] - timestamps[lower]);
+
+        out[0] = xs[lower] + (xs[upper] - xs[lower]) * t;
+        out[1] = ys[lower] + (ys[upper] - ys[lower]) * t;
+        out[2] = thetas[lower] + MathUtil.angleModulus(thetas[upper] - thetas[lower]) * t;
+        return true;
+    }
+
+    /**
+     * Interpolated pose at a timestamp. Allocates the returned pose, use
+     * {@link #getSample(double, double[])} on hot paths.
+     */
+    public Optional<Pose2d> getSample(double timestamp) {
+        double[] sample = new double[3];
+        if (!getSample(timestamp, sample)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Pose2d(sample[0], sample[1], new Rotation2d(sample[2])));
+    }
+
+    private int physicalIndex(int logicalIndex) {
+        return (head - size + logicalIndex + timestamps.length) % timestamps.length;
+    }
+
+    private void copySample(int index, double[] out) {
+        out[0] = xs[index];
+        out[1] = ys[index];
+        out[2] = thetas[index];
+    }
+}
@@ -0,0 +1,224 @@
+package frc.robot.CrevoLib.util.logging;
+
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import org.littletonrobotics.junction.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * High rate binary log. Control threads write fixed width double records into their own preallocated
+ * {@link LogProducer} ring; a background thread drains every ring in batches and appends the records to
+ * a WPILOG file with their original timestamps. The writer thread encodes and writes the file itself
+ * (see {@link WpilogWriter}) and only hands ring slots back once their records are encoded, so the control
+ * threads never wait on the file: a slow USB stick shows up as queue depth and, once a ring fills, dropped
+ * records. If a write fails the writer stops and every record after that is dropped and counted.
+ *
+ * <p>This sits alongside the AdvantageKit log, which only samples once per robot loop. Use it for
+ * signals sampled faster than that (odometry thread) or where every sample matters.
+ *
+ * <p>Channels and producers are registered up front; {@link #outputTelemetry()} publishes the backpressure
+ * metrics and must be called from the main robot thread.
+ */
+public final class BinaryLogger {
+    public static final long kFlushPeriodMs = 20;
+
+    private static BinaryLogger instance;
+
+    interface RecordSink {
+        void accept(int channel, long timestampMicros, double[] values, int offset, int length) throws IOException;
+    }
+
+    private static final class Channel {
+        final String name;
+        final int width;
+        // Writer thread only, the start record is written before the channel's first record
+        boolean started;
+
+        Channel(String name, int width) {
+            this.name = name;
+            this.width = width;
+        }
+    }
+
+    private static final class ProducerTelemetry {
+        final LogProducer producer;
+        final IntegerPublisher droppedPub, depthPub, maxDepthPub;
+        final String droppedKey, maxDepthKey;
+
+        ProducerTelemetry(LogProducer producer) {
+            this.producer = producer;
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("BinaryLog/" + producer.getName());
+            droppedPub = table.getIntegerTopic("dropped").publish();
+            depthPub = table.getIntegerTopic("queueDepth").publish();
+            maxDepthPub = table.getIntegerTopic("maxQueueDepth").publish();
+            droppedKey = "BinaryLog/" + producer.getName() + "/dropped";
+            maxDepthKey = "BinaryLog/" + producer.getName() + "/maxQueueDepth";
+        }
+    }
+
+    private final Object registrationLock = new Object();
+    private volatile Channel[] channels = new Channel[0];
+    private volatile ProducerTelemetry[] producers = new ProducerTelemetry[0];
+
+    private volatile WpilogWriter log;
+    private volatile Thread writerThread;
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final IntegerPublisher recordsWrittenPub;
+
+    private final RecordSink sink = this::write;
+
+    private BinaryLogger() {
+        recordsWrittenPub = NetworkTableInstance.getDefault().getTable("BinaryLog")
+                .getIntegerTopic("recordsWritten").publish();
+    }
+
+    public static synchronized BinaryLogger getInstance() {
+        if (instance == null) {
+            instance = new BinaryLogger();
+        }
+        return instance;
+    }
+
+    static long now() {
+        return RobotController.getFPGATime();
+    }
+
+    /**
+     * Opens the log file and starts the writer thread. Records logged before this are dropped, as is
+     * everything if the file can't be opened.
+     *
+     * @param directory Directory for the WPILOG, e.g. the USB stick
+     * @param filename File name, e.g. "highrate.wpilog"
+     */
+    public void start(String directory, String filename) {
+        synchronized (registrationLock) {
+            if (log != null) {
+                return;
+            }
+            try {
+                log = new WpilogWriter(directory, filename);
+            } catch (IOException e) {
+                DriverStation.reportError("Failed to open high rate log " + filename + ": " + e.getMessage(),
+                        e.getStackTrace());
+                return;
+            }
+
+            Thread thread = new Thread(this::runWriter, "BinaryLogger");
+            thread.setDaemon(true);
+            writerThread = thread;
+            thread.start();
+        }
+    }
+
+    public boolean isRunning() {
+        return log != null;
+    }
+
+    /**
+     * @param name Log entry name, e.g. "Drive/OdometrySample"
+     * @param width Values per record
+     * @return Channel id to pass to {@link LogProducer#log}
+     */
+    public int registerChannel(String name, int width) {
+        synchronized (registrationLock) {
+            Channel[] current = channels;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].name.equals(name)) {
+                    return i;
+                }
+            }
+
+            Channel channel = new Channel(name, width);
+            Channel[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = channel;
+            channels = updated;
+            return current.length;
+        }
+    }
+
+    /**
+     * Creates a ring for one producing thread. Each thread must use its own producer.
+     *
+     * @param name Name used for the backpressure metrics
+     * @param capacity Records buffered before dropping, a power of two
+     * @param maxWidth Widest record this producer will log
+     */
+    public LogProducer createProducer(String name, int capacity, int maxWidth) {
+        synchronized (registrationLock) {
+            LogProducer producer = new LogProducer(name, this, capacity, maxWidth);
+            ProducerTelemetry[] current = producers;
+            ProducerTelemetry[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = new ProducerTelemetry(producer);
+            producers = updated;
+            return producer;
+        }
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+
+    /**
+     * Publishes dropped records and queue depth for every producer. Call from the main robot thread.
+     */
+    public void outputTelemetry() {
+        Logger logger = Logger.getInstance();
+        for (ProducerTelemetry telemetry : producers) {
+            long dropped = telemetry.producer.getDroppedCount();
+            long maxDepth = telemetry.producer.getAndResetMaxQueueDepth();
+            telemetry.droppedPub.set(dropped);
+            telemetry.depthPub.set(telemetry.producer.getQueueDepth());
+            telemetry.maxDepthPub.set(maxDepth);
+            logger.recordOutput(telemetry.droppedKey, dropped);
+            logger.recordOutput(telemetry.maxDepthKey, maxDepth);
+        }
+        recordsWrittenPub.set(recordsWritten.get());
+    }
+
+    void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void runWriter() {
+        WpilogWriter file = log;
+        try {
+            while (true) {
+                LockSupport.parkNanos(kFlushPeriodMs * 1_000_000L);
+                long written = 0;
+                for (ProducerTelemetry telemetry : producers) {
+                    written += telemetry.producer.drain(sink);
+                }
+                file.flush();
+                recordsWritten.addAndGet(written);
+            }
+        } catch (IOException e) {
+            // Producers keep running, their rings fill and the drops are counted
+            DriverStation.reportError("High rate log stopped: " + e.getMessage(), e.getStackTrace());
+        }
+    }
+
+    // Writer thread only. Entry ids are channel ids plus one, 0 is the WPILOG control entry.
+    private void write(int channelId, long timestampMicros, double[] values, int offset, int length)
+            throws IOException {
+        Channel[] current = channels;
+        if (channelId < 0 || channelId >= current.length) {
+            return;
+        }
+        Channel channel = current[channelId];
+        if (!channel.started) {
+            log.startDoubleArray(channelId + 1, channel.name, timestampMicros);
+            channel.started = true;
+        }
+        log.appendDoubleArray(channelId + 1, timestampMicros, values, offset, length);
+    }
+}
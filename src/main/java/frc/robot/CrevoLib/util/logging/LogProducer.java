@@ -0,0 +1,133 @@
+package frc.robot.CrevoLib.util.logging;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single producer / single consumer ring of log records, owned by one thread. Every slot is
+ * preallocated, so {@link #log(int, double[])} only copies doubles into the ring and never allocates,
+ * locks or does IO. When the ring is full the record is dropped and counted instead of blocking.
+ *
+ * <p>Records are drained by the {@link BinaryLogger} writer thread.
+ */
+public final class LogProducer {
+    private final String name;
+    private final BinaryLogger logger;
+    private final int capacity;
+    private final int mask;
+    private final int maxWidth;
+
+    private final long[] timestamps;
+    private final int[] channels;
+    private final int[] lengths;
+    private final double[] values;
+
+    // head is only written by the producer, tail only by the writer thread
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile int maxDepth = 0;
+
+    LogProducer(String name, BinaryLogger logger, int capacity, int maxWidth) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Log producer capacity must be a power of two");
+        }
+        this.name = name;
+        this.logger = logger;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxWidth = maxWidth;
+
+        timestamps = new long[capacity];
+        channels = new int[capacity];
+        lengths = new int[capacity];
+        values = new double[capacity * maxWidth];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Queues a record stamped with the current FPGA time.
+     *
+     * @return false if the record was dropped (ring full or logger not started)
+     */
+    public boolean log(int channel, double[] data) {
+        return log(channel, BinaryLogger.now(), data);
+    }
+
+    /**
+     * @param channel Channel id from {@link BinaryLogger#registerChannel}
+     * @param timestampMicros FPGA timestamp (us)
+     * @param data Values, at most the producer's max width. Copied before returning.
+     * @return false if the record was dropped (ring full or logger not started)
+     */
+    public boolean log(int channel, long timestampMicros, double[] data) {
+        if (data.length > maxWidth) {
+            throw new IllegalArgumentException("Record for " + name + " is wider than " + maxWidth);
+        }
+        if (!logger.isRunning()) {
+            return false;
+        }
+
+        long h = head.get();
+        int depth = (int) (h - tail.get());
+        if (depth >= capacity) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        int slot = (int) (h & mask);
+        timestamps[slot] = timestampMicros;
+        channels[slot] = channel;
+        lengths[slot] = data.length;
+        System.arraycopy(data, 0, values, slot * maxWidth, data.length);
+        // Release the slot to the writer
+        head.lazySet(h + 1);
+
+        depth++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        if (depth > capacity / 2) {
+            logger.wakeWriter();
+        }
+        return true;
+    }
+
+    /** Records dropped because the ring was full. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Records currently waiting for the writer. */
+    public int getQueueDepth() {
+        return (int) (head.get() - tail.get());
+    }
+
+    /** Deepest the queue has been since the last call. */
+    public int getAndResetMaxQueueDepth() {
+        int depth = maxDepth;
+        maxDepth = getQueueDepth();
+        return depth;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Writer thread only. Slots are handed back after the whole batch is written, so a sink blocked on the
+    // file keeps them counted in the queue depth.
+    int drain(BinaryLogger.RecordSink sink) throws IOException {
+        long t = tail.get();
+        long h = head.get();
+        for (long i = t; i < h; i++) {
+            int slot = (int) (i & mask);
+            sink.accept(channels[slot], timestamps[slot], values, slot * maxWidth, lengths[slot]);
+        }
+        // Hand the slots back to the producer
+        tail.lazySet(h);
+        return (int) (h - t);
+    }
+}
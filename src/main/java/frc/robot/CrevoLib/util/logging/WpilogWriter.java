@@ -0,0 +1,99 @@
+package frc.robot.CrevoLib.util.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Minimal WPILOG file writer: start records and double[] records, nothing else. Records are encoded into
+ * a preallocated buffer and written to the file by the calling thread when the buffer fills or on
+ * {@link #flush()}, so the file IO blocks whoever calls it. Not thread safe.
+ *
+ * <p>Every record uses a 4 byte entry id, 4 byte payload size and 8 byte timestamp, which the format allows
+ * for any record and keeps the encoding branch free.
+ */
+final class WpilogWriter implements AutoCloseable {
+    private static final int kBufferSize = 64 * 1024;
+    private static final short kVersion = 0x0100;
+    // Entry id, payload size and timestamp lengths minus one, packed as the format's header byte
+    private static final byte kRecordHeader = (byte) (3 | (3 << 2) | (7 << 4));
+    private static final int kRecordHeaderSize = 1 + 4 + 4 + 8;
+    private static final byte kControlStart = 0;
+
+    private final FileChannel file;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(kBufferSize).order(ByteOrder.LITTLE_ENDIAN);
+
+    WpilogWriter(String directory, String filename) throws IOException {
+        file = FileChannel.open(Path.of(directory, filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.put("WPILOG".getBytes(StandardCharsets.US_ASCII));
+        buffer.putShort(kVersion);
+        buffer.putInt(0); // no extra header
+    }
+
+    /**
+     * @param entry Entry id, above 0
+     */
+    void startDoubleArray(int entry, String name, long timestampMicros) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = "double[]".getBytes(StandardCharsets.US_ASCII);
+        int payload = 1 + 4 + 4 + nameBytes.length + 4 + typeBytes.length + 4;
+        ensureSpace(kRecordHeaderSize + payload);
+        putHeader(0, payload, timestampMicros);
+        buffer.put(kControlStart);
+        buffer.putInt(entry);
+        buffer.putInt(nameBytes.length);
+        buffer.put(nameBytes);
+        buffer.putInt(typeBytes.length);
+        buffer.put(typeBytes);
+        buffer.putInt(0); // no metadata
+    }
+
+    void appendDoubleArray(int entry, long timestampMicros, double[] values, int offset, int length)
+            throws IOException {
+        int payload = length * Double.BYTES;
+        ensureSpace(kRecordHeaderSize + payload);
+        putHeader(entry, payload, timestampMicros);
+        for (int i = 0; i < length; i++) {
+            buffer.putDouble(values[offset + i]);
+        }
+    }
+
+    /** Writes everything buffered to the file. */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            file.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    private void putHeader(int entry, int payloadSize, long timestampMicros) {
+        buffer.put(kRecordHeader);
+        buffer.putInt(entry);
+        buffer.putInt(payloadSize);
+        buffer.putLong(timestampMicros);
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (bytes > kBufferSize) {
+            throw new IllegalArgumentException("WPILOG record of " + bytes + " bytes is larger than the buffer");
+        }
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
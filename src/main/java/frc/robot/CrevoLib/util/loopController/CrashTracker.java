@@ -1,19 +1,70 @@
 package frc.robot.CrevoLib.util.loopController;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.sql.Date;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Tracks start-up and caught crash events, logging them to a file which dosn't
- * roll over
+ * Tracks start-up and caught crash events, logging them to a file.
+ *
+ * Markers are queued on a bounded lock free queue and written in batches by a
+ * background thread, so callers (mode init methods, Looper threads) never wait
+ * on the filesystem. Only an actual crash is written synchronously, bypassing
+ * the queue bound, so the entry is on disk before the exception propagates
+ * even if routine markers are being dropped. The log is rotated to
+ * "<path>.1" once it grows past {@link #kMaxFileBytes}.
  */
 public class CrashTracker {
 
     private static final UUID RUN_INSTANCE_UUID = UUID.randomUUID();
 
+    public static final String kDefaultLogPath = "/home/lvuser/crash_tracking.txt";
+    public static final int kQueueCapacity = 256;
+    public static final long kFlushPeriodMs = 250;
+    public static final long kMaxFileBytes = 1024 * 1024;
+
+    private static volatile String logPath_ = kDefaultLogPath;
+
+    private static final ConcurrentLinkedQueue<String> queue_ = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queueSize_ = new AtomicInteger();
+    private static final AtomicLong droppedMarkers_ = new AtomicLong();
+    // Serializes the writer thread and synchronous crash flushes, never taken by producers
+    private static final Object fileLock_ = new Object();
+    private static final Thread writerThread_;
+
+    static {
+        writerThread_ = new Thread(CrashTracker::runWriter, "CrashTracker");
+        writerThread_.setDaemon(true);
+        writerThread_.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(CrashTracker::flush, "CrashTrackerShutdown"));
+    }
+
+    /**
+     * Changes where markers are written, e.g. to a temp file off robot or in tests.
+     */
+    public static void setLogPath(String path) {
+        logPath_ = path;
+    }
+
+    public static String getLogPath() {
+        return logPath_;
+    }
+
+    /**
+     * @return Markers dropped because the queue was full
+     */
+    public static long getDroppedMarkerCount() {
+        return droppedMarkers_.get();
+    }
+
     public static void logRobotStartup() {
         logMarker("robot startup");
     }
@@ -39,30 +90,101 @@ public class CrashTracker {
     }
 
     public static void logThrowableCrash(Throwable throwable) {
-        logMarker("Exception", throwable);
+        String line = formatMarker("Exception", throwable);
+        // The process may be about to die, get this onto disk now behind whatever was already queued
+        synchronized (fileLock_) {
+            write(line);
+        }
+    }
+
+    /**
+     * Writes every queued marker on the calling thread.
+     */
+    public static void flush() {
+        synchronized (fileLock_) {
+            write(null);
+        }
     }
 
     private static void logMarker(String mark) {
-        logMarker(mark, null);
+        String line = formatMarker(mark, null);
+
+        int size = queueSize_.incrementAndGet();
+        if (size > kQueueCapacity) {
+            queueSize_.decrementAndGet();
+            droppedMarkers_.incrementAndGet();
+            return;
+        }
+        queue_.offer(line);
+
+        // Normally the writer batches on its own period, only wake it early if we're filling up
+        if (size > kQueueCapacity / 2) {
+            LockSupport.unpark(writerThread_);
+        }
     }
 
-    private static void logMarker(String mark, Throwable nullableException) {
+    private static String formatMarker(String mark, Throwable nullableException) {
+        StringWriter line = new StringWriter();
+        PrintWriter writer = new PrintWriter(line);
+        writer.print(RUN_INSTANCE_UUID.toString());
+        writer.print(", ");
+        writer.print(mark);
+        writer.print(", ");
+        writer.print(new java.util.Date().toString());
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter("/home/lvuser/crash_tracking.txt", true))) {
-            writer.print(RUN_INSTANCE_UUID.toString());
-            writer.print(", ");
-            writer.print(mark);
+        if (nullableException != null) {
             writer.print(", ");
-            writer.print(new java.util.Date().toString());
+            nullableException.printStackTrace(writer);
+        }
+
+        writer.println();
+        writer.flush();
+        return line.toString();
+    }
 
-            if (nullableException != null) {
-                writer.print(", ");
-                nullableException.printStackTrace(writer);
+    private static void runWriter() {
+        while (true) {
+            LockSupport.parkNanos(kFlushPeriodMs * 1_000_000L);
+            if (!queue_.isEmpty()) {
+                flush();
             }
+        }
+    }
+
+    // Drains the queue, then appends the unqueued line if there is one. Caller holds fileLock_
+    private static void write(String nullableLine) {
+        if (queue_.isEmpty() && nullableLine == null) {
+            return;
+        }
 
-            writer.println();
+        File file = new File(logPath_);
+        rotateIfNeeded(file);
+
+        try (Writer writer = new FileWriter(file, true)) {
+            String line;
+            while ((line = queue_.poll()) != null) {
+                queueSize_.decrementAndGet();
+                writer.write(line);
+            }
+            if (nullableLine != null) {
+                writer.write(nullableLine);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    private static void rotateIfNeeded(File file) {
+        if (file.length() < kMaxFileBytes) {
+            return;
+        }
+        File rotated = new File(file.getPath() + ".1");
+        if (rotated.exists() && !rotated.delete()) {
+            System.err.println("CrashTracker: unable to delete " + rotated);
+            return;
+        }
+        if (!file.renameTo(rotated)) {
+            System.err.println("CrashTracker: unable to rotate " + file);
+        }
+    }
 }
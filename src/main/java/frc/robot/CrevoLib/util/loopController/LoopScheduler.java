@@ -0,0 +1,167 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import edu.wpi.first.wpilibj.Threads;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Process wide scheduler for small periodic tasks. Every loop registered here shares one Looper (one
+ * Notifier thread); a loop's requested period is turned into a rate divider on that Looper. This replaces
+ * the pattern of every sensor helper creating its own Looper and therefore its own OS thread.
+ *
+ * <p>The shared thread ticks at the greatest common divisor of the registered periods (no faster than
+ * {@link #kMinBasePeriod}), so it only wakes when some loop is due, and slows right down with nothing
+ * registered. The base period and dividers are recomputed on every register / unregister.
+ *
+ * <p>The shared thread is raised to real time priority on its first tick. Loops registered while the
+ * scheduler is running have onStart() called immediately.
+ */
+public final class LoopScheduler {
+    public static final double kMinBasePeriod = 0.001;
+    private static final long kMinBasePeriodMicros = Math.round(kMinBasePeriod * 1e6);
+    // Nothing registered, only tick often enough to keep the thread alive
+    private static final long kIdlePeriodMicros = 100_000;
+    private static final int kThreadPriority = 40;
+
+    private static LoopScheduler instance;
+
+    private final Looper looper = new Looper("Shared", kMinBasePeriod);
+    // Requested period of every registered loop (us), guarded by this
+    private final Map<Loop, Long> periodsMicros = new IdentityHashMap<>();
+    private long basePeriodMicros = kMinBasePeriodMicros;
+
+    private LoopScheduler() {
+        looper.register(new Loop() {
+            private boolean prioritySet = false;
+
+            @Override
+            public void onStart() {
+            }
+
+            @Override
+            public void onLoop() {
+                if (!prioritySet) {
+                    Threads.setCurrentThreadPriority(true, kThreadPriority);
+                    prioritySet = true;
+                }
+            }
+
+            @Override
+            public void onStop() {
+            }
+        });
+    }
+
+    public static synchronized LoopScheduler getInstance() {
+        if (instance == null) {
+            instance = new LoopScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a loop on the shared thread, starting the scheduler if needed.
+     *
+     * @param loop Loop to run
+     * @param period Requested period (s), rounded to a multiple of the base period
+     */
+    public synchronized void register(Loop loop, double period) {
+        register(loop, period, null);
+    }
+
+    /**
+     * @param loop Loop to run
+     * @param period Requested period (s), rounded to a multiple of the base period
+     * @param name Timing telemetry key, see {@link Looper#register(Loop, int, String)}
+     */
+    public synchronized void register(Loop loop, double period, String name) {
+        long periodMicros = Math.max(kMinBasePeriodMicros, Math.round(period * 1e6));
+        periodsMicros.put(loop, periodMicros);
+        rebase();
+
+        if (looper.isRunning()) {
+            loop.onStart();
+        }
+        looper.register(loop, divider(periodMicros), name);
+        looper.start();
+    }
+
+    public synchronized void unregister(Loop loop) {
+        if (looper.unregister(loop)) {
+            periodsMicros.remove(loop);
+            if (looper.isRunning()) {
+                loop.onStop();
+            }
+            rebase();
+        }
+    }
+
+    // Retunes the shared Looper to the GCD of the registered periods
+    private void rebase() {
+        long gcd = 0;
+        for (long periodMicros : periodsMicros.values()) {
+            gcd = gcd(gcd, periodMicros);
+        }
+        long base = gcd == 0 ? kIdlePeriodMicros : Math.max(kMinBasePeriodMicros, gcd);
+        if (base == basePeriodMicros) {
+            return;
+        }
+
+        basePeriodMicros = base;
+        looper.setPeriod(base / 1e6);
+        for (Map.Entry<Loop, Long> entry : periodsMicros.entrySet()) {
+            looper.setDivider(entry.getKey(), divider(entry.getValue()));
+        }
+    }
+
+    private int divider(long periodMicros) {
+        return (int) Math.max(1, Math.round((double) periodMicros / basePeriodMicros));
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * @return Current tick period of the shared thread (s)
+     */
+    public synchronized double getBasePeriod() {
+        return basePeriodMicros / 1e6;
+    }
+
+    /**
+     * @return How many base period ticks apart a registered loop runs, 0 if it isn't registered
+     */
+    synchronized int getDivider(Loop loop) {
+        Long periodMicros = periodsMicros.get(loop);
+        return periodMicros == null ? 0 : divider(periodMicros);
+    }
+
+    /**
+     * @return Number of loops sharing the scheduler thread
+     */
+    public int getLoopCount() {
+        // The priority loop is internal
+        return looper.getLoopCount() - 1;
+    }
+
+    /**
+     * @return Number of times the shared thread has woken up
+     */
+    public long getWakeupCount() {
+        return looper.getIterationCount();
+    }
+
+    /**
+     * Publishes per loop timing for the shared thread. Call from the main robot thread.
+     */
+    public void outputTelemetry() {
+        looper.outputTelemetry();
+    }
+}
@@ -0,0 +1,132 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size, allocation free histogram of loop execution times in microseconds. Buckets are laid out
+ * HDR style: values below 16us get their own bucket and every power of two above that is split into 16
+ * linear sub buckets, so any recorded value is reported within ~6% of its true value. Values above
+ * ~16s land in the last bucket.
+ *
+ * <p>Intended to be written by one thread and read by another; readers may see a sample that is a few
+ * records stale but never a corrupted bucket index. Every count is a volatile or atomic long, so a read
+ * can't tear on the 32 bit roboRIO. The writer is the only thread updating them, which is why plain
+ * read-then-write increments are enough.
+ */
+public class LoopTimingHistogram {
+    private static final int kSubBucketBits = 4;
+    private static final int kSubBucketCount = 1 << kSubBucketBits;
+    private static final int kMaxExponent = 24;
+    private static final int kBucketCount = kSubBucketCount + (kMaxExponent - kSubBucketBits) * kSubBucketCount;
+
+    private final AtomicLongArray counts = new AtomicLongArray(kBucketCount);
+    private volatile long budgetMicros;
+
+    private volatile long totalCount = 0;
+    private volatile long overrunCount = 0;
+    private volatile long maxMicros = 0;
+
+    /**
+     * @param budgetSeconds Executions longer than this count as an overrun
+     */
+    public LoopTimingHistogram(double budgetSeconds) {
+        budgetMicros = (long) (budgetSeconds * 1e6);
+    }
+
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        int bucket = bucketIndex(micros);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        totalCount++;
+        if (micros > budgetMicros) {
+            overrunCount++;
+        }
+        if (micros > maxMicros) {
+            maxMicros = micros;
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return Upper bound of the bucket containing the percentile (us), 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = totalCount;
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        target = Math.max(1, target);
+
+        long seen = 0;
+        for (int i = 0; i < kBucketCount; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    public long getBudgetMicros() {
+        return budgetMicros;
+    }
+
+    /**
+     * @param budgetSeconds Executions longer than this count as an overrun from now on
+     */
+    public void setBudget(double budgetSeconds) {
+        budgetMicros = (long) (budgetSeconds * 1e6);
+    }
+
+    public void reset() {
+        for (int i = 0; i < kBucketCount; i++) {
+            counts.set(i, 0);
+        }
+        totalCount = 0;
+        overrunCount = 0;
+        maxMicros = 0;
+    }
+
+    private static int bucketIndex(long micros) {
+        if (micros < kSubBucketCount) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= kMaxExponent) {
+            return kBucketCount - 1;
+        }
+        int subBucket = (int) (micros >> (exponent - kSubBucketBits)) - kSubBucketCount;
+        return kSubBucketCount + (exponent - kSubBucketBits) * kSubBucketCount + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < kSubBucketCount) {
+            return index;
+        }
+        int exponent = (index - kSubBucketCount) / kSubBucketCount + kSubBucketBits;
+        int subBucket = (index - kSubBucketCount) % kSubBucketCount;
+        int shift = exponent - kSubBucketBits;
+        long lowerBound = (long) (kSubBucketCount + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,87 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Records execution times for one loop into a {@link LoopTimingHistogram} and publishes p50 / p99 /
+ * max / overruns to NetworkTables and the AdvantageKit log under the given key. Publishers and log keys
+ * are built once at construction.
+ *
+ * <p>{@link #record(long)} may be called from any single thread; {@link #publish()} must be called from
+ * the main robot thread since it writes to the Logger. {@link #close()} releases the publishers when the
+ * loop goes away.
+ */
+public class LoopTimingTelemetry implements AutoCloseable {
+    private final LoopTimingHistogram histogram;
+
+    private final DoublePublisher p50Pub, p99Pub, maxPub;
+    private final IntegerPublisher overrunPub, countPub;
+    private final String p50Key, p99Key, maxKey, overrunKey;
+
+    /**
+     * @param key NetworkTables / log path, e.g. "LoopTiming/Scheduler"
+     * @param budgetSeconds Executions longer than this count as an overrun
+     */
+    public LoopTimingTelemetry(String key, double budgetSeconds) {
+        histogram = new LoopTimingHistogram(budgetSeconds);
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable(key);
+        p50Pub = table.getDoubleTopic("p50Ms").publish();
+        p99Pub = table.getDoubleTopic("p99Ms").publish();
+        maxPub = table.getDoubleTopic("maxMs").publish();
+        overrunPub = table.getIntegerTopic("overruns").publish();
+        countPub = table.getIntegerTopic("count").publish();
+
+        p50Key = key + "/p50Ms";
+        p99Key = key + "/p99Ms";
+        maxKey = key + "/maxMs";
+        overrunKey = key + "/overruns";
+    }
+
+    /**
+     * @param nanos Execution time from System.nanoTime deltas
+     */
+    public void record(long nanos) {
+        histogram.recordNanos(nanos);
+    }
+
+    public LoopTimingHistogram getHistogram() {
+        return histogram;
+    }
+
+    public void setBudget(double budgetSeconds) {
+        histogram.setBudget(budgetSeconds);
+    }
+
+    public void publish() {
+        double p50 = histogram.getPercentileMicros(50) / 1000.0;
+        double p99 = histogram.getPercentileMicros(99) / 1000.0;
+        double max = histogram.getMaxMicros() / 1000.0;
+        long overruns = histogram.getOverrunCount();
+
+        p50Pub.set(p50);
+        p99Pub.set(p99);
+        maxPub.set(max);
+        overrunPub.set(overruns);
+        countPub.set(histogram.getCount());
+
+        Logger logger = Logger.getInstance();
+        logger.recordOutput(p50Key, p50);
+        logger.recordOutput(p99Key, p99);
+        logger.recordOutput(maxKey, max);
+        logger.recordOutput(overrunKey, overruns);
+    }
+
+    @Override
+    public void close() {
+        p50Pub.close();
+        p99Pub.close();
+        maxPub.close();
+        overrunPub.close();
+        countPub.close();
+    }
+}
@@ -1,85 +1,316 @@
 package frc.robot.CrevoLib.util.loopController;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 /**
- * This code runs all of the robot's loops. Loop objects are stored in a List
- * object. They are started when the robot powers up and stopped after the
- * match.
+ * This code runs all of the robot's loops. They are started when the robot
+ * powers up and stopped after the match.
+ *
+ * The loop thread never takes a lock. Registered loops are kept in an
+ * immutable array that register() replaces (copy on write), and the running
+ * state is atomic, so a slow onLoop() cannot block registration and a
+ * registration cannot stall an iteration. start(), stop() and register()
+ * only serialize against each other, and stop() waits for an iteration in
+ * progress without holding the lock, so a loop may register or unregister
+ * on its own Looper while another thread is stopping it.
+ *
+ * Each loop can be given a rate divider to run every Nth tick, so one
+ * Notifier can serve several rates. Execution time of every registered loop
+ * (and the whole iteration) is kept in a LoopTimingHistogram and published by
+ * outputTelemetry().
  */
 public class Looper {
-    public final double kPeriod;
+    private static final long kStopPollNanos = 100_000;
+    private final String name_;
+    private volatile double period_;
 
-    private boolean running_;
+    private final AtomicBoolean running_ = new AtomicBoolean(false);
+    // Set by the loop thread for the duration of an iteration so stop() can wait it out
+    private final AtomicBoolean inIteration_ = new AtomicBoolean(false);
 
     private final Notifier notifier_;
-    private final List<Loop> loops_;
-    private final Object taskRunningLock_ = new Object();
-    private double timestamp_ = 0;
-    private double dt_ = 0;
+    private volatile LoopEntry[] loops_ = new LoopEntry[0];
+    private final Object lifecycleLock_ = new Object();
+    // Set between a stop() clearing running_ and it calling onStop(), guarded by lifecycleLock_
+    private boolean stopping_ = false;
+    private final LoopTimingTelemetry iterationTiming_;
+
+    // Only touched by the loop thread, or by start() while the Notifier is stopped
+    private long tick_ = 0;
+    private volatile Thread loopThread_;
+    private volatile double timestamp_ = 0;
+    private volatile double dt_ = 0;
+
+    private static final class LoopEntry {
+        final Loop loop;
+        final int divider;
+        final String name;
+        final LoopTimingTelemetry timing;
+
+        LoopEntry(Loop loop, int divider, String name, LoopTimingTelemetry timing) {
+            this.loop = loop;
+            this.divider = divider;
+            this.name = name;
+            this.timing = timing;
+        }
+    }
+
     private final CrashTrackingRunnable runnable_ = new CrashTrackingRunnable() {
         @Override
         public void runCrashTracked() {
-            synchronized (taskRunningLock_) {
-                if (running_) {
+            // Publish that we're iterating before checking running_, see stop()
+            inIteration_.set(true);
+            loopThread_ = Thread.currentThread();
+            try {
+                if (running_.get()) {
                     double now = Timer.getFPGATimestamp();
-                    for (Loop loop : loops_) {
-                        loop.onLoop();
+                    long iterationStart = System.nanoTime();
+                    LoopEntry[] loops = loops_;
+                    for (LoopEntry entry : loops) {
+                        if (tick_ % entry.divider == 0) {
+                            long loopStart = System.nanoTime();
+                            entry.loop.onLoop();
+                            entry.timing.record(System.nanoTime() - loopStart);
+                        }
                     }
+                    tick_++;
+                    iterationTiming_.record(System.nanoTime() - iterationStart);
                     dt_ = now - timestamp_;
                     timestamp_ = now;
                 }
+            } finally {
+                inIteration_.set(false);
             }
         }
     };
 
     public Looper(double clock) {
+        this("Looper", clock);
+    }
+
+    public Looper(String name, double clock) {
         notifier_ = new Notifier(runnable_);
-        running_ = false;
-        loops_ = new ArrayList<>();
-        kPeriod = clock;
+        period_ = clock;
+        name_ = name;
+        iterationTiming_ = new LoopTimingTelemetry("LoopTiming/" + name + "/Total", clock);
+    }
+
+    public void register(Loop loop) {
+        register(loop, 1);
+    }
+
+    /**
+     * @param loop Loop to run
+     * @param divider Run the loop every Nth tick of this Looper, 1 runs it every tick
+     */
+    public void register(Loop loop, int divider) {
+        register(loop, divider, null);
+    }
+
+    /**
+     * @param loop Loop to run
+     * @param divider Run the loop every Nth tick of this Looper, 1 runs it every tick
+     * @param name Timing telemetry key under LoopTiming/[looper name]/, null for the loop's class name. A
+     *             name already used by a registered loop gets a #2, #3, ... suffix.
+     */
+    public void register(Loop loop, int divider, String name) {
+        if (divider < 1) {
+            throw new IllegalArgumentException("Loop rate divider must be at least 1");
+        }
+
+        synchronized (lifecycleLock_) {
+            LoopEntry[] loops = loops_;
+            String loopName = uniqueName(name != null ? name : loop.getClass().getSimpleName(), loops);
+            LoopTimingTelemetry timing = new LoopTimingTelemetry(
+                    "LoopTiming/" + name_ + "/" + loopName, period_ * divider);
+
+            LoopEntry[] updated = Arrays.copyOf(loops, loops.length + 1);
+            updated[loops.length] = new LoopEntry(loop, divider, loopName, timing);
+            loops_ = updated;
+        }
+    }
+
+    private static String uniqueName(String name, LoopEntry[] loops) {
+        String base = name.isEmpty() ? "Loop" : name;
+        String candidate = base;
+        for (int suffix = 2; isNameTaken(candidate, loops); suffix++) {
+            candidate = base + "#" + suffix;
+        }
+        return candidate;
     }
 
-    public synchronized void register(Loop loop) {
-        synchronized (taskRunningLock_) {
-            loops_.add(loop);
+    private static boolean isNameTaken(String name, LoopEntry[] loops) {
+        for (LoopEntry entry : loops) {
+            if (entry.name.equals(name)) {
+                return true;
+            }
         }
+        return false;
     }
 
-    public synchronized void start() {
-        if (!running_) {
-            System.out.println("Starting loops");
-            synchronized (taskRunningLock_) {
+    /**
+     * Removes a loop and closes its timing publishers. It will not be run
+     * again once this returns, though an iteration already in progress may
+     * still finish calling it.
+     *
+     * @return false if the loop was not registered
+     */
+    public boolean unregister(Loop loop) {
+        synchronized (lifecycleLock_) {
+            LoopEntry[] loops = loops_;
+            for (int i = 0; i < loops.length; i++) {
+                if (loops[i].loop == loop) {
+                    LoopEntry[] updated = new LoopEntry[loops.length - 1];
+                    System.arraycopy(loops, 0, updated, 0, i);
+                    System.arraycopy(loops, i + 1, updated, i, loops.length - i - 1);
+                    loops_ = updated;
+                    loops[i].timing.close();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Changes the tick period, taking effect from the next tick if running. Loop dividers are kept, see
+     * {@link #setDivider(Loop, int)}.
+     */
+    public void setPeriod(double period) {
+        synchronized (lifecycleLock_) {
+            period_ = period;
+            iterationTiming_.setBudget(period);
+            if (running_.get()) {
+                notifier_.startPeriodic(period);
+            }
+        }
+    }
+
+    public double getPeriod() {
+        return period_;
+    }
+
+    /**
+     * Changes how often a registered loop runs, see {@link #register(Loop, int, String)}.
+     *
+     * @return false if the loop was not registered
+     */
+    public boolean setDivider(Loop loop, int divider) {
+        if (divider < 1) {
+            throw new IllegalArgumentException("Loop rate divider must be at least 1");
+        }
+
+        synchronized (lifecycleLock_) {
+            LoopEntry[] loops = loops_;
+            for (int i = 0; i < loops.length; i++) {
+                LoopEntry entry = loops[i];
+                if (entry.loop == loop) {
+                    entry.timing.setBudget(period_ * divider);
+                    LoopEntry[] updated = loops.clone();
+                    updated[i] = new LoopEntry(loop, divider, entry.name, entry.timing);
+                    loops_ = updated;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public int getLoopCount() {
+        return loops_.length;
+    }
+
+    /**
+     * @return Number of iterations (Notifier wakeups) run since construction
+     */
+    public long getIterationCount() {
+        return iterationTiming_.getHistogram().getCount();
+    }
+
+    public boolean isRunning() {
+        return running_.get();
+    }
+
+    public void start() {
+        synchronized (lifecycleLock_) {
+            // Let a stop() in progress call onStop() first. The loop thread can't wait on its own iteration.
+            while (stopping_ && Thread.currentThread() != loopThread_) {
+                waitForLifecycle();
+            }
+            if (!running_.get()) {
+                System.out.println("Starting loops");
                 timestamp_ = Timer.getFPGATimestamp();
-                for (Loop loop : loops_) {
-                    loop.onStart();
+                tick_ = 0;
+                for (LoopEntry entry : loops_) {
+                    entry.loop.onStart();
                 }
-                running_ = true;
+                running_.set(true);
+                notifier_.startPeriodic(period_);
             }
-            notifier_.startPeriodic(kPeriod);
         }
     }
 
-    public synchronized void stop() {
-        if (running_) {
+    public void stop() {
+        synchronized (lifecycleLock_) {
+            while (stopping_ && Thread.currentThread() != loopThread_) {
+                waitForLifecycle();
+            }
+            if (!running_.compareAndSet(true, false)) {
+                return;
+            }
             System.out.println("Stopping loops");
             notifier_.stop();
-            synchronized (taskRunningLock_) {
-                running_ = false;
-                for (Loop loop : loops_) {
-                    System.out.println("Stopping " + loop);
-                    loop.onStop();
+            stopping_ = true;
+        }
+
+        // An iteration that saw running_ before it was cleared may still be in
+        // onLoop(); don't call onStop() underneath it. Waits without the lock so
+        // that loop can still register / unregister. Skip the wait if a loop is
+        // stopping its own Looper.
+        while (inIteration_.get() && Thread.currentThread() != loopThread_) {
+            LockSupport.parkNanos(kStopPollNanos);
+        }
+
+        synchronized (lifecycleLock_) {
+            // Only the loop thread can have restarted us while we waited
+            if (!running_.get()) {
+                for (LoopEntry entry : loops_) {
+                    System.out.println("Stopping " + entry.loop);
+                    entry.loop.onStop();
                 }
             }
+            stopping_ = false;
+            lifecycleLock_.notifyAll();
+        }
+    }
+
+    // Called holding lifecycleLock_, releases it while waiting
+    private void waitForLifecycle() {
+        try {
+            lifecycleLock_.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the Looper to stop", e);
         }
     }
 
     public void outputToSmartDashboard() {
         SmartDashboard.putNumber("looper_dt", dt_);
     }
+
+    /**
+     * Publishes the per loop execution time histograms. Call from the main robot thread.
+     */
+    public void outputTelemetry() {
+        for (LoopEntry entry : loops_) {
+            entry.timing.publish();
+        }
+        iterationTiming_.publish();
+    }
 }
@@ -8,8 +8,19 @@ package frc.robot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.CrevoLib.defaultconfigs.CTREConfigs;
+import frc.robot.CrevoLib.util.logging.BinaryLogger;
+import frc.robot.CrevoLib.util.logging.LogProducer;
+import frc.robot.CrevoLib.util.loopController.LoopScheduler;
+import frc.robot.CrevoLib.util.loopController.LoopTimingTelemetry;
 
+import org.littletonrobotics.junction.LogFileUtil;
 import org.littletonrobotics.junction.LoggedRobot;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.networktables.NT4Publisher;
+import org.littletonrobotics.junction.wpilog.WPILOGReader;
+import org.littletonrobotics.junction.wpilog.WPILOGWriter;
+
+import java.util.UUID;
 
 /**
  * The VM is configured to automatically run this class, and to call the functions corresponding to
@@ -22,6 +33,11 @@ public class Robot extends LoggedRobot {
   public static CTREConfigs ctreConfigs; 
 
   private RobotContainer m_robotContainer;
+  private final LoopTimingTelemetry m_schedulerTiming = new LoopTimingTelemetry("LoopTiming/Scheduler", 0.02);
+  private final double[] m_simPose = new double[3];
+  private final LogProducer m_binaryLog = BinaryLogger.getInstance().createProducer("Robot", 64, 1);
+  private final int m_schedulerTimeChannel = BinaryLogger.getInstance().registerChannel("LoopTiming/SchedulerMs", 1);
+  private final double[] m_schedulerTimeRecord = new double[1];
 
   /**
    * This function is run when the robot is first started up and should be used for any
@@ -29,6 +45,9 @@ public class Robot extends LoggedRobot {
    */
   @Override
   public void robotInit() {
+    // The Logger has to be running before any subsystem reads its IO layer
+    configureLogging();
+
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     m_robotContainer = new RobotContainer();
@@ -49,8 +68,50 @@ public class Robot extends LoggedRobot {
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
+    long schedulerStart = System.nanoTime();
+    RobotContainer.driverGamepad.updateInputs();
     CommandScheduler.getInstance().run();
-    
+    long schedulerNanos = System.nanoTime() - schedulerStart;
+    m_schedulerTiming.record(schedulerNanos);
+    m_schedulerTiming.publish();
+    m_schedulerTimeRecord[0] = schedulerNanos / 1e6;
+    m_binaryLog.log(m_schedulerTimeChannel, m_schedulerTimeRecord);
+    LoopScheduler.getInstance().outputTelemetry();
+    BinaryLogger.getInstance().outputTelemetry();
+  }
+
+  /**
+   * Sets up AdvantageKit. On the robot inputs and outputs go to a WPILOG on the USB stick and to NT,
+   * alongside the {@link BinaryLogger} high rate log. In
+   * replay the newest log (or the one named by the AKIT_LOG_PATH environment variable) is re-run as
+   * fast as possible with every IO layer stubbed out, and the re-derived outputs are written next to it
+   * with a "_sim" suffix.
+   */
+  private void configureLogging() {
+    Logger logger = Logger.getInstance();
+    logger.recordMetadata("ProjectName", "SwerveBase");
+    logger.recordMetadata("Mode", Constants.kCurrentMode.toString());
+
+    switch (Constants.kCurrentMode) {
+      case REAL:
+        logger.addDataReceiver(new WPILOGWriter(Constants.LoggingConstants.kLogDirectory));
+        logger.addDataReceiver(new NT4Publisher());
+        // The RIO clock isn't set at boot, so name the high rate log by run instead of date
+        BinaryLogger.getInstance().start(Constants.LoggingConstants.kLogDirectory,
+            "highrate_" + UUID.randomUUID().toString().substring(0, 8) + ".wpilog");
+        break;
+      case SIM:
+        logger.addDataReceiver(new NT4Publisher());
+        break;
+      case REPLAY:
+        setUseTiming(false);
+        String logPath = LogFileUtil.findReplayLog();
+        logger.setReplaySource(new WPILOGReader(logPath));
+        logger.addDataReceiver(new WPILOGWriter(LogFileUtil.addPathSuffix(logPath, "_sim")));
+        break;
+    }
+
+    logger.start();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
@@ -111,5 +172,16 @@ public class Robot extends LoggedRobot {
 
   /** This function is called periodically whilst in simulation. */
   @Override
-  public void simulationPeriodic() {}
+  public void simulationPeriodic() {
+    if (RobotContainer.swerveSim != null) {
+      // One robot loop of physics, in fixed substeps
+      RobotContainer.swerveSim.update(0.02);
+      RobotContainer.swerveSim.getPose(m_simPose);
+      Logger.getInstance().recordOutput("Sim/Pose", m_simPose);
+      Logger.getInstance().recordOutput("Sim/PitchDegrees", RobotContainer.swerveSim.getPitchDegrees());
+    }
+    if (RobotContainer.visionSim != null) {
+      RobotContainer.visionSim.update(RobotContainer.swerveSim.getPose());
+    }
+  }
 }
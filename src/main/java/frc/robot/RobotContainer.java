@@ -2,29 +2,47 @@ package frc.robot;
 
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
+import frc.robot.auto.Autos;
+import frc.robot.drivetrain.ChargeStationBalancer;
 import frc.robot.drivetrain.Drivetrain;
+import frc.robot.drivetrain.DrivetrainConfig;
+import frc.robot.drivetrain.GyroIO;
+import frc.robot.drivetrain.GyroIOPigeon2;
+import frc.robot.drivetrain.GyroIOSim;
+import frc.robot.drivetrain.ModuleIO;
+import frc.robot.drivetrain.ModuleIOFalcon;
+import frc.robot.drivetrain.ModuleIOSim;
+import frc.robot.drivetrain.SwerveDriveSim;
 import frc.robot.drivetrain.commands.DrivetrainCommands;
+import frc.robot.vision.Vision;
+import frc.robot.vision.VisionConfig;
+import frc.robot.vision.VisionIO;
+import frc.robot.vision.VisionIOPhoton;
+import frc.robot.vision.VisionSim;
 
 import frc.robot.driver.DriverGamepad;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
-import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import org.littletonrobotics.junction.networktables.LoggedDashboardChooser;
 
 
 public class RobotContainer {
 
-//  public static PhotonCamera orangePi = new PhotonCamera(Constants.VisionConstants.CAMERA_NAME);
-
     /*Declare Joystick*/
     public static DriverGamepad driverGamepad;
     // public static OperatorGamepad operatorGamepad;
 
     /*Declare Subsystems*/
     public static Drivetrain drivetrain;
-    //    public static PoseEstimator poseEstimator;
+    /*Shared by every Balance command, one balancer so its logging is only set up once*/
+    public static ChargeStationBalancer balancer;
+    /*Physics model behind the simulated IO, null unless running in SIM mode*/
+    public static SwerveDriveSim swerveSim;
+    public static Vision vision;
+    /*Simulated camera rendering tags from the physics model's pose, null unless running in SIM mode*/
+    public static VisionSim visionSim;
     // public static IntakePivot intakePivot;
     // public static IntakeRoller intakeRoller;
     // public static IntakeHood intakeHood;
@@ -32,13 +50,22 @@ public class RobotContainer {
     // public static Claw claw;
     //public static PneumaticsControlModule pcm;
 
-    /*Sendable Chooser Selector for Auton */
-    public static SendableChooser<Command> autoChooser;
+    /*Auton selector, logged so replay runs the auto that was selected on the field*/
+    public static LoggedDashboardChooser<Command> autoChooser;
+    public static Autos autos;
 
     public RobotContainer() {
         // Subsystem initialization
-        drivetrain = new Drivetrain();
-//        poseEstimator = new PoseEstimator(orangePi, drivetrain);
+        drivetrain = createDrivetrain();
+        balancer = new ChargeStationBalancer(drivetrain);
+        if (swerveSim != null) {
+            // Start the model where odometry thinks the robot is so the ground truth lines up
+            swerveSim.resetPose(drivetrain.getPose());
+        }
+        vision = createVision();
+        autoChooser = new LoggedDashboardChooser<>("Auto");
+        // Paths load in the background, the chooser fills in once they're sampled
+        autos = new Autos(drivetrain, balancer, autoChooser, swerveSim);
         // intakePivot = new IntakePivot();
         // intakeRoller = new IntakeRoller();
         // intakeHood = new IntakeHood();
@@ -53,14 +80,68 @@ public class RobotContainer {
         setDefaultCommands();
     }
 
+    private static Drivetrain createDrivetrain() {
+        switch (Constants.kCurrentMode) {
+            case REAL:
+                return new Drivetrain(
+                        new GyroIOPigeon2(),
+                        new ModuleIOFalcon(DrivetrainConfig.kFrontLeftModuleConfig),
+                        new ModuleIOFalcon(DrivetrainConfig.kFrontRightModuleConfig),
+                        new ModuleIOFalcon(DrivetrainConfig.kBackLeftModuleConfig),
+                        new ModuleIOFalcon(DrivetrainConfig.kBackRightModuleConfig),
+                        DrivetrainConfig.kUseHighRateOdometry
+                );
+            case SIM:
+                swerveSim = new SwerveDriveSim();
+                return new Drivetrain(
+                        new GyroIOSim(swerveSim),
+                        new ModuleIOSim(swerveSim, 0),
+                        new ModuleIOSim(swerveSim, 1),
+                        new ModuleIOSim(swerveSim, 2),
+                        new ModuleIOSim(swerveSim, 3),
+                        DrivetrainConfig.kUseHighRateOdometry
+                );
+            default:
+                // Inputs come from the log, including the odometry thread's samples, so no thread reads the no-op IO
+                return new Drivetrain(
+                        new GyroIO() {},
+                        new ModuleIO() {}, new ModuleIO() {}, new ModuleIO() {}, new ModuleIO() {},
+                        false
+                );
+        }
+    }
+
+    private static Vision createVision() {
+        switch (Constants.kCurrentMode) {
+            case REAL:
+                return new Vision(drivetrain, createPhotonCameras());
+            case SIM:
+                visionSim = new VisionSim(VisionConfig.kCameraNames, VisionConfig.kRobotToCameras,
+                        VisionConfig.kFieldLayout);
+                return new Vision(drivetrain, createPhotonCameras());
+            default:
+                // Candidates come from the log
+                return new Vision(drivetrain);
+        }
+    }
+
+    private static VisionIO[] createPhotonCameras() {
+        VisionIO[] cameras = new VisionIO[VisionConfig.kCameraNames.length];
+        for (int i = 0; i < cameras.length; i++) {
+            cameras[i] = new VisionIOPhoton(VisionConfig.kCameraNames[i], VisionConfig.kRobotToCameras[i],
+                    VisionConfig.kFieldLayout);
+        }
+        return cameras;
+    }
+
     /**
      * Use this to pass the autonomous command to the main {@link Robot} class.
      *
      * @return the command to run in autonomous
      */
     public Command getAutonomousCommand() {
-        /*Returns Auton Commands (Sendable Chooser) */
-        return autoChooser.getSelected();
+        /*Returns Auton Commands (Logged Dashboard Chooser) */
+        return autoChooser.get();
     }
 
     public void reset() {
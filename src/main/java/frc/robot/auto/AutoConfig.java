@@ -0,0 +1,32 @@
+package frc.robot.auto;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+public class AutoConfig {
+    // Paths, loaded from deploy/pathplanner at startup
+    public static final String kPathDirectory = "pathplanner";
+    public static final double kMaxVelocity = 3.0; // m/s
+    public static final double kMaxAcceleration = 2.5; // m/s^2
+    public static final double kSampleDt = 0.01; // Pre-sampled trajectory resolution (s)
+
+    // Path following
+    public static final double kTranslationP = 5.0;
+    public static final double kTranslationI = 0.0;
+    public static final double kTranslationD = 0.0;
+    public static final double kRotationP = 3.0;
+    public static final double kRotationI = 0.0;
+    public static final double kRotationD = 0.0;
+
+    // Drive to pose
+    public static final double kPathGenerationBudgetSeconds = 0.1; // Past this, approach with PID instead
+    public static final double kDriveToPoseToleranceMeters = 0.03;
+    public static final double kDriveToPoseToleranceRadians = Math.toRadians(2.0);
+    public static final Pose2d kAlignPose = new Pose2d(13.56, 5.2, Rotation2d.fromDegrees(0.0));
+
+    // Simulation check, time for the gyro inputs to pick up a ground truth reset before odometry is reset
+    public static final double kSimResetSettleSeconds = 0.1;
+    // Balance check, starts in front of the blue charge station facing it
+    public static final Pose2d kSimBalanceStartPose = new Pose2d(2.0, 2.745, Rotation2d.fromDegrees(0.0));
+    public static final double kSimBalanceTimeoutSeconds = 10.0;
+}
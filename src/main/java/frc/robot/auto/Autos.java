@@ -0,0 +1,193 @@
+package frc.robot.auto;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.drivetrain.ChargeStationBalancer;
+import frc.robot.drivetrain.Drivetrain;
+import frc.robot.drivetrain.SwerveDriveSim;
+import frc.robot.drivetrain.commands.Balance;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.networktables.LoggedDashboardChooser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads every PathPlanner path in deploy/{@link AutoConfig#kPathDirectory} on a background thread at
+ * startup and pre-samples each into a {@link SampledTrajectory}. Once loading finishes,
+ * {@link #periodic()} builds a {@link FollowTrajectory} command per path and adds it to the auto chooser,
+ * so selecting and scheduling an auto at autonomousInit is only a chooser lookup. Until then the chooser
+ * holds "Do Nothing".
+ *
+ * <p>In simulation an extra "Sim Check" option runs every auto from its start pose on the physics model
+ * and logs how far the ground truth ended from the end of each path. The follower logs its own tracking
+ * error along the way. "Sim Balance Check" drives onto the simulated blue charge station with
+ * {@link Balance} and logs how long it took to level.
+ */
+public class Autos extends SubsystemBase {
+    /** One loaded path. */
+    public static final class AutoRoutine {
+        public final String name;
+        public final SampledTrajectory sampled;
+
+        AutoRoutine(String name, SampledTrajectory sampled) {
+            this.name = name;
+            this.sampled = sampled;
+        }
+
+        public Pose2d getStartPose() {
+            return new Pose2d(sampled.x[0], sampled.y[0], new Rotation2d(sampled.heading[0]));
+        }
+    }
+
+    private final Drivetrain drivetrain;
+    private final ChargeStationBalancer balancer;
+    private final LoggedDashboardChooser<Command> chooser;
+    private final SwerveDriveSim sim;
+
+    // Published once by the loader thread
+    private volatile AutoRoutine[] routines;
+    private volatile double loadTimeMs = Double.NaN;
+    private boolean chooserPopulated = false;
+
+    /**
+     * @param balancer Shared charge station balancer, see {@link Balance}
+     * @param sim Physics model for the simulation check, null when not simulating
+     */
+    public Autos(Drivetrain drivetrain, ChargeStationBalancer balancer, LoggedDashboardChooser<Command> chooser,
+                 SwerveDriveSim sim) {
+        this.drivetrain = drivetrain;
+        this.balancer = balancer;
+        this.chooser = chooser;
+        this.sim = sim;
+
+        chooser.addDefaultOption("Do Nothing", Commands.none());
+
+        Thread loader = new Thread(this::load, "AutoLoader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isLoaded() {
+        return routines != null;
+    }
+
+    /** Loaded routines, empty until loading finishes. */
+    public List<AutoRoutine> getRoutines() {
+        AutoRoutine[] loaded = routines;
+        return (loaded == null) ? List.of() : Arrays.asList(loaded);
+    }
+
+    @Override
+    public void periodic() {
+        AutoRoutine[] loaded = routines;
+        if (!chooserPopulated && loaded != null) {
+            for (AutoRoutine routine : loaded) {
+                chooser.addOption(routine.name, buildCommand(routine));
+            }
+            if (sim != null) {
+                chooser.addOption("Sim Check", buildSimCheck(loaded));
+                chooser.addOption("Sim Balance Check", buildSimBalanceCheck());
+            }
+            chooserPopulated = true;
+        }
+
+        Logger logger = Logger.getInstance();
+        logger.recordOutput("Auto/Loaded", loaded != null);
+        logger.recordOutput("Auto/LoadTimeMs", loadTimeMs);
+        logger.recordOutput("Auto/PathCount", (loaded == null) ? 0 : loaded.length);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        File directory = new File(Filesystem.getDeployDirectory(), AutoConfig.kPathDirectory);
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".path"));
+        if (files == null) {
+            files = new File[0];
+        }
+        Arrays.sort(files);
+
+        PathConstraints constraints = new PathConstraints(AutoConfig.kMaxVelocity, AutoConfig.kMaxAcceleration);
+        List<AutoRoutine> loaded = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName().substring(0, file.getName().length() - ".path".length());
+            try {
+                PathPlannerTrajectory trajectory = PathPlanner.loadPath(name, constraints);
+                if (trajectory == null) {
+                    DriverStation.reportWarning("Failed to load path " + name, false);
+                    continue;
+                }
+                SampledTrajectory sampled = SampledTrajectory.fromPathPlanner(name, trajectory, AutoConfig.kSampleDt);
+                loaded.add(new AutoRoutine(name, sampled));
+            } catch (RuntimeException e) {
+                DriverStation.reportError("Failed to load path " + name + ": " + e.getMessage(), e.getStackTrace());
+            }
+        }
+
+        loadTimeMs = (System.nanoTime() - start) / 1e6;
+        routines = loaded.toArray(new AutoRoutine[0]);
+    }
+
+    private Command buildCommand(AutoRoutine routine) {
+        Pose2d startPose = routine.getStartPose();
+        return Commands.sequence(
+                Commands.runOnce(() -> drivetrain.resetOdometryAuton(startPose)),
+                new FollowTrajectory(drivetrain, routine.sampled)
+        );
+    }
+
+    /**
+     * Runs every routine in turn, each from its own start pose on the physics model, and logs the distance
+     * between the ground truth and the end of the path as Auto/SimCheck/[name]/EndErrorMeters.
+     */
+    private Command buildSimCheck(AutoRoutine[] loaded) {
+        List<Command> steps = new ArrayList<>();
+        for (AutoRoutine routine : loaded) {
+            Pose2d startPose = routine.getStartPose();
+            String key = "Auto/SimCheck/" + routine.name + "/EndErrorMeters";
+            steps.add(Commands.runOnce(() -> sim.resetPose(startPose)));
+            steps.add(Commands.waitSeconds(AutoConfig.kSimResetSettleSeconds));
+            steps.add(buildCommand(routine));
+            steps.add(Commands.runOnce(() -> {
+                Pose2d truth = sim.getPose();
+                int last = routine.sampled.length - 1;
+                double error = Math.hypot(truth.getX() - routine.sampled.x[last],
+                        truth.getY() - routine.sampled.y[last]);
+                Logger.getInstance().recordOutput(key, error);
+            }));
+        }
+        return Commands.sequence(steps.toArray(new Command[0]));
+    }
+
+    /**
+     * Drives onto the blue charge station from in front of it and logs Auto/SimCheck/Balance/LevelSeconds,
+     * NaN if it hadn't levelled within {@link AutoConfig#kSimBalanceTimeoutSeconds}, and the final pitch.
+     */
+    private Command buildSimBalanceCheck() {
+        Balance balance = new Balance(drivetrain, balancer, true);
+        double[] startTime = new double[1];
+        return Commands.sequence(
+                Commands.runOnce(() -> sim.resetPose(AutoConfig.kSimBalanceStartPose)),
+                Commands.waitSeconds(AutoConfig.kSimResetSettleSeconds),
+                Commands.runOnce(() -> startTime[0] = Timer.getFPGATimestamp()),
+                balance.until(balance::isLevel).withTimeout(AutoConfig.kSimBalanceTimeoutSeconds),
+                Commands.runOnce(() -> {
+                    Logger logger = Logger.getInstance();
+                    logger.recordOutput("Auto/SimCheck/Balance/LevelSeconds",
+                            balance.isLevel() ? Timer.getFPGATimestamp() - startTime[0] : Double.NaN);
+                    logger.recordOutput("Auto/SimCheck/Balance/PitchDegrees", sim.getPitchDegrees());
+                })
+        );
+    }
+}
@@ -0,0 +1,151 @@
+package frc.robot.auto;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.drivetrain.Drivetrain;
+import frc.robot.drivetrain.DrivetrainConfig;
+import org.littletonrobotics.junction.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Drives from wherever the robot is to a target pose. On start it asks the {@link PathGenerator} for a
+ * path and holds still while the worker generates it; once the future completes the path is followed with
+ * {@link FollowTrajectory}. If the path isn't ready within {@link AutoConfig#kPathGenerationBudgetSeconds}
+ * or generation fails, the robot approaches the target directly with X / Y / theta PID instead. Either way
+ * the PID approach settles the last few centimeters and the command ends inside the tolerance.
+ */
+public class DriveToPose extends CommandBase {
+    private enum State { GENERATING, FOLLOWING, APPROACHING }
+
+    private final Drivetrain drivetrain;
+    private final Supplier<Pose2d> targetSupplier;
+    private final PathGenerator generator;
+    private final FollowTrajectory follower;
+    private final PIDController xController, yController, thetaController;
+
+    private State state;
+    private Pose2d target;
+    private CompletableFuture<SampledTrajectory> pendingPath;
+    private double requestTime;
+
+    public DriveToPose(Drivetrain drivetrain, Supplier<Pose2d> target) {
+        this.drivetrain = drivetrain;
+        this.targetSupplier = target;
+        generator = PathGenerator.getInstance();
+        follower = new FollowTrajectory(drivetrain);
+        xController = new PIDController(AutoConfig.kTranslationP, AutoConfig.kTranslationI, AutoConfig.kTranslationD);
+        yController = new PIDController(AutoConfig.kTranslationP, AutoConfig.kTranslationI, AutoConfig.kTranslationD);
+        thetaController = new PIDController(AutoConfig.kRotationP, AutoConfig.kRotationI, AutoConfig.kRotationD);
+        thetaController.enableContinuousInput(-Math.PI, Math.PI);
+
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        target = targetSupplier.get();
+        xController.reset();
+        yController.reset();
+        thetaController.reset();
+
+        Pose2d pose = drivetrain.getPose();
+        if (pose.getTranslation().getDistance(target.getTranslation()) < AutoConfig.kDriveToPoseToleranceMeters) {
+            // Nothing to plan, only the heading may need settling
+            pendingPath = null;
+            state = State.APPROACHING;
+        } else {
+            pendingPath = generator.generate(pose, target);
+            requestTime = Timer.getFPGATimestamp();
+            state = State.GENERATING;
+        }
+    }
+
+    @Override
+    public void execute() {
+        if (state == State.GENERATING) {
+            double waited = Timer.getFPGATimestamp() - requestTime;
+            if (pendingPath.isDone()) {
+                SampledTrajectory path = pendingPath.isCompletedExceptionally() ? null : pendingPath.join();
+                Logger.getInstance().recordOutput("Auto/DriveToPose/GenerationMs", waited * 1e3);
+                if (path != null) {
+                    follower.setTrajectory(path);
+                    follower.initialize();
+                    state = State.FOLLOWING;
+                } else {
+                    state = State.APPROACHING;
+                }
+            } else if (waited > AutoConfig.kPathGenerationBudgetSeconds) {
+                // The worker skips it if it hasn't started, or drops it before trajectory generation
+                pendingPath.cancel(false);
+                state = State.APPROACHING;
+            } else {
+                drivetrain.stopSwerve();
+                return;
+            }
+            Logger.getInstance().recordOutput("Auto/DriveToPose/UsedPath", state == State.FOLLOWING);
+        }
+
+        if (state == State.FOLLOWING) {
+            follower.execute();
+            if (!follower.isFinished()) {
+                return;
+            }
+            follower.end(false);
+            state = State.APPROACHING;
+        }
+
+        approach();
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (state != State.APPROACHING) {
+            return false;
+        }
+        Pose2d pose = drivetrain.getPose();
+        double headingError = Math.IEEEremainder(
+                target.getRotation().getRadians() - pose.getRotation().getRadians(), 2.0 * Math.PI);
+        return pose.getTranslation().getDistance(target.getTranslation()) < AutoConfig.kDriveToPoseToleranceMeters
+                && Math.abs(headingError) < AutoConfig.kDriveToPoseToleranceRadians;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (pendingPath != null) {
+            pendingPath.cancel(false);
+        }
+        if (state == State.FOLLOWING) {
+            follower.end(interrupted);
+        } else {
+            drivetrain.stopSwerve();
+        }
+    }
+
+    /** Straight at the target with PID, translation speed capped at the path velocity limit. */
+    private void approach() {
+        Pose2d pose = drivetrain.getPose();
+        double heading = pose.getRotation().getRadians();
+        double fieldVx = xController.calculate(pose.getX(), target.getX());
+        double fieldVy = yController.calculate(pose.getY(), target.getY());
+        double speed = Math.hypot(fieldVx, fieldVy);
+        if (speed > AutoConfig.kMaxVelocity) {
+            fieldVx *= AutoConfig.kMaxVelocity / speed;
+            fieldVy *= AutoConfig.kMaxVelocity / speed;
+        }
+        double omega = MathUtil.clamp(
+                thetaController.calculate(heading, target.getRotation().getRadians()),
+                -DrivetrainConfig.kMaxAngularVelocity,
+                DrivetrainConfig.kMaxAngularVelocity
+        );
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        drivetrain.drive(fieldVx * cos + fieldVy * sin, -fieldVx * sin + fieldVy * cos, omega,
+                false, false, 0.0, 0.0);
+    }
+}
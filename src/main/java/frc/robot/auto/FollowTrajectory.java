@@ -0,0 +1,127 @@
+package frc.robot.auto;
+
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.CrevoLib.util.logging.BinaryLogger;
+import frc.robot.CrevoLib.util.logging.LogProducer;
+import frc.robot.drivetrain.Drivetrain;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Holonomic follower for a {@link SampledTrajectory}. Every cycle the reference is looked up by elapsed
+ * time, its field relative velocity is fed forward and X / Y / theta PID on the error to
+ * {@link Drivetrain#getPose()} corrects drift. The result is rotated into the robot frame by the pose
+ * heading, so it stays consistent with odometry even if the gyro was never zeroed.
+ *
+ * <p>Tracking error is written to the binary log every cycle as
+ * [t, x error, y error, theta error, reference x, reference y, reference theta], and the RMS and max
+ * translation error of the run go to Auto/Follower/[name]/ when the command ends.
+ */
+public class FollowTrajectory extends CommandBase {
+    private static LogProducer binaryLog;
+    private static int errorChannel;
+
+    private final Drivetrain drivetrain;
+    private final PIDController xController, yController, thetaController;
+    private SampledTrajectory trajectory;
+    private String rmsKey, maxKey;
+
+    private final double[] reference = new double[SampledTrajectory.kSampleWidth];
+    private final double[] errorRecord = new double[7];
+    private double startTime;
+    private double squaredErrorSum;
+    private double maxError;
+    private int sampleCount;
+
+    public FollowTrajectory(Drivetrain drivetrain, SampledTrajectory trajectory) {
+        this(drivetrain);
+        setTrajectory(trajectory);
+    }
+
+    /**
+     * Follower without a trajectory yet, for commands that generate one at runtime and drive this one
+     * directly. {@link #setTrajectory} must be called before {@link #initialize()}.
+     */
+    FollowTrajectory(Drivetrain drivetrain) {
+        this.drivetrain = drivetrain;
+        xController = new PIDController(AutoConfig.kTranslationP, AutoConfig.kTranslationI, AutoConfig.kTranslationD);
+        yController = new PIDController(AutoConfig.kTranslationP, AutoConfig.kTranslationI, AutoConfig.kTranslationD);
+        thetaController = new PIDController(AutoConfig.kRotationP, AutoConfig.kRotationI, AutoConfig.kRotationD);
+        thetaController.enableContinuousInput(-Math.PI, Math.PI);
+
+        synchronized (FollowTrajectory.class) {
+            // Shared by every follower, they all run on the main thread and only one runs at a time
+            if (binaryLog == null) {
+                binaryLog = BinaryLogger.getInstance().createProducer("Follower", 256, errorRecord.length);
+                errorChannel = BinaryLogger.getInstance().registerChannel("Auto/TrackingError", errorRecord.length);
+            }
+        }
+
+        addRequirements(drivetrain);
+    }
+
+    void setTrajectory(SampledTrajectory trajectory) {
+        this.trajectory = trajectory;
+        rmsKey = "Auto/Follower/" + trajectory.name + "/RmsErrorMeters";
+        maxKey = "Auto/Follower/" + trajectory.name + "/MaxErrorMeters";
+    }
+
+    @Override
+    public void initialize() {
+        xController.reset();
+        yController.reset();
+        thetaController.reset();
+        squaredErrorSum = 0.0;
+        maxError = 0.0;
+        sampleCount = 0;
+        startTime = Timer.getFPGATimestamp();
+    }
+
+    @Override
+    public void execute() {
+        double t = Timer.getFPGATimestamp() - startTime;
+        trajectory.sample(t, reference);
+
+        Pose2d pose = drivetrain.getPose();
+        double heading = pose.getRotation().getRadians();
+        double fieldVx = reference[3] + xController.calculate(pose.getX(), reference[0]);
+        double fieldVy = reference[4] + yController.calculate(pose.getY(), reference[1]);
+        double omega = reference[5] + thetaController.calculate(heading, reference[2]);
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        drivetrain.drive(fieldVx * cos + fieldVy * sin, -fieldVx * sin + fieldVy * cos, omega,
+                false, false, 0.0, 0.0);
+
+        double errorX = reference[0] - pose.getX();
+        double errorY = reference[1] - pose.getY();
+        double error = Math.hypot(errorX, errorY);
+        squaredErrorSum += error * error;
+        maxError = Math.max(maxError, error);
+        sampleCount++;
+
+        errorRecord[0] = t;
+        errorRecord[1] = errorX;
+        errorRecord[2] = errorY;
+        errorRecord[3] = Math.IEEEremainder(reference[2] - heading, 2.0 * Math.PI);
+        errorRecord[4] = reference[0];
+        errorRecord[5] = reference[1];
+        errorRecord[6] = reference[2];
+        binaryLog.log(errorChannel, errorRecord);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return Timer.getFPGATimestamp() - startTime >= trajectory.getDurationSeconds();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        drivetrain.stopSwerve();
+        Logger logger = Logger.getInstance();
+        logger.recordOutput(rmsKey, (sampleCount > 0) ? Math.sqrt(squaredErrorSum / sampleCount) : 0.0);
+        logger.recordOutput(maxKey, maxError);
+    }
+}
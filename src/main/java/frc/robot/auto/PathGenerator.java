@@ -0,0 +1,178 @@
+package frc.robot.auto;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.navigation.GridPlanner;
+import frc.robot.navigation.NavGrid;
+import frc.robot.navigation.NavigationConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates velocity constrained paths between two poses on a single background thread, so a command can
+ * ask for a path and keep the main loop running while PathPlanner does the work. Routes go around the
+ * field obstacles in deploy/navigation with a {@link GridPlanner}; if the map can't be loaded the path
+ * is a straight line.
+ *
+ * <p>Cancelling a returned future doesn't interrupt the worker, so each request checks for cancellation
+ * before it starts and between routing and trajectory generation. A request abandoned while queued behind
+ * another never runs, and one abandoned mid search skips the PathPlanner step.
+ */
+public final class PathGenerator {
+    private static PathGenerator instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PathGenerator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the executor thread
+    private GridPlanner planner;
+    private boolean plannerLoaded = false;
+
+    private PathGenerator() {
+        // Load the map up front so the first request only pays for the search
+        executor.execute(this::getPlanner);
+    }
+
+    public static synchronized PathGenerator getInstance() {
+        if (instance == null) {
+            instance = new PathGenerator();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts generating a path from start to end, pre-sampled for {@link FollowTrajectory}. The path goes
+     * through the planned corners, or straight if there is no map, while the robot turns from start's to
+     * end's rotation spread over the distance travelled.
+     *
+     * @return Completes with the sampled path, or exceptionally if no route exists or PathPlanner fails.
+     *         Cancel it once the path is no longer wanted so the worker can skip it.
+     */
+    public CompletableFuture<SampledTrajectory> generate(Pose2d start, Pose2d end) {
+        CompletableFuture<SampledTrajectory> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                result.complete(generatePath(start, end, result));
+            } catch (CancellationException e) {
+                // Nobody is waiting on it
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private SampledTrajectory generatePath(Pose2d start, Pose2d end, CompletableFuture<?> request) {
+        throwIfCancelled(request);
+        List<Translation2d> waypoints = route(start.getTranslation(), end.getTranslation());
+        Rotation2d[] rotations = holonomicRotations(waypoints, start.getRotation(), end.getRotation());
+        List<PathPoint> points = new ArrayList<>(waypoints.size());
+        for (int i = 0; i < waypoints.size(); i++) {
+            Translation2d point = waypoints.get(i);
+            Translation2d in = i > 0 ? point.minus(waypoints.get(i - 1)) : null;
+            Translation2d out = i < waypoints.size() - 1 ? waypoints.get(i + 1).minus(point) : null;
+            points.add(new PathPoint(point, travelDirection(in, out), rotations[i]));
+        }
+
+        throwIfCancelled(request);
+        PathPlannerTrajectory trajectory = PathPlanner.generatePath(
+                new PathConstraints(AutoConfig.kMaxVelocity, AutoConfig.kMaxAcceleration), points);
+        return SampledTrajectory.fromPathPlanner("DriveToPose", trajectory, AutoConfig.kSampleDt);
+    }
+
+    private static void throwIfCancelled(CompletableFuture<?> request) {
+        if (request.isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Holonomic rotation at each waypoint, turning from start to end in proportion to the distance along
+     * the path, the short way around. Every interior corner getting the end rotation would make the robot
+     * do the whole turn on the first leg.
+     */
+    static Rotation2d[] holonomicRotations(List<Translation2d> waypoints, Rotation2d start, Rotation2d end) {
+        double total = 0.0;
+        for (int i = 1; i < waypoints.size(); i++) {
+            total += waypoints.get(i).getDistance(waypoints.get(i - 1));
+        }
+
+        Rotation2d[] rotations = new Rotation2d[waypoints.size()];
+        double travelled = 0.0;
+        for (int i = 0; i < waypoints.size(); i++) {
+            if (i > 0) {
+                travelled += waypoints.get(i).getDistance(waypoints.get(i - 1));
+            }
+            double fraction = total > 1e-9 ? travelled / total : (i == 0 ? 0.0 : 1.0);
+            rotations[i] = i == waypoints.size() - 1 ? end : start.interpolate(end, fraction);
+        }
+        return rotations;
+    }
+
+    private List<Translation2d> route(Translation2d start, Translation2d end) {
+        List<Translation2d> waypoints = new ArrayList<>();
+        GridPlanner gridPlanner = getPlanner();
+        if (gridPlanner == null) {
+            waypoints.add(start);
+            waypoints.add(end);
+            return waypoints;
+        }
+        if (!gridPlanner.plan(start.getX(), start.getY(), end.getX(), end.getY())) {
+            throw new IllegalStateException("No route from " + start + " to " + end);
+        }
+        for (int i = 0; i < gridPlanner.getWaypointCount(); i++) {
+            waypoints.add(new Translation2d(gridPlanner.getWaypointX(i), gridPlanner.getWaypointY(i)));
+        }
+        return waypoints;
+    }
+
+    // Tangent at a waypoint, bisecting the turn at interior corners
+    private static Rotation2d travelDirection(Translation2d in, Translation2d out) {
+        double x = 0.0, y = 0.0;
+        if (in != null && in.getNorm() > 1e-9) {
+            x += in.getX() / in.getNorm();
+            y += in.getY() / in.getNorm();
+        }
+        if (out != null && out.getNorm() > 1e-9) {
+            x += out.getX() / out.getNorm();
+            y += out.getY() / out.getNorm();
+        }
+        if (Math.hypot(x, y) < 1e-9) {
+            // Doubling back, or a zero length path
+            return out != null ? new Rotation2d(out.getX(), out.getY()) : new Rotation2d();
+        }
+        return new Rotation2d(x, y);
+    }
+
+    private GridPlanner getPlanner() {
+        if (!plannerLoaded) {
+            plannerLoaded = true;
+            File file = new File(Filesystem.getDeployDirectory(), NavigationConfig.kGridFile);
+            try {
+                planner = new GridPlanner(NavGrid.load(file, NavigationConfig.kInflationRadius));
+            } catch (IOException | RuntimeException e) {
+                // Reported rather than thrown, an exception here would be swallowed by the executor
+                DriverStation.reportError("Failed to load navigation grid, paths will be straight lines: "
+                        + e.getMessage(), e.getStackTrace());
+            }
+        }
+        return planner;
+    }
+}
@@ -0,0 +1,95 @@
+package frc.robot.auto;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * A trajectory resampled at a fixed period into flat arrays, so a follower can index it by time instead of
+ * searching a list of state objects. Poses and velocities are field relative; heading is the holonomic
+ * (robot facing) rotation, unwrapped so it is continuous across +-180.
+ */
+public final class SampledTrajectory {
+    /** Values written by {@link #sample(double, double[])}. */
+    public static final int kSampleWidth = 6;
+
+    public final String name;
+    public final double dt;
+    public final int length;
+
+    public final double[] x;        // m
+    public final double[] y;        // m
+    public final double[] heading;  // rad, continuous
+    public final double[] vx;       // m/s
+    public final double[] vy;       // m/s
+    public final double[] omega;    // rad/s
+
+    private SampledTrajectory(String name, double dt, int length) {
+        this.name = name;
+        this.dt = dt;
+        this.length = length;
+        x = new double[length];
+        y = new double[length];
+        heading = new double[length];
+        vx = new double[length];
+        vy = new double[length];
+        omega = new double[length];
+    }
+
+    /**
+     * Samples a PathPlanner trajectory every dt seconds, including the final state.
+     */
+    public static SampledTrajectory fromPathPlanner(String name, PathPlannerTrajectory trajectory, double dt) {
+        double duration = trajectory.getTotalTimeSeconds();
+        int length = (int) Math.ceil(duration / dt) + 1;
+        SampledTrajectory sampled = new SampledTrajectory(name, dt, length);
+
+        double previousHeading = 0.0;
+        for (int i = 0; i < length; i++) {
+            PathPlannerState state = (PathPlannerState) trajectory.sample(Math.min(i * dt, duration));
+            double travelDirection = state.poseMeters.getRotation().getRadians();
+            sampled.x[i] = state.poseMeters.getX();
+            sampled.y[i] = state.poseMeters.getY();
+            sampled.vx[i] = state.velocityMetersPerSecond * Math.cos(travelDirection);
+            sampled.vy[i] = state.velocityMetersPerSecond * Math.sin(travelDirection);
+            sampled.omega[i] = state.holonomicAngularVelocityRadPerSec;
+
+            double heading = state.holonomicRotation.getRadians();
+            if (i > 0) {
+                heading = previousHeading + Math.IEEEremainder(heading - previousHeading, 2.0 * Math.PI);
+            }
+            sampled.heading[i] = heading;
+            previousHeading = heading;
+        }
+        return sampled;
+    }
+
+    public double getDurationSeconds() {
+        return (length - 1) * dt;
+    }
+
+    /**
+     * Reference at a time along the trajectory, interpolated between the two bracketing samples. The
+     * samples are evenly spaced so they are found by division, not a search. Times outside the trajectory
+     * clamp to its ends.
+     *
+     * @param out [x, y, heading, vx, vy, omega], at least {@link #kSampleWidth} long
+     */
+    public void sample(double timeSeconds, double[] out) {
+        double position = MathUtil.clamp(timeSeconds / dt, 0.0, length - 1);
+        int i = Math.min((int) position, length - 2);
+        if (i < 0) {
+            // Single sample trajectory
+            i = 0;
+        }
+        int j = Math.min(i + 1, length - 1);
+        double t = position - i;
+
+        out[0] = x[i] + (x[j] - x[i]) * t;
+        out[1] = y[i] + (y[j] - y[i]) * t;
+        out[2] = heading[i] + (heading[j] - heading[i]) * t;
+        out[3] = vx[i] + (vx[j] - vx[i]) * t;
+        out[4] = vy[i] + (vy[j] - vy[i]) * t;
+        out[5] = omega[i] + (omega[j] - omega[i]) * t;
+    }
+}
@@ -5,9 +5,47 @@ import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.SpectrumLib.gamepads.Gamepad;
 import frc.robot.RobotContainer;
+import frc.robot.auto.AutoConfig;
+import frc.robot.auto.DriveToPose;
+import frc.robot.drivetrain.commands.Balance;
 import frc.robot.drivetrain.commands.DrivetrainCommands;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
 
 public class DriverGamepad extends Gamepad {
+    /**
+     * Shaped stick and trigger values the robot code consumes, logged once per loop so replay feeds back
+     * exactly what the driver commanded.
+     */
+    public static class DriverGamepadInputs implements LoggableInputs {
+        public double driveTranslationX = 0.0;
+        public double driveTranslationY = 0.0;
+        public double driveRotation = 0.0;
+        public double leftTrigger = 0.0;
+        public double rightTrigger = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("DriveTranslationX", driveTranslationX);
+            table.put("DriveTranslationY", driveTranslationY);
+            table.put("DriveRotation", driveRotation);
+            table.put("LeftTrigger", leftTrigger);
+            table.put("RightTrigger", rightTrigger);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            driveTranslationX = table.getDouble("DriveTranslationX", driveTranslationX);
+            driveTranslationY = table.getDouble("DriveTranslationY", driveTranslationY);
+            driveRotation = table.getDouble("DriveRotation", driveRotation);
+            leftTrigger = table.getDouble("LeftTrigger", leftTrigger);
+            rightTrigger = table.getDouble("RightTrigger", rightTrigger);
+        }
+    }
+
+    private final DriverGamepadInputs inputs = new DriverGamepadInputs();
+
     public DriverGamepad() {
         super("DriverController", DriverConfig.kDriverPort);
         
@@ -17,6 +55,18 @@ public class DriverGamepad extends Gamepad {
         gamepad.rightStick.configCurves(2, 1);
     }
 
+    /**
+     * Reads the controller (or, in replay, the log). Call once per loop before the scheduler runs.
+     */
+    public void updateInputs() {
+        inputs.driveTranslationX = gamepad.leftStick.getX();
+        inputs.driveTranslationY = gamepad.leftStick.getY();
+        inputs.driveRotation = gamepad.rightStick.getX();
+        inputs.leftTrigger = gamepad.getRawAxis(XboxController.Axis.kLeftTrigger.value);
+        inputs.rightTrigger = gamepad.getRawAxis(XboxController.Axis.kRightTrigger.value);
+        Logger.getInstance().processInputs("DriverGamepad", inputs);
+    }
+
     @Override
     public void setupTeleopButtons() {
         
@@ -30,6 +80,9 @@ public class DriverGamepad extends Gamepad {
                 this::getDriveTranslationY,
                 this::getDriveRotation
         ));
+
+        gamepad.bButton.whileTrue(new DriveToPose(RobotContainer.drivetrain, () -> AutoConfig.kAlignPose));
+        gamepad.yButton.whileTrue(new Balance(RobotContainer.drivetrain, RobotContainer.balancer, true));
     }
 
     @Override
@@ -49,22 +102,22 @@ public class DriverGamepad extends Gamepad {
     }
 
     public double getRightTriggerRaw() {
-        return gamepad.getRawAxis(XboxController.Axis.kRightTrigger.value);
+        return inputs.rightTrigger;
     }
 
     public double getLeftTriggerRaw() {
-        return gamepad.getRawAxis(XboxController.Axis.kLeftTrigger.value);
+        return inputs.leftTrigger;
     }
 
     public double getDriveTranslationX() {
-        return gamepad.leftStick.getX();
+        return inputs.driveTranslationX;
     }
 
     public double getDriveTranslationY() {
-        return gamepad.leftStick.getY();
+        return inputs.driveTranslationY;
     }
 
     public double getDriveRotation() {
-        return gamepad.rightStick.getX();
+        return inputs.driveRotation;
     }
 }
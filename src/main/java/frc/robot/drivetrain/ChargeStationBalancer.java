@@ -0,0 +1,286 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.CrevoLib.math.AlphaBetaVelocityEstimator;
+import frc.robot.CrevoLib.util.logging.BinaryLogger;
+import frc.robot.CrevoLib.util.logging.LogProducer;
+import frc.robot.CrevoLib.util.loopController.Loop;
+import frc.robot.CrevoLib.util.loopController.LoopScheduler;
+import frc.robot.drivetrain.GyroIO.GyroIOInputs;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Charge station balance controller. While running, the shared {@link LoopScheduler} samples the gyro's
+ * pitch at {@link DrivetrainConfig#kBalancePeriod} into a small queue. Once per robot loop
+ * {@link #periodic()} logs the queued samples as inputs and steps the controller through each of them, so
+ * replay feeds it the same pitch the robot saw. For each sample it estimates the pitch rate (deg/s) over
+ * the sample timestamps and steps a state machine:
+ * <ul>
+ *   <li>APPROACH, drive toward the station until the ramp tilts the robot</li>
+ *   <li>CLIMB, drive up the ramp slowly until the platform starts tipping back toward level</li>
+ *   <li>BALANCE, PD on pitch with the filtered rate as the D term, so the robot backs off as soon as the
+ *   platform starts to fall rather than chasing it over the top</li>
+ *   <li>LEVEL, level and still for {@link DrivetrainConfig#kBalanceLevelSettleSeconds}, stop and lock</li>
+ * </ul>
+ * The result is a robot relative x speed for the main thread to apply. Speeds assume the robot faces
+ * along field x.
+ *
+ * <p>Build one per drivetrain and share it; each instance registers its own binary log producer.
+ */
+public class ChargeStationBalancer implements Loop {
+    public enum State { APPROACH, CLIMB, BALANCE, LEVEL }
+
+    /** Pitch samples stepped through during one robot loop, oldest first. */
+    public static class PitchSampleInputs implements LoggableInputs {
+        public double[] timestamps = new double[0];
+        public double[] pitchDegrees = new double[0];
+
+        public int getSampleCount() {
+            return timestamps.length;
+        }
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("Timestamps", timestamps);
+            table.put("PitchDegrees", pitchDegrees);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            timestamps = table.getDoubleArray("Timestamps", timestamps);
+            pitchDegrees = table.getDoubleArray("PitchDegrees", pitchDegrees);
+        }
+    }
+
+    private static final int kRecordWidth = 4;
+    // Four samples a loop at 200hz, room for a few slow loops
+    private static final int kSampleQueueCapacity = 32;
+
+    private final Drivetrain drivetrain;
+    // Only touched by the loop thread
+    private final GyroIOInputs gyroInputs = new GyroIOInputs();
+
+    // Queued by the loop thread, drained by periodic, guarded by this
+    private final double[] queuedTimestamps = new double[kSampleQueueCapacity];
+    private final double[] queuedPitchDegrees = new double[kSampleQueueCapacity];
+    private int queueHead = 0;
+    private int queueSize = 0;
+    private long droppedSamples = 0;
+
+    // Main thread from here on
+    private final PitchSampleInputs sampleInputs = new PitchSampleInputs();
+    private final AlphaBetaVelocityEstimator pitchRate = new AlphaBetaVelocityEstimator(
+            DrivetrainConfig.kBalancePitchRateAlpha,
+            DrivetrainConfig.kBalancePitchRateBeta
+    );
+    private final PIDController pitchController = new PIDController(
+            DrivetrainConfig.kBalanceP,
+            DrivetrainConfig.kBalanceI,
+            0.0,
+            DrivetrainConfig.kBalancePeriod
+    );
+    private final LogProducer binaryLog;
+    private final int sampleChannel;
+    // [pitch (deg), pitch rate (deg/s), speed (m/s), state]
+    private final double[] sampleRecord = new double[kRecordWidth];
+    private boolean running = false;
+    private boolean needsReset = true;
+    private double levelSince = Double.NaN;
+    private State state = State.APPROACH;
+    private double speed = 0.0;
+    private double pitchDegrees = 0.0;
+    private double pitchRateDegreesPerSecond = 0.0;
+    private double direction = 1.0;
+
+    public ChargeStationBalancer(Drivetrain drivetrain) {
+        this.drivetrain = drivetrain;
+        binaryLog = BinaryLogger.getInstance().createProducer("Balance", 256, kRecordWidth);
+        sampleChannel = BinaryLogger.getInstance().registerChannel("Balance/Sample", kRecordWidth);
+    }
+
+    /**
+     * Starts balancing from off the station.
+     *
+     * @param forward Drive onto the station forwards, otherwise backwards
+     */
+    public void start(boolean forward) {
+        direction = forward ? 1.0 : -1.0;
+        needsReset = true;
+        state = State.APPROACH;
+        speed = 0.0;
+        synchronized (this) {
+            queueHead = 0;
+            queueSize = 0;
+        }
+        running = true;
+        LoopScheduler.getInstance().register(this, DrivetrainConfig.kBalancePeriod);
+    }
+
+    public void stop() {
+        LoopScheduler.getInstance().unregister(this);
+        running = false;
+        speed = 0.0;
+    }
+
+    /**
+     * Logs the pitch samples queued since the last call and steps the controller through them. In replay
+     * the log overwrites the samples with the ones the robot recorded. Call from the main robot thread
+     * while running, before reading the speed.
+     */
+    public void periodic() {
+        if (!running) {
+            return;
+        }
+        drainSamples();
+        Logger logger = Logger.getInstance();
+        logger.processInputs("Balance/PitchSamples", sampleInputs);
+        logger.recordOutput("Balance/DroppedSamples", getDroppedSampleCount());
+
+        for (int i = 0; i < sampleInputs.getSampleCount(); i++) {
+            step(sampleInputs.timestamps[i], sampleInputs.pitchDegrees[i]);
+        }
+    }
+
+    @Override
+    public void onStart() {
+        // The controller resets on its first sample, in periodic
+    }
+
+    @Override
+    public void onLoop() {
+        double now = Timer.getFPGATimestamp();
+        drivetrain.updateBalanceGyroInputs(gyroInputs);
+
+        synchronized (this) {
+            int slot = (queueHead + queueSize) % kSampleQueueCapacity;
+            if (queueSize == kSampleQueueCapacity) {
+                queueHead = (queueHead + 1) % kSampleQueueCapacity;
+                droppedSamples++;
+            } else {
+                queueSize++;
+            }
+            queuedTimestamps[slot] = now;
+            queuedPitchDegrees[slot] = gyroInputs.pitchDegrees;
+        }
+    }
+
+    @Override
+    public void onStop() {
+        // Samples left in the queue are dropped by the next start
+    }
+
+    private synchronized void drainSamples() {
+        if (sampleInputs.getSampleCount() != queueSize) {
+            sampleInputs.timestamps = new double[queueSize];
+            sampleInputs.pitchDegrees = new double[queueSize];
+        }
+        for (int n = 0; n < queueSize; n++) {
+            int slot = (queueHead + n) % kSampleQueueCapacity;
+            sampleInputs.timestamps[n] = queuedTimestamps[slot];
+            sampleInputs.pitchDegrees[n] = queuedPitchDegrees[slot];
+        }
+        queueHead = 0;
+        queueSize = 0;
+    }
+
+    private synchronized long getDroppedSampleCount() {
+        return droppedSamples;
+    }
+
+    private void step(double now, double pitch) {
+        double rate;
+        if (needsReset) {
+            needsReset = false;
+            pitchRate.reset(pitch, now);
+            pitchController.reset();
+            state = State.APPROACH;
+            levelSince = Double.NaN;
+            rate = 0.0;
+        } else {
+            rate = pitchRate.update(pitch, now);
+        }
+        // Platform swinging back toward level, the robot has reached the pivot
+        boolean tipping = pitch * rate < 0.0 && Math.abs(rate) > DrivetrainConfig.kBalanceTippingRateDegreesPerSecond;
+
+        double output = 0.0;
+        switch (state) {
+            case APPROACH:
+                output = direction * DrivetrainConfig.kBalanceApproachSpeed;
+                if (Math.abs(pitch) > DrivetrainConfig.kBalanceTiltDetectDegrees) {
+                    state = State.CLIMB;
+                }
+                break;
+            case CLIMB:
+                output = direction * DrivetrainConfig.kBalanceClimbSpeed;
+                if (tipping || Math.abs(pitch) < DrivetrainConfig.kBalanceLevelDegrees) {
+                    state = State.BALANCE;
+                    pitchController.reset();
+                    output = 0.0;
+                }
+                break;
+            case BALANCE:
+                // Nose up means the far side is high, drive toward it. The rate term backs off as soon as
+                // the platform starts falling, before the pitch has changed much.
+                output = MathUtil.clamp(
+                        -pitchController.calculate(pitch, 0.0) + DrivetrainConfig.kBalanceD * rate,
+                        -DrivetrainConfig.kBalanceMaxSpeed,
+                        DrivetrainConfig.kBalanceMaxSpeed
+                );
+                if (isLevel(pitch, rate)) {
+                    if (Double.isNaN(levelSince)) {
+                        levelSince = now;
+                    } else if (now - levelSince > DrivetrainConfig.kBalanceLevelSettleSeconds) {
+                        state = State.LEVEL;
+                        output = 0.0;
+                    }
+                } else {
+                    levelSince = Double.NaN;
+                }
+                break;
+            case LEVEL:
+                if (Math.abs(pitch) > DrivetrainConfig.kBalanceRelevelDegrees) {
+                    state = State.BALANCE;
+                    levelSince = Double.NaN;
+                    pitchController.reset();
+                }
+                break;
+        }
+
+        speed = output;
+        pitchDegrees = pitch;
+        pitchRateDegreesPerSecond = rate;
+
+        sampleRecord[0] = pitch;
+        sampleRecord[1] = rate;
+        sampleRecord[2] = output;
+        sampleRecord[3] = state.ordinal();
+        // Stamped with the sample's time, it's stepped up to a loop later
+        binaryLog.log(sampleChannel, (long) (now * 1e6), sampleRecord);
+    }
+
+    private static boolean isLevel(double pitch, double rate) {
+        return Math.abs(pitch) < DrivetrainConfig.kBalanceLevelDegrees
+                && Math.abs(rate) < DrivetrainConfig.kBalanceLevelRateDegreesPerSecond;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /** Latest commanded robot relative x speed (m/s). */
+    public double getSpeed() {
+        return speed;
+    }
+
+    public double getPitchDegrees() {
+        return pitchDegrees;
+    }
+
+    public double getPitchRate() {
+        return pitchRateDegreesPerSecond;
+    }
+}
@@ -0,0 +1,63 @@
+package frc.robot.drivetrain;
+
+/**
+ * Tilting charge station platform for {@link SwerveDriveSim}. The platform pivots about a line along field
+ * y through its center; a robot on it pushes its side down with its weight, damping and a weak spring
+ * resist, and the platform stops at {@link DrivetrainConfig#kChargeStationMaxAngle} where it meets the
+ * ground. The angle is positive with the +x end up. The ramps are part of the platform, so the robot
+ * starts tilting as soon as its center crosses the footprint.
+ *
+ * <p>Not thread safe, stepped from inside the drive model.
+ */
+public class ChargeStationSim {
+    private static final double kGravity = 9.81;
+
+    private final double centerX;
+    private final double centerY;
+    private double angle = 0.0;
+    private double angularVelocity = 0.0;
+
+    public ChargeStationSim(double centerX, double centerY) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+    }
+
+    public boolean contains(double x, double y) {
+        return Math.abs(x - centerX) <= DrivetrainConfig.kChargeStationLength / 2.0
+                && Math.abs(y - centerY) <= DrivetrainConfig.kChargeStationWidth / 2.0;
+    }
+
+    /**
+     * @param robotX Robot center, field x (m)
+     * @param robotY Robot center, field y (m)
+     */
+    public void step(double robotX, double robotY, double dt) {
+        double torque = -DrivetrainConfig.kChargeStationStiffness * angle
+                - DrivetrainConfig.kChargeStationDamping * angularVelocity;
+        if (contains(robotX, robotY)) {
+            torque -= DrivetrainConfig.kRobotMassKg * kGravity * (robotX - centerX) * Math.cos(angle);
+        }
+
+        angularVelocity += torque / DrivetrainConfig.kChargeStationInertia * dt;
+        angle += angularVelocity * dt;
+
+        // Resting on the ground, no bounce
+        double limit = DrivetrainConfig.kChargeStationMaxAngle;
+        if (Math.abs(angle) >= limit) {
+            angle = Math.copySign(limit, angle);
+            if (angularVelocity * angle > 0.0) {
+                angularVelocity = 0.0;
+            }
+        }
+    }
+
+    /** Platform angle (rad), +x end up positive. */
+    public double getAngleRadians() {
+        return angle;
+    }
+
+    public void reset() {
+        angle = 0.0;
+        angularVelocity = 0.0;
+    }
+}
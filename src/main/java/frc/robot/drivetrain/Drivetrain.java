@@ -1,133 +1,260 @@
 package frc.robot.drivetrain;
 
-import com.ctre.phoenix.sensors.Pigeon2;
 import com.kauailabs.navx.frc.AHRS;
 
-import edu.wpi.first.math.controller.BangBangController;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.*;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.interfaces.Gyro;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj.SPI;
 import edu.wpi.first.wpilibj.SerialPort;
 import frc.robot.drivetrain.DrivetrainConfig.SwerveDrivetrainConstants;
+import frc.robot.CrevoLib.math.AlphaBetaVelocityEstimator;
+import frc.robot.CrevoLib.math.ChassisSpeedsDiscretizer;
+import frc.robot.CrevoLib.util.logging.BinaryLogger;
+import frc.robot.CrevoLib.util.logging.LogProducer;
+import frc.robot.drivetrain.GyroIO.GyroIOInputs;
+import org.littletonrobotics.junction.Logger;
+
+import java.util.Optional;
 
 public class Drivetrain extends SubsystemBase {
-    public SwerveDriveOdometry m_swerveOdometry;
+    public DrivetrainOdometry m_odometry;
     public SwerveModule[] m_swerveMods;
-    public Pigeon2 m_pigeonGyro;
-    double pitchDerivative;
-    double currentPitch = 0;
-    double lastPitch = 0;
-    double counter = 0;
-
-    final double DRIVE_BANG_BANG_FWD = .06;
-    final int DRIVE_BANG_BANG_SP = 10;
-
-    BangBangController m_forward_bang_bang, m_reverse_bang_bang;
-
-    public Drivetrain() {
-        m_pigeonGyro = new Pigeon2(SwerveDrivetrainConstants.PIGEON_ID);
-        m_pigeonGyro.configFactoryDefault();
+    private final GyroIO m_gyroIO;
+    private final GyroIOInputs m_gyroInputs = new GyroIOInputs();
+    // Pitch rate in deg/s over the measured sample times, filtered
+    private final AlphaBetaVelocityEstimator m_pitchRate = new AlphaBetaVelocityEstimator(
+            DrivetrainConfig.kPitchRateAlpha,
+            DrivetrainConfig.kPitchRateBeta
+    );
+
+    private static final Translation2d kRobotCenter = new Translation2d();
+    // Front left, front right, back left, back right, every wheel pointed at the robot's center
+    private static final double[] kLockAnglesDegrees = {45.0, 315.0, 135.0, 225.0};
+    private final SwerveSetpoints m_setpoints = new SwerveSetpoints(
+            DrivetrainConfig.kModuleLocationsX,
+            DrivetrainConfig.kModuleLocationsY
+    );
+    private final SwerveSetpointGenerator m_setpointGenerator = new SwerveSetpointGenerator(
+            4,
+            DrivetrainConfig.kMaxDriveAcceleration,
+            DrivetrainConfig.kMaxSteerVelocity
+    );
+    private boolean m_useSecondOrderKinematics = DrivetrainConfig.kUseSecondOrderKinematics;
+    private final DrivetrainSensorSnapshot m_sensors = new DrivetrainSensorSnapshot(4);
+    private final double[] m_discretizedSpeeds = new double[3];
+    private double m_lastSensorTimestamp = Double.NaN;
+    private double m_loopDt = DrivetrainConfig.kLoopPeriod;
+    private long m_lastSensorReadCount = 0;
+    private long m_sensorReadsPerCycle = 0;
+    // [x (m), y (m), theta (rad)], logged every cycle so replay can compare re-derived odometry
+    private final double[] m_poseLog = new double[3];
+    // High rate binary log, every cycle's module states, gyro and setpoints. Main thread only.
+    private final LogProducer m_binaryLog = BinaryLogger.getInstance().createProducer("Drivetrain", 256, 8);
+    private final int m_moduleStatesChannel = BinaryLogger.getInstance().registerChannel("Drive/ModuleStates", 8);
+    private final int m_moduleSetpointsChannel = BinaryLogger.getInstance().registerChannel("Drive/ModuleSetpoints", 8);
+    private final int m_gyroChannel = BinaryLogger.getInstance().registerChannel("Drive/Gyro", 3);
+    private final double[] m_moduleRecord = new double[8];
+    private final double[] m_gyroRecord = new double[3];
+    private final DrivetrainTelemetry m_telemetry = new DrivetrainTelemetry(
+            4,
+            DrivetrainConfig.kTelemetryPublishDivider
+    );
+
+    /**
+     * @param gyroIO Gyro hardware layer
+     * @param frontLeft Module hardware layers, in module id order
+     * @param highRateOdometry Run odometry on its own thread, see {@link DrivetrainConfig#kUseHighRateOdometry}
+     */
+    public Drivetrain(GyroIO gyroIO, ModuleIO frontLeft, ModuleIO frontRight, ModuleIO backLeft,
+                      ModuleIO backRight, boolean highRateOdometry) {
+        m_gyroIO = gyroIO;
         zeroGyro();
 
         m_swerveMods = new SwerveModule[]{
-                new SwerveModule(0, DrivetrainConfig.kFrontLeftModuleConfig),
-                new SwerveModule(1, DrivetrainConfig.kFrontRightModuleConfig),
-                new SwerveModule(2, DrivetrainConfig.kBackLeftModuleConfig),
-                new SwerveModule(3, DrivetrainConfig.kBackRightModuleConfig)
+                new SwerveModule(0, frontLeft),
+                new SwerveModule(1, frontRight),
+                new SwerveModule(2, backLeft),
+                new SwerveModule(3, backRight)
         };
 
-        m_swerveOdometry = new SwerveDriveOdometry(DrivetrainConfig.kKinematics, getYaw(), getModulePositions());
+        updateGyroInputs();
+        m_sensors.refresh(this);
+        m_odometry = new DrivetrainOdometry(this, highRateOdometry);
 
         setOdometryForOdometryAlign();
-
-        m_forward_bang_bang = new BangBangController();
-        m_forward_bang_bang.setSetpoint(DRIVE_BANG_BANG_SP);
-        m_reverse_bang_bang = new BangBangController();
-        m_reverse_bang_bang.setSetpoint(-DRIVE_BANG_BANG_SP);
+        m_pitchRate.reset(m_sensors.pitchDegrees, m_sensors.timestamp);
 
         // Timer.delay(1);
         // resetModules();
     }
 
     public void drive(Translation2d translation, double rotation, boolean fieldRelative, boolean isOpenLoop) {
-        drive(translation, rotation, fieldRelative, isOpenLoop, new Translation2d(0, 0));
+        drive(translation, rotation, fieldRelative, isOpenLoop, kRobotCenter);
     }
 
     public void drive(Translation2d translation, double rotation, boolean fieldRelative, boolean isOpenLoop,
                       Translation2d centerOfRotation) {
-        final ChassisSpeeds chassisSpeeds;
-        if (fieldRelative) {
-            chassisSpeeds = ChassisSpeeds.fromFieldRelativeSpeeds(
-                    translation.getX(),
-                    translation.getY(),
-                    rotation,
-                    getYaw()
-            );
-        } else {
-            chassisSpeeds = new ChassisSpeeds(
-                    translation.getX(),
-                    translation.getY(),
-                    rotation
-            );
-        }
-
-        SwerveModuleState[] swerveModuleStates = DrivetrainConfig.kKinematics.toSwerveModuleStates(
-                chassisSpeeds,
-                centerOfRotation
+        drive(
+                translation.getX(),
+                translation.getY(),
+                rotation,
+                fieldRelative,
+                isOpenLoop,
+                centerOfRotation.getX(),
+                centerOfRotation.getY()
         );
+    }
 
-        SwerveDriveKinematics.desaturateWheelSpeeds(swerveModuleStates, DrivetrainConfig.kMaxVelocity);
+    /**
+     * Primitive drive path. Module setpoints are written into preallocated buffers, so this does not
+     * allocate in steady state.
+     */
+    public void drive(double vxMetersPerSecond, double vyMetersPerSecond, double rotation, boolean fieldRelative,
+                      boolean isOpenLoop, double centerOfRotationX, double centerOfRotationY) {
+        if (fieldRelative) {
+            // Same rotation as ChassisSpeeds.fromFieldRelativeSpeeds
+            double yaw = Math.toRadians(m_sensors.yawDegrees);
+            double cos = Math.cos(yaw);
+            double sin = Math.sin(yaw);
+            double robotVx = vxMetersPerSecond * cos + vyMetersPerSecond * sin;
+            vyMetersPerSecond = -vxMetersPerSecond * sin + vyMetersPerSecond * cos;
+            vxMetersPerSecond = robotVx;
+        }
 
-        for (SwerveModule mod : m_swerveMods) {
-            mod.setDesiredState(swerveModuleStates[mod.getModuleId()], isOpenLoop);
+        if (DrivetrainConfig.kUseDiscretization) {
+            ChassisSpeedsDiscretizer.discretize(vxMetersPerSecond, vyMetersPerSecond, rotation, m_loopDt,
+                    m_discretizedSpeeds);
+            vxMetersPerSecond = m_discretizedSpeeds[0];
+            vyMetersPerSecond = m_discretizedSpeeds[1];
         }
 
-        
+        m_setpoints.fromChassisSpeeds(vxMetersPerSecond, vyMetersPerSecond, rotation, centerOfRotationX,
+                centerOfRotationY);
+        applySetpoints(isOpenLoop);
     }
 
     public void setChassisSpeeds(ChassisSpeeds targetSpeeds) {
-        setModuleStates(DrivetrainConfig.kKinematics.toSwerveModuleStates(targetSpeeds));
+        drive(
+                targetSpeeds.vxMetersPerSecond,
+                targetSpeeds.vyMetersPerSecond,
+                targetSpeeds.omegaRadiansPerSecond,
+                false,
+                false,
+                0.0,
+                0.0
+        );
     }
 
     /* Used by SwerveControllerCommand in Auto */
     public void setModuleStates(SwerveModuleState[] desiredStates) {
-        SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, DrivetrainConfig.kMaxVelocity);
+        m_setpoints.fromStates(desiredStates);
+        applySetpoints(false);
+    }
+
+    /**
+     * Stops and turns the wheels into an X so the robot is hard to push. Bypasses the setpoint generator,
+     * the next drive call restarts it from the measured module states.
+     */
+    public void lockWheels() {
+        for (SwerveModule mod : m_swerveMods) {
+            int id = mod.getModuleId();
+            mod.lock(kLockAnglesDegrees[id], m_sensors.angleDegrees[id]);
+        }
+        m_setpointGenerator.reset(m_sensors.driveVelocityMetersPerSecond, m_sensors.angleDegrees);
+        m_setpoints.resetDerivatives();
+
+        for (int i = 0; i < m_swerveMods.length; i++) {
+            m_moduleRecord[i * 2] = kLockAnglesDegrees[i];
+            m_moduleRecord[i * 2 + 1] = 0.0;
+        }
+        m_binaryLog.log(m_moduleSetpointsChannel, m_moduleRecord);
+    }
+
+    private void applySetpoints(boolean isOpenLoop) {
+        m_setpoints.desaturate(DrivetrainConfig.kMaxVelocity);
+        if (DrivetrainConfig.kUseSetpointGenerator) {
+            m_setpointGenerator.apply(m_setpoints, m_loopDt);
+        }
+        if (m_useSecondOrderKinematics) {
+            m_setpoints.updateDerivatives(
+                    m_loopDt,
+                    DrivetrainConfig.kMaxVelocity * 0.01,
+                    DrivetrainConfig.kMaxSteerVelocity
+            );
+        }
 
         for (SwerveModule mod : m_swerveMods) {
-            mod.setDesiredState(desiredStates[mod.getModuleId()], false);
+            mod.setDesiredState(m_setpoints, m_sensors.angleDegrees[mod.getModuleId()], isOpenLoop);
+        }
+
+        for (int i = 0; i < m_swerveMods.length; i++) {
+            m_moduleRecord[i * 2] = m_setpoints.anglesDegrees[i];
+            m_moduleRecord[i * 2 + 1] = m_setpoints.speedsMetersPerSecond[i];
         }
+        m_binaryLog.log(m_moduleSetpointsChannel, m_moduleRecord);
+    }
+
+    /**
+     * Turns the second order steer / drive feedforward on or off, defaults to
+     * {@link DrivetrainConfig#kUseSecondOrderKinematics}. The derivatives restart from the next setpoint.
+     */
+    public void setSecondOrderKinematics(boolean enabled) {
+        m_useSecondOrderKinematics = enabled;
+        m_setpoints.resetDerivatives();
     }
 
     public Pose2d getPose() {
-        return m_swerveOdometry.getPoseMeters();
+        return m_odometry.getPose();
+    }
+
+    /**
+     * Where the robot was at a past FPGA timestamp, for latency compensated vision / aiming.
+     */
+    public Optional<Pose2d> getPoseAt(double timestamp) {
+        return m_odometry.getPoseAt(timestamp);
+    }
+
+    /**
+     * Fuses a latency compensated vision pose, see {@link DrivetrainOdometry#addVisionMeasurement}.
+     * Safe to call from a vision thread.
+     */
+    public void addVisionMeasurement(Pose2d visionPose, double timestamp, Matrix<N3, N1> stdDevs) {
+        m_odometry.addVisionMeasurement(visionPose, timestamp, stdDevs);
     }
 
     public void resetOdometry(Pose2d pose) {
-        m_swerveOdometry.resetPosition(getYaw(), getModulePositions(), pose);
+        m_odometry.resetPosition(getYaw(), pose);
     }
 
     public void resetOdometryAuton(Pose2d pose) {
-        m_swerveOdometry.resetPosition(getYaw(), getModulePositions(), pose);
+        m_odometry.resetPosition(getYaw(), pose);
     }
 
     public void setOdometryToOffset() {
-        m_swerveOdometry.resetPosition(Rotation2d.fromDegrees(0.0), getModulePositions(), new Pose2d(-6.14, 1.21,
+        m_odometry.resetPosition(Rotation2d.fromDegrees(0.0), new Pose2d(-6.14, 1.21,
                 Rotation2d.fromDegrees(0.0)));
     }
 
     public void setOdometryForOdometryAlign() {
-        m_swerveOdometry.resetPosition(Rotation2d.fromDegrees(0.0), getModulePositions(), new Pose2d(13.56, 5.2,
+        m_odometry.resetPosition(Rotation2d.fromDegrees(0.0), new Pose2d(13.56, 5.2,
                 Rotation2d.fromDegrees(0.0)));
     }
 
+    /**
+     * Pitch from the last logged gyro inputs (deg, nose up positive).
+     */
     public double getPitch() {
-        return m_pigeonGyro.getPitch();
+        return m_gyroInputs.pitchDegrees;
     }
 
     public SwerveModuleState[] getModuleStates() {
@@ -147,29 +274,93 @@ public class Drivetrain extends SubsystemBase {
     }
 
     public void stopSwerve() {
-        Translation2d stop = new Translation2d(0, 0);
-        drive(stop, 0, true, true);
+        drive(0.0, 0.0, 0.0, true, true, 0.0, 0.0);
     }
 
     public void zeroGyro() {
-        m_pigeonGyro.setYaw(0);
+        m_gyroIO.setYaw(0);
     }
 
     public Rotation2d getYaw() {
-        return (DrivetrainConfig.kGyroInvert) ? Rotation2d.fromDegrees(360 - m_pigeonGyro.getYaw()) :
-                Rotation2d.fromDegrees(m_pigeonGyro.getYaw());
+        return Rotation2d.fromDegrees(getYawDegrees());
+    }
+
+    /**
+     * Yaw from the last logged gyro inputs.
+     */
+    public double getYawDegrees() {
+        return m_gyroInputs.yawDegrees;
     }
 
-    public double getPitchDerivative() {
-        return pitchDerivative;
+    /**
+     * Filtered pitch rate (deg/s), updated once per cycle.
+     */
+    public double getPitchRate() {
+        return m_pitchRate.getVelocity();
     }
 
     public Rotation2d getRoll() {
-        return Rotation2d.fromDegrees(m_pigeonGyro.getRoll());
+        return Rotation2d.fromDegrees(m_gyroInputs.rollDegrees);
+    }
+
+    public boolean isPitchRateHigh() {
+        return Math.abs(getPitchRate()) > DrivetrainConfig.kPitchRateHighDegreesPerSecond;
+    }
+
+    /**
+     * Measured time between the last two drivetrain cycles (s), clamped to a sane range.
+     */
+    public double getLoopDt() {
+        return m_loopDt;
+    }
+
+    /**
+     * Sensor values read at the start of this cycle.
+     */
+    public DrivetrainSensorSnapshot getSensors() {
+        return m_sensors;
     }
 
-    public boolean isPitchDerivativeHigh() {
-        return Math.abs(getPitchDerivative()) > (2 * 0.02);
+    /**
+     * Device reads (JNI calls) made by the drivetrain during the last full cycle, including the high
+     * rate odometry thread.
+     */
+    public long getSensorReadsPerCycle() {
+        return m_sensorReadsPerCycle;
+    }
+
+    /**
+     * Reads yaw into a caller owned inputs object. For the high rate odometry thread, which logs it with the
+     * rest of its samples.
+     */
+    void updateOdometryGyroInputs(GyroIOInputs out) {
+        m_gyroIO.updateOdometryInputs(out);
+    }
+
+    /**
+     * Reads pitch into a caller owned inputs object. For the charge station balancer thread, which logs the
+     * samples it queues before the controller uses them.
+     */
+    void updateBalanceGyroInputs(GyroIOInputs out) {
+        m_gyroIO.updatePitchInputs(out);
+    }
+
+    private void updateGyroInputs() {
+        m_gyroIO.updateInputs(m_gyroInputs);
+        Logger.getInstance().processInputs("Drive/Gyro", m_gyroInputs);
+    }
+
+    private void logSensors() {
+        for (int i = 0; i < m_swerveMods.length; i++) {
+            m_moduleRecord[i * 2] = m_sensors.angleDegrees[i];
+            m_moduleRecord[i * 2 + 1] = m_sensors.driveVelocityMetersPerSecond[i];
+        }
+        m_binaryLog.log(m_moduleStatesChannel, m_moduleRecord);
+
+        m_gyroRecord[0] = m_gyroInputs.yawDegrees;
+        m_gyroRecord[1] = m_gyroInputs.pitchDegrees;
+        m_gyroRecord[2] = m_gyroInputs.rollDegrees;
+        m_binaryLog.log(m_gyroChannel, m_gyroRecord);
     }
 
     public void resetModules() {
@@ -181,28 +372,43 @@ public class Drivetrain extends SubsystemBase {
     @Override
     public void periodic() {
 
-        m_swerveOdometry.update(getYaw(), getModulePositions());
+        long sensorReads = DrivetrainSensorSnapshot.getSensorReadCount();
+        m_sensorReadsPerCycle = sensorReads - m_lastSensorReadCount;
+        m_lastSensorReadCount = sensorReads;
 
+        // Every drivetrain signal is read (or replayed from the log) once here, everything below uses the snapshot
+        updateGyroInputs();
         for (SwerveModule mod : m_swerveMods) {
-            SmartDashboard.putNumber("Mod " + mod.getModuleId() + " Cancoder", mod.getCanCoder().getDegrees());
-            SmartDashboard.putNumber("Mod " + mod.getModuleId() + " Integrated", mod.getPosition().angle.getDegrees());
-            SmartDashboard.putNumber("Mod " + mod.getModuleId() + " Velocity", mod.getState().speedMetersPerSecond);
+            mod.updateInputs();
         }
+        m_sensors.refresh(this);
+        logSensors();
 
-        SmartDashboard.putNumber("real robot pose x", getPose().getX());
-        SmartDashboard.putNumber("real robot pose y", getPose().getY());
-        SmartDashboard.putNumber("real robot pose rot", getPose().getRotation().getDegrees());
+        // Measured rather than nominal, an overrunning loop holds each command for longer
+        if (!Double.isNaN(m_lastSensorTimestamp)) {
+            m_loopDt = MathUtil.clamp(m_sensors.timestamp - m_lastSensorTimestamp,
+                    DrivetrainConfig.kLoopPeriod * 0.25, DrivetrainConfig.kLoopPeriod * 5.0);
+        }
+        m_lastSensorTimestamp = m_sensors.timestamp;
+
+        if (DriverStation.isDisabled()) {
+            // Start limiting from what the modules are actually doing when we enable
+            m_setpointGenerator.reset(m_sensors.driveVelocityMetersPerSecond, m_sensors.angleDegrees);
+            m_setpoints.resetDerivatives();
+        }
 
-        SmartDashboard.putNumber("Gyro", m_pigeonGyro.getYaw());
-        SmartDashboard.putNumber("Pitch", getPitch());
+        m_odometry.periodic(m_sensors);
 
-        lastPitch = currentPitch;
-        currentPitch = getPitch();
-        pitchDerivative = lastPitch - currentPitch;
+        m_pitchRate.update(m_sensors.pitchDegrees, m_sensors.timestamp);
 
-        SmartDashboard.putNumber("pitch rate of change", pitchDerivative);
-        SmartDashboard.putBoolean("is pitch derivative high", isPitchDerivativeHigh());
+        Pose2d pose = getPose();
+        m_poseLog[0] = pose.getX();
+        m_poseLog[1] = pose.getY();
+        m_poseLog[2] = pose.getRotation().getRadians();
+        Logger.getInstance().recordOutput("Drive/Pose", m_poseLog);
 
+        m_telemetry.update(this, m_sensors, pose);
+        m_odometry.outputTelemetry();
 
     }
 }
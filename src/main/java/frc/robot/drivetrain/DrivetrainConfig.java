@@ -24,11 +24,19 @@ public class DrivetrainConfig {
     public static final double kWheelDiameter = Units.inchesToMeters(4.0);
     public static final double kWheelCircumfurence = (kWheelDiameter * Math.PI);
 
+    // Module locations (FL, FR, BL, BR), indexed by module id
+    public static final double[] kModuleLocationsX = {
+            kDrivetrainHeight / 2.0, kDrivetrainHeight / 2.0, -kDrivetrainHeight / 2.0, -kDrivetrainHeight / 2.0
+    };
+    public static final double[] kModuleLocationsY = {
+            kDrivetrainWidth / 2.0, -kDrivetrainWidth / 2.0, kDrivetrainWidth / 2.0, -kDrivetrainWidth / 2.0
+    };
+
     public static final SwerveDriveKinematics kKinematics = new SwerveDriveKinematics(
-            new Translation2d(kDrivetrainHeight / 2.0, kDrivetrainWidth / 2.0),
-            new Translation2d(kDrivetrainHeight / 2.0, -kDrivetrainWidth / 2.0),
-            new Translation2d(-kDrivetrainHeight / 2.0, kDrivetrainWidth / 2.0),
-            new Translation2d(-kDrivetrainHeight / 2.0, -kDrivetrainWidth / 2.0));
+            new Translation2d(kModuleLocationsX[0], kModuleLocationsY[0]),
+            new Translation2d(kModuleLocationsX[1], kModuleLocationsY[1]),
+            new Translation2d(kModuleLocationsX[2], kModuleLocationsY[2]),
+            new Translation2d(kModuleLocationsX[3], kModuleLocationsY[3]));
 
     // Devices
     public static final SwerveModule.Config kFrontLeftModuleConfig = new SwerveModule.Config(
@@ -74,6 +82,8 @@ public class DrivetrainConfig {
     public static final double kAngleP = 0.09;
     public static final double kAngleI = 0.0;
     public static final double kAngleD = 0.1;
+    // Percent output per deg/s of module rotation, 1 / module free speed (6380 rpm / 21.4:1)
+    public static final double kAngleV = 1.0 / 1786.0;
 
     public static final double kMaxVelocity = Units.feetToMeters(18);
     public static final double kMaxAngularVelocity = Math.PI * 4.12 * 0.4;
@@ -121,6 +131,66 @@ public class DrivetrainConfig {
         return config;
     }
 
+    // Setpoint generator, limits how fast module setpoints can change to stop scrub and current spikes
+    public static final boolean kUseSetpointGenerator = true;
+    public static final double kLoopPeriod = 0.02;
+    public static final double kMaxDriveAcceleration = 10.0; // m/s^2, about what the carpet will take
+    public static final double kMaxSteerVelocity = 900.0; // deg/s
+
+    // Second order kinematics, feeds module steer rate and wheel acceleration forward
+    public static final boolean kUseSecondOrderKinematics = true;
+
+    // Discretize chassis speeds over the measured loop period, removes drift when translating while spinning
+    public static final boolean kUseDiscretization = true;
+
+    // Odometry
+    public static final boolean kUseHighRateOdometry = true;
+    public static final double kOdometryPeriod = 0.005; // 200hz
+    public static final int kOdometryStatusFramePeriodMs = 5;
+    public static final double kPoseHistorySeconds = 1.5;
+
+    // Pitch rate, alpha-beta filtered over the sample timestamps (deg/s)
+    public static final double kPitchRateAlpha = 0.5;
+    public static final double kPitchRateBeta = 0.1;
+    public static final double kPitchRateHighDegreesPerSecond = 2.0;
+
+    // Charge station balance, runs on the shared LoopScheduler. Pitch is nose up positive, speeds robot relative.
+    public static final double kBalancePeriod = 0.005; // 200hz
+    public static final double kBalancePitchRateAlpha = 0.3;
+    public static final double kBalancePitchRateBeta = 0.02;
+    public static final double kBalanceApproachSpeed = 1.5; // m/s until the ramp tilts the robot
+    public static final double kBalanceClimbSpeed = 0.6; // m/s up the ramp
+    public static final double kBalanceTiltDetectDegrees = 10.0;
+    public static final double kBalanceTippingRateDegreesPerSecond = 10.0; // Falling back toward level, ends the climb
+    public static final double kBalanceP = 0.03; // m/s per degree
+    public static final double kBalanceI = 0.0;
+    public static final double kBalanceD = 0.02; // m/s per deg/s
+    public static final double kBalanceMaxSpeed = 0.5; // m/s
+    public static final double kBalanceLevelDegrees = 2.5;
+    public static final double kBalanceLevelRateDegreesPerSecond = 3.0;
+    public static final double kBalanceLevelSettleSeconds = 0.25;
+    public static final double kBalanceRelevelDegrees = 5.0; // Level but pushed past this, balance again
+
+    // Simulation
+    public static final double kSimStepSeconds = 0.001; // Matches the 1ms Talon closed loop
+    public static final double kRobotMassKg = Units.lbsToKilograms(125.0);
+    public static final double kRobotMomentOfInertia = 6.0; // kg m^2
+    public static final double kWheelCoefficientOfFriction = 1.1;
+    public static final double kDriveInertia = 0.004; // kg m^2 at the wheel, including the reflected rotor
+    public static final double kSteerInertia = 0.004; // kg m^2 at the module
+    // Charge stations, platforms pivoting about an axis along field y through their center
+    public static final double[] kChargeStationCentersX = {3.89, 12.65};
+    public static final double kChargeStationCenterY = 2.745;
+    public static final double kChargeStationLength = 1.94; // Along field x, ramps included
+    public static final double kChargeStationWidth = 2.47;
+    public static final double kChargeStationMaxAngle = Math.toRadians(15.0);
+    public static final double kChargeStationInertia = 20.0; // kg m^2 about the pivot
+    public static final double kChargeStationDamping = 200.0; // N m per rad/s
+    public static final double kChargeStationStiffness = 20.0; // N m per rad, self leveling when empty
+
+    // Telemetry, publish every Nth loop. Raise for competition to cut NetworkTables traffic.
+    public static final int kTelemetryPublishDivider = 1;
+
     public static final double kSlowModeTranslationModifier = 0.25;
     public static final double kSlowModeRotationModifier = 0.5;
 
@@ -0,0 +1,190 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.CrevoLib.util.PoseHistory;
+import frc.robot.CrevoLib.util.loopController.Loop;
+import frc.robot.CrevoLib.util.loopController.Looper;
+import org.littletonrobotics.junction.Logger;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the drivetrain's SwerveDrivePoseEstimator. When {@link DrivetrainConfig#kUseHighRateOdometry} is set,
+ * its own Looper samples yaw and module positions at {@link DrivetrainConfig#kOdometryPeriod} into a queue;
+ * otherwise each robot loop contributes one sample. Either way {@link #periodic} logs the loop's samples as
+ * {@link OdometrySampleInputs} and integrates them on the main thread, so replay, which reads the samples
+ * back from the log, rebuilds the same pose the robot had. Vision measurements are fused in with
+ * {@link #addVisionMeasurement}, which the estimator applies at the measurement's capture time.
+ *
+ * <p>The latest pose is published through an atomic reference swap, so {@link #getPose()} never blocks
+ * on the vision thread. Every update is also recorded in a {@link PoseHistory} so callers
+ * can ask where the robot was at a past FPGA timestamp.
+ */
+public class DrivetrainOdometry implements Loop {
+    // A third of a second at 200hz, the main loop can't fall that far behind without a loop overrun
+    private static final int kSampleQueueCapacity = 64;
+
+    private final Drivetrain drivetrain;
+    private final SwerveDrivePoseEstimator poseEstimator;
+    private final AtomicReference<Pose2d> latestPose;
+    private final PoseHistory history;
+    // Module positions of the last sample given to the estimator, updated in place. Guarded by poseEstimator.
+    private final SwerveModulePosition[] positions;
+    private final Looper looper;
+    // Only touched by the odometry Looper
+    private final DrivetrainSensorSnapshot threadSensors;
+    private final OdometrySampleQueue sampleQueue;
+    // Main thread only
+    private final OdometrySampleInputs sampleInputs;
+    private final DrivetrainSensorSnapshot sample;
+
+    DrivetrainOdometry(Drivetrain drivetrain, boolean highRate) {
+        this.drivetrain = drivetrain;
+
+        positions = drivetrain.getModulePositions();
+        poseEstimator = new SwerveDrivePoseEstimator(
+                DrivetrainConfig.kKinematics,
+                drivetrain.getYaw(),
+                positions,
+                new Pose2d()
+        );
+        latestPose = new AtomicReference<>(poseEstimator.getEstimatedPosition());
+
+        // Sized by the config rather than highRate, replay has no odometry thread but plays back its samples
+        double period = DrivetrainConfig.kUseHighRateOdometry ? DrivetrainConfig.kOdometryPeriod : 0.02;
+        history = new PoseHistory((int) Math.ceil(DrivetrainConfig.kPoseHistorySeconds / period));
+
+        int moduleCount = drivetrain.m_swerveMods.length;
+        sampleInputs = new OdometrySampleInputs(moduleCount);
+        sample = new DrivetrainSensorSnapshot(moduleCount);
+
+        if (highRate) {
+            threadSensors = new DrivetrainSensorSnapshot(moduleCount);
+            sampleQueue = new OdometrySampleQueue(moduleCount, kSampleQueueCapacity);
+            looper = new Looper("Odometry", DrivetrainConfig.kOdometryPeriod);
+            looper.register(this);
+            looper.start();
+        } else {
+            threadSensors = null;
+            sampleQueue = null;
+            looper = null;
+        }
+    }
+
+    public boolean isHighRate() {
+        return looper != null;
+    }
+
+    /**
+     * Logs this loop's odometry samples and integrates them, oldest first. The samples are the ones the
+     * odometry thread queued since the last call, or in low rate mode the loop's own sensor snapshot. In
+     * replay the log overwrites them with the samples the robot recorded. Call from the main robot thread
+     * after the drivetrain inputs have been updated.
+     */
+    public void periodic(DrivetrainSensorSnapshot cycleSensors) {
+        if (sampleQueue != null) {
+            sampleQueue.drainTo(sampleInputs);
+            Logger.getInstance().recordOutput("Drive/OdometryDroppedSamples", sampleQueue.getDroppedSampleCount());
+        } else {
+            sampleInputs.setSingleSample(cycleSensors);
+        }
+        Logger.getInstance().processInputs("Drive/Odometry", sampleInputs);
+
+        for (int i = 0; i < sampleInputs.getSampleCount(); i++) {
+            sampleInputs.copySample(i, sample);
+            update(sample);
+        }
+    }
+
+    /**
+     * Integrates a gyro / module position sample into the pose estimate.
+     */
+    private void update(DrivetrainSensorSnapshot sensors) {
+        Rotation2d yaw = sensors.getYaw();
+
+        synchronized (poseEstimator) {
+            sensors.copyModulePositions(positions);
+            Pose2d pose = poseEstimator.updateWithTime(sensors.timestamp, yaw, positions);
+            latestPose.set(pose);
+            history.addSample(sensors.timestamp, pose);
+        }
+    }
+
+    /**
+     * Resets the pose at the module positions of the last integrated sample, so the next update only
+     * integrates travel since that sample.
+     */
+    public void resetPosition(Rotation2d gyroAngle, Pose2d pose) {
+        synchronized (poseEstimator) {
+            poseEstimator.resetPosition(gyroAngle, positions, pose);
+            latestPose.set(poseEstimator.getEstimatedPosition());
+            // Older samples are in the pre-reset frame
+            history.clear();
+            history.addSample(Timer.getFPGATimestamp(), pose);
+        }
+    }
+
+    /**
+     * Fuses a vision pose captured at a past FPGA timestamp. The estimator rewinds to that time, applies
+     * the correction and replays the odometry since, so camera latency doesn't drag the pose backwards.
+     * Samples already in the pose history keep the estimate they had when they were recorded.
+     *
+     * @param stdDevs Measurement standard deviations [x (m), y (m), theta (rad)]
+     */
+    public void addVisionMeasurement(Pose2d visionPose, double timestamp, Matrix<N3, N1> stdDevs) {
+        synchronized (poseEstimator) {
+            poseEstimator.addVisionMeasurement(visionPose, timestamp, stdDevs);
+            latestPose.set(poseEstimator.getEstimatedPosition());
+        }
+    }
+
+    /**
+     * Publishes the odometry Looper's timing histograms. Call from the main robot thread.
+     */
+    public void outputTelemetry() {
+        if (looper != null) {
+            looper.outputTelemetry();
+        }
+    }
+
+    /** Returns the latest published pose without blocking. */
+    public Pose2d getPose() {
+        return latestPose.get();
+    }
+
+    /**
+     * Interpolated pose at a past FPGA timestamp, clamped to the buffered window.
+     */
+    public Optional<Pose2d> getPoseAt(double timestamp) {
+        return history.getSample(timestamp);
+    }
+
+    /**
+     * Allocation free version of {@link #getPoseAt(double)}. Writes x (m), y (m), theta (rad) into out.
+     */
+    public boolean getPoseAt(double timestamp, double[] out) {
+        return history.getSample(timestamp, out);
+    }
+
+    @Override
+    public void onStart() {
+    }
+
+    @Override
+    public void onLoop() {
+        threadSensors.refreshOdometry(drivetrain);
+        sampleQueue.add(threadSensors);
+    }
+
+    @Override
+    public void onStop() {
+    }
+}
@@ -0,0 +1,110 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.drivetrain.GyroIO.GyroIOInputs;
+import frc.robot.drivetrain.ModuleIO.ModuleIOInputs;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per cycle copy of the drivetrain sensors, stored as a struct of arrays indexed by module id. Each
+ * device signal is read once per refresh; odometry, telemetry and the drive path then use the cached
+ * values instead of going back through JNI to the CAN device.
+ */
+public class DrivetrainSensorSnapshot {
+    // Every device read in the drivetrain goes through countSensorRead so the savings are measurable
+    private static final AtomicLong kSensorReads = new AtomicLong();
+
+    public final double[] drivePositionMeters;
+    public final double[] driveVelocityMetersPerSecond;
+    public final double[] angleDegrees;
+    public final double[] absoluteAngleDegrees;
+
+    public double yawDegrees;
+    public double pitchDegrees;
+    public double timestamp;
+
+    // Scratch inputs for refreshOdometry, which runs off the main thread. Its samples reach the log through
+    // DrivetrainOdometry's queue rather than these.
+    private final ModuleIOInputs[] odometryModuleInputs;
+    private final GyroIOInputs odometryGyroInputs = new GyroIOInputs();
+
+    public DrivetrainSensorSnapshot(int moduleCount) {
+        drivePositionMeters = new double[moduleCount];
+        driveVelocityMetersPerSecond = new double[moduleCount];
+        angleDegrees = new double[moduleCount];
+        absoluteAngleDegrees = new double[moduleCount];
+
+        odometryModuleInputs = new ModuleIOInputs[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            odometryModuleInputs[i] = new ModuleIOInputs();
+        }
+    }
+
+    /**
+     * Copies the inputs the drivetrain and its modules read (or replayed) this cycle.
+     */
+    public void refresh(Drivetrain drivetrain) {
+        timestamp = Timer.getFPGATimestamp();
+        yawDegrees = drivetrain.getYawDegrees();
+        pitchDegrees = drivetrain.getPitch();
+
+        for (SwerveModule mod : drivetrain.m_swerveMods) {
+            int id = mod.getModuleId();
+            ModuleIOInputs inputs = mod.getInputs();
+            drivePositionMeters[id] = inputs.drivePositionMeters;
+            driveVelocityMetersPerSecond[id] = inputs.driveVelocityMetersPerSecond;
+            angleDegrees[id] = inputs.angleDegrees;
+            absoluteAngleDegrees[id] = inputs.absoluteAngleDegrees;
+        }
+    }
+
+    /**
+     * Reads only the signals odometry needs (yaw, drive position and module angle) straight from the
+     * IO layer.
+     */
+    public void refreshOdometry(Drivetrain drivetrain) {
+        timestamp = Timer.getFPGATimestamp();
+        drivetrain.updateOdometryGyroInputs(odometryGyroInputs);
+        yawDegrees = odometryGyroInputs.yawDegrees;
+
+        for (SwerveModule mod : drivetrain.m_swerveMods) {
+            int id = mod.getModuleId();
+            ModuleIOInputs inputs = odometryModuleInputs[id];
+            mod.updateOdometryInputs(inputs);
+            drivePositionMeters[id] = inputs.drivePositionMeters;
+            angleDegrees[id] = inputs.angleDegrees;
+        }
+    }
+
+    public Rotation2d getYaw() {
+        return Rotation2d.fromDegrees(yawDegrees);
+    }
+
+    /**
+     * Writes the module positions into out in place. Rotation2d is immutable, so a module's angle is only
+     * replaced when the module has turned since the last copy.
+     */
+    public void copyModulePositions(SwerveModulePosition[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i].distanceMeters = drivePositionMeters[i];
+            double radians = Math.toRadians(angleDegrees[i]);
+            if (out[i].angle.getRadians() != radians) {
+                out[i].angle = new Rotation2d(radians);
+            }
+        }
+    }
+
+    static void countSensorRead() {
+        kSensorReads.incrementAndGet();
+    }
+
+    /**
+     * @return Total number of drivetrain device reads since startup, from any thread
+     */
+    public static long getSensorReadCount() {
+        return kSensorReads.get();
+    }
+}
@@ -0,0 +1,81 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * Drivetrain dashboard output. All NetworkTables publishers are created once up front and module data
+ * is packed into one array per topic, so publishing does no string building or key lookups.
+ *
+ * <p>Module states use the AdvantageScope swerve layout: [angle 0, speed 0, angle 1, speed 1, ...]
+ * with angles in degrees, ordered FL, FR, BL, BR.
+ */
+public class DrivetrainTelemetry {
+    private final int publishDivider;
+    private int cycle = 0;
+
+    private final DoubleArrayPublisher moduleStatesPub;
+    private final DoubleArrayPublisher moduleCancodersPub;
+    private final DoubleArrayPublisher posePub;
+    private final DoublePublisher yawPub;
+    private final DoublePublisher pitchPub;
+    private final DoublePublisher pitchRatePub;
+    private final BooleanPublisher pitchRateHighPub;
+    private final IntegerPublisher sensorReadsPub;
+
+    private final double[] moduleStates;
+    private final double[] moduleCancoders;
+    private final double[] pose = new double[3];
+
+    /**
+     * @param moduleCount Number of swerve modules
+     * @param publishDivider Publish every Nth call to {@link #update}, 1 publishes every cycle
+     */
+    public DrivetrainTelemetry(int moduleCount, int publishDivider) {
+        this.publishDivider = Math.max(1, publishDivider);
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("Drivetrain");
+        moduleStatesPub = table.getDoubleArrayTopic("ModuleStates").publish();
+        moduleCancodersPub = table.getDoubleArrayTopic("ModuleCancoders").publish();
+        posePub = table.getDoubleArrayTopic("Pose").publish();
+        yawPub = table.getDoubleTopic("Yaw").publish();
+        pitchPub = table.getDoubleTopic("Pitch").publish();
+        pitchRatePub = table.getDoubleTopic("PitchRate").publish();
+        pitchRateHighPub = table.getBooleanTopic("PitchRateHigh").publish();
+        sensorReadsPub = table.getIntegerTopic("SensorReadsPerCycle").publish();
+
+        moduleStates = new double[moduleCount * 2];
+        moduleCancoders = new double[moduleCount];
+    }
+
+    public void update(Drivetrain drivetrain, DrivetrainSensorSnapshot sensors, Pose2d robotPose) {
+        if (++cycle < publishDivider) {
+            return;
+        }
+        cycle = 0;
+
+        for (int i = 0; i < moduleCancoders.length; i++) {
+            moduleStates[i * 2] = sensors.angleDegrees[i];
+            moduleStates[i * 2 + 1] = sensors.driveVelocityMetersPerSecond[i];
+            moduleCancoders[i] = sensors.absoluteAngleDegrees[i];
+        }
+        moduleStatesPub.set(moduleStates);
+        moduleCancodersPub.set(moduleCancoders);
+
+        pose[0] = robotPose.getX();
+        pose[1] = robotPose.getY();
+        pose[2] = robotPose.getRotation().getDegrees();
+        posePub.set(pose);
+
+        yawPub.set(sensors.yawDegrees);
+        pitchPub.set(sensors.pitchDegrees);
+        pitchRatePub.set(drivetrain.getPitchRate());
+        pitchRateHighPub.set(drivetrain.isPitchRateHigh());
+        sensorReadsPub.set(drivetrain.getSensorReadsPerCycle());
+    }
+}
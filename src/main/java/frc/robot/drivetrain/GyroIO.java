@@ -0,0 +1,41 @@
+package frc.robot.drivetrain;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Hardware layer for the drivetrain gyro. Yaw is reported CCW positive and pitch nose up positive, with
+ * any mounting inversion already applied. The empty default implementation is used for log replay.
+ */
+public interface GyroIO {
+    class GyroIOInputs implements LoggableInputs {
+        public double yawDegrees = 0.0;
+        public double pitchDegrees = 0.0;
+        public double rollDegrees = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("YawDegrees", yawDegrees);
+            table.put("PitchDegrees", pitchDegrees);
+            table.put("RollDegrees", rollDegrees);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            yawDegrees = table.getDouble("YawDegrees", yawDegrees);
+            pitchDegrees = table.getDouble("PitchDegrees", pitchDegrees);
+            rollDegrees = table.getDouble("RollDegrees", rollDegrees);
+        }
+    }
+
+    /** Reads every gyro signal. Called once per robot loop. */
+    default void updateInputs(GyroIOInputs inputs) {}
+
+    /** Reads only yaw, for the high rate odometry thread. */
+    default void updateOdometryInputs(GyroIOInputs inputs) {}
+
+    /** Reads only pitch, for the charge station balancer thread. */
+    default void updatePitchInputs(GyroIOInputs inputs) {}
+
+    default void setYaw(double degrees) {}
+}
@@ -0,0 +1,54 @@
+package frc.robot.drivetrain;
+
+import com.ctre.phoenix.sensors.Pigeon2;
+import com.ctre.phoenix.sensors.PigeonIMU_StatusFrame;
+import frc.robot.drivetrain.DrivetrainConfig.SwerveDrivetrainConstants;
+
+public class GyroIOPigeon2 implements GyroIO {
+    private final Pigeon2 pigeon;
+
+    public GyroIOPigeon2() {
+        pigeon = new Pigeon2(SwerveDrivetrainConstants.PIGEON_ID);
+        pigeon.configFactoryDefault();
+        if (DrivetrainConfig.kUseHighRateOdometry) {
+            pigeon.setStatusFramePeriod(PigeonIMU_StatusFrame.CondStatus_9_SixDeg_YPR,
+                    DrivetrainConfig.kOdometryStatusFramePeriodMs);
+        }
+    }
+
+    @Override
+    public void updateInputs(GyroIOInputs inputs) {
+        inputs.yawDegrees = readYawDegrees();
+
+        inputs.pitchDegrees = readPitchDegrees();
+
+        DrivetrainSensorSnapshot.countSensorRead();
+        inputs.rollDegrees = pigeon.getRoll();
+    }
+
+    @Override
+    public void updateOdometryInputs(GyroIOInputs inputs) {
+        inputs.yawDegrees = readYawDegrees();
+    }
+
+    @Override
+    public void updatePitchInputs(GyroIOInputs inputs) {
+        inputs.pitchDegrees = readPitchDegrees();
+    }
+
+    @Override
+    public void setYaw(double degrees) {
+        pigeon.setYaw(DrivetrainConfig.kGyroInvert ? 360 - degrees : degrees);
+    }
+
+    private double readYawDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        double yaw = pigeon.getYaw();
+        return (DrivetrainConfig.kGyroInvert) ? 360 - yaw : yaw;
+    }
+
+    private double readPitchDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return pigeon.getPitch();
+    }
+}
@@ -0,0 +1,53 @@
+package frc.robot.drivetrain;
+
+/**
+ * Simulated gyro reading the chassis heading of a {@link SwerveDriveSim}, and its pitch and roll while on a
+ * simulated charge station.
+ */
+public class GyroIOSim implements GyroIO {
+    private final SwerveDriveSim sim;
+    private double yawOffsetDegrees = 0.0;
+
+    public GyroIOSim(SwerveDriveSim sim) {
+        this.sim = sim;
+    }
+
+    // Each signal counts as the device read GyroIOPigeon2 would make, so the sensor read savings show up in
+    // simulation too
+    @Override
+    public synchronized void updateInputs(GyroIOInputs inputs) {
+        inputs.yawDegrees = readYawDegrees();
+        inputs.pitchDegrees = readPitchDegrees();
+        inputs.rollDegrees = readRollDegrees();
+    }
+
+    @Override
+    public synchronized void updateOdometryInputs(GyroIOInputs inputs) {
+        inputs.yawDegrees = readYawDegrees();
+    }
+
+    @Override
+    public synchronized void updatePitchInputs(GyroIOInputs inputs) {
+        inputs.pitchDegrees = readPitchDegrees();
+    }
+
+    @Override
+    public synchronized void setYaw(double degrees) {
+        yawOffsetDegrees = degrees - Math.toDegrees(sim.getHeadingRadians());
+    }
+
+    private double readYawDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return Math.toDegrees(sim.getHeadingRadians()) + yawOffsetDegrees;
+    }
+
+    private double readPitchDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return sim.getPitchDegrees();
+    }
+
+    private double readRollDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return sim.getRollDegrees();
+    }
+}
@@ -0,0 +1,61 @@
+package frc.robot.drivetrain;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Hardware layer for one swerve module. {@link ModuleIOFalcon} talks to the real TalonFX / CANCoder,
+ * {@link ModuleIOSim} is a physics model, and the empty default implementation is used for log replay
+ * where the inputs come from the log instead of a device.
+ */
+public interface ModuleIO {
+    class ModuleIOInputs implements LoggableInputs {
+        public double drivePositionMeters = 0.0;
+        public double driveVelocityMetersPerSecond = 0.0;
+        public double angleDegrees = 0.0;
+        public double absoluteAngleDegrees = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("DrivePositionMeters", drivePositionMeters);
+            table.put("DriveVelocityMetersPerSecond", driveVelocityMetersPerSecond);
+            table.put("AngleDegrees", angleDegrees);
+            table.put("AbsoluteAngleDegrees", absoluteAngleDegrees);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            drivePositionMeters = table.getDouble("DrivePositionMeters", drivePositionMeters);
+            driveVelocityMetersPerSecond = table.getDouble("DriveVelocityMetersPerSecond", driveVelocityMetersPerSecond);
+            angleDegrees = table.getDouble("AngleDegrees", angleDegrees);
+            absoluteAngleDegrees = table.getDouble("AbsoluteAngleDegrees", absoluteAngleDegrees);
+        }
+    }
+
+    /** Reads every module signal. Called once per robot loop. */
+    default void updateInputs(ModuleIOInputs inputs) {}
+
+    /**
+     * Reads only drive position and module angle, for the high rate odometry thread. Must not advance
+     * any simulation state.
+     */
+    default void updateOdometryInputs(ModuleIOInputs inputs) {}
+
+    default void setDriveOpenLoop(double percentOutput) {}
+
+    /**
+     * @param metersPerSecond Wheel speed setpoint
+     * @param feedforwardPercent Arbitrary feedforward, percent output
+     */
+    default void setDriveVelocity(double metersPerSecond, double feedforwardPercent) {}
+
+    /**
+     * @param degrees Module angle setpoint, continuous
+     * @param feedforwardPercent Arbitrary feedforward for the module's rotation rate, percent output with
+     *                           positive turning the module CCW
+     */
+    default void setAnglePosition(double degrees, double feedforwardPercent) {}
+
+    /** Re-seeds the integrated angle sensor from the absolute encoder. */
+    default void resetToAbsolute() {}
+}
@@ -0,0 +1,145 @@
+package frc.robot.drivetrain;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import com.ctre.phoenix.sensors.CANCoder;
+import frc.robot.CrevoLib.math.Conversions;
+
+/**
+ * Falcon 500 drive / steer with a CANCoder absolute encoder.
+ */
+public class ModuleIOFalcon implements ModuleIO {
+    private final TalonFX angleMotor, driveMotor;
+    private final CANCoder angleEncoder;
+    private final double angleOffsetDegrees;
+
+    public ModuleIOFalcon(SwerveModule.Config config) {
+        angleOffsetDegrees = config.angleOffset.getDegrees();
+
+        angleEncoder = new CANCoder(config.angleEncoderId);
+        configAngleEncoder(config.angleEncoderInvert);
+
+        angleMotor = new TalonFX(config.angleMotorId);
+        configAngleMotor(config.angleInvert);
+
+        driveMotor = new TalonFX(config.driveMotorId);
+        configDriveMotor(config.driveInvert);
+    }
+
+    // Each read is a JNI call, counted so DrivetrainSensorSnapshot savings are measurable
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+        inputs.drivePositionMeters = readDrivePositionMeters();
+        inputs.driveVelocityMetersPerSecond = readDriveVelocityMetersPerSecond();
+        inputs.angleDegrees = readAngleDegrees();
+        inputs.absoluteAngleDegrees = readAbsoluteAngleDegrees();
+    }
+
+    @Override
+    public void updateOdometryInputs(ModuleIOInputs inputs) {
+        inputs.drivePositionMeters = readDrivePositionMeters();
+        inputs.angleDegrees = readAngleDegrees();
+    }
+
+    @Override
+    public void setDriveOpenLoop(double percentOutput) {
+        driveMotor.set(ControlMode.PercentOutput, percentOutput);
+    }
+
+    @Override
+    public void setDriveVelocity(double metersPerSecond, double feedforwardPercent) {
+        driveMotor.set(
+                ControlMode.Velocity,
+                driveVelocityToFalcon(metersPerSecond),
+                DemandType.ArbitraryFeedForward,
+                feedforwardPercent
+        );
+    }
+
+    @Override
+    public void setAnglePosition(double degrees, double feedforwardPercent) {
+        // The gear ratio sign maps module CCW onto motor direction, the feedforward has to follow it
+        angleMotor.set(
+                ControlMode.Position,
+                Conversions.degreesToFalcon(degrees, DrivetrainConfig.kAngleGearRatio),
+                DemandType.ArbitraryFeedForward,
+                feedforwardPercent * Math.signum(DrivetrainConfig.kAngleGearRatio)
+        );
+    }
+
+    /**
+     * Wheel speed to the Talon's native velocity units (ticks / 100ms), the inverse of the velocity reads.
+     * {@link ModuleIOSim} sends its setpoints through this too, so the sim drives at whatever speed the
+     * real closed loop would.
+     */
+    static double driveVelocityToFalcon(double metersPerSecond) {
+        return Conversions.MPSToFalcon(metersPerSecond, DrivetrainConfig.kWheelCircumfurence, DrivetrainConfig.kDriveGearRatio);
+    }
+
+    static double falconToDriveVelocity(double velocityCounts) {
+        return Conversions.falconToMPS(velocityCounts, DrivetrainConfig.kWheelCircumfurence, DrivetrainConfig.kDriveGearRatio);
+    }
+
+    /**
+     *
+     * Reset the module to the absolute position
+     *
+     */
+    @Override
+    public void resetToAbsolute() {
+        double absolutePosition = Conversions.degreesToFalcon(readAbsoluteAngleDegrees() - angleOffsetDegrees, DrivetrainConfig.kAngleGearRatio);
+        angleMotor.setSelectedSensorPosition(absolutePosition);
+    }
+
+    private double readAngleDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return Conversions.falconToDegrees(angleMotor.getSelectedSensorPosition(), DrivetrainConfig.kAngleGearRatio);
+    }
+
+    private double readAbsoluteAngleDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return angleEncoder.getAbsolutePosition();
+    }
+
+    private double readDrivePositionMeters() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return Conversions.falconToMeters(driveMotor.getSelectedSensorPosition(), DrivetrainConfig.kWheelCircumfurence, DrivetrainConfig.kDriveGearRatio);
+    }
+
+    private double readDriveVelocityMetersPerSecond() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return falconToDriveVelocity(driveMotor.getSelectedSensorVelocity());
+    }
+
+    private void configAngleEncoder(boolean inverted) {
+        angleEncoder.configFactoryDefault();
+        angleEncoder.configAllSettings(DrivetrainConfig.getCANCoderConfiguration(inverted));
+    }
+
+    private void configAngleMotor(boolean inverted) {
+        angleMotor.configFactoryDefault();
+        angleMotor.configAllSettings(DrivetrainConfig.getAngleMotorConfiguration());
+        angleMotor.setInverted(inverted);
+        angleMotor.setNeutralMode(DrivetrainConfig.kAngleNeutralMode);
+        configOdometryStatusFrame(angleMotor);
+        resetToAbsolute();
+    }
+
+    private void configDriveMotor(boolean inverted) {
+        driveMotor.configFactoryDefault();
+        driveMotor.configAllSettings(DrivetrainConfig.getDriveMotorConfiguration());
+        driveMotor.setInverted(inverted);
+        driveMotor.setNeutralMode(DrivetrainConfig.kDriveNeutralMode);
+        configOdometryStatusFrame(driveMotor);
+        driveMotor.setSelectedSensorPosition(0);
+    }
+
+    // The high rate odometry thread would just re-read stale values at the default 20ms feedback frame
+    private void configOdometryStatusFrame(TalonFX motor) {
+        if (DrivetrainConfig.kUseHighRateOdometry) {
+            motor.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, DrivetrainConfig.kOdometryStatusFramePeriodMs);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package frc.robot.drivetrain;
+
+/**
+ * One module of a {@link SwerveDriveSim}. The model is stepped by the robot's simulationPeriodic, this
+ * only forwards requests and reads state.
+ */
+public class ModuleIOSim implements ModuleIO {
+    private final SwerveDriveSim sim;
+    private final int moduleId;
+
+    public ModuleIOSim(SwerveDriveSim sim, int moduleId) {
+        this.sim = sim;
+        this.moduleId = moduleId;
+    }
+
+    // Each signal counts as the device read ModuleIOFalcon would make, so the sensor read savings show up
+    // in simulation too
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+        inputs.drivePositionMeters = readDrivePositionMeters();
+        inputs.driveVelocityMetersPerSecond = readDriveVelocityMetersPerSecond();
+        inputs.angleDegrees = readAngleDegrees();
+        inputs.absoluteAngleDegrees = readAbsoluteAngleDegrees();
+    }
+
+    @Override
+    public void updateOdometryInputs(ModuleIOInputs inputs) {
+        inputs.drivePositionMeters = readDrivePositionMeters();
+        inputs.angleDegrees = readAngleDegrees();
+    }
+
+    @Override
+    public void setDriveOpenLoop(double percentOutput) {
+        sim.setDriveOpenLoop(moduleId, percentOutput);
+    }
+
+    @Override
+    public void setDriveVelocity(double metersPerSecond, double feedforwardPercent) {
+        sim.setDriveVelocity(moduleId, ModuleIOFalcon.driveVelocityToFalcon(metersPerSecond), feedforwardPercent);
+    }
+
+    @Override
+    public void setAnglePosition(double degrees, double feedforwardPercent) {
+        sim.setSteerAngle(moduleId, degrees, feedforwardPercent);
+    }
+
+    private double readDrivePositionMeters() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return sim.getDrivePositionMeters(moduleId);
+    }
+
+    private double readDriveVelocityMetersPerSecond() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return sim.getDriveVelocityMetersPerSecond(moduleId);
+    }
+
+    private double readAngleDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        return sim.getSteerAngleDegrees(moduleId);
+    }
+
+    // The CANCoder, a separate device on the real module
+    private double readAbsoluteAngleDegrees() {
+        DrivetrainSensorSnapshot.countSensorRead();
+        double degrees = sim.getSteerAngleDegrees(moduleId);
+        return ((degrees % 360) + 360) % 360;
+    }
+}
@@ -0,0 +1,87 @@
+package frc.robot.drivetrain;
+
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Odometry samples integrated during one robot loop, logged as inputs so replay feeds the estimator the
+ * same samples the robot did. Each array holds one entry per sample, oldest first; module arrays are
+ * indexed [module][sample]. The arrays are only reallocated when the sample count changes.
+ */
+public class OdometrySampleInputs implements LoggableInputs {
+    public double[] timestamps = new double[0];
+    public double[] yawDegrees = new double[0];
+    public final double[][] drivePositionsMeters;
+    public final double[][] anglesDegrees;
+
+    private final String[] drivePositionsKeys;
+    private final String[] anglesKeys;
+
+    public OdometrySampleInputs(int moduleCount) {
+        drivePositionsMeters = new double[moduleCount][0];
+        anglesDegrees = new double[moduleCount][0];
+        drivePositionsKeys = new String[moduleCount];
+        anglesKeys = new String[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            drivePositionsKeys[i] = "Module" + i + "/DrivePositionsMeters";
+            anglesKeys[i] = "Module" + i + "/AnglesDegrees";
+        }
+    }
+
+    public int getSampleCount() {
+        return timestamps.length;
+    }
+
+    void setSampleCount(int count) {
+        if (count == timestamps.length) {
+            return;
+        }
+        timestamps = new double[count];
+        yawDegrees = new double[count];
+        for (int i = 0; i < drivePositionsMeters.length; i++) {
+            drivePositionsMeters[i] = new double[count];
+            anglesDegrees[i] = new double[count];
+        }
+    }
+
+    /** Writes sample i's time, yaw and module positions into out. */
+    void copySample(int sample, DrivetrainSensorSnapshot out) {
+        out.timestamp = timestamps[sample];
+        out.yawDegrees = yawDegrees[sample];
+        for (int i = 0; i < drivePositionsMeters.length; i++) {
+            out.drivePositionMeters[i] = drivePositionsMeters[i][sample];
+            out.angleDegrees[i] = anglesDegrees[i][sample];
+        }
+    }
+
+    /** Replaces the contents with the single sample in sensors. */
+    void setSingleSample(DrivetrainSensorSnapshot sensors) {
+        setSampleCount(1);
+        timestamps[0] = sensors.timestamp;
+        yawDegrees[0] = sensors.yawDegrees;
+        for (int i = 0; i < drivePositionsMeters.length; i++) {
+            drivePositionsMeters[i][0] = sensors.drivePositionMeters[i];
+            anglesDegrees[i][0] = sensors.angleDegrees[i];
+        }
+    }
+
+    @Override
+    public void toLog(LogTable table) {
+        table.put("Timestamps", timestamps);
+        table.put("YawDegrees", yawDegrees);
+        for (int i = 0; i < drivePositionsMeters.length; i++) {
+            table.put(drivePositionsKeys[i], drivePositionsMeters[i]);
+            table.put(anglesKeys[i], anglesDegrees[i]);
+        }
+    }
+
+    @Override
+    public void fromLog(LogTable table) {
+        timestamps = table.getDoubleArray("Timestamps", timestamps);
+        yawDegrees = table.getDoubleArray("YawDegrees", yawDegrees);
+        for (int i = 0; i < drivePositionsMeters.length; i++) {
+            drivePositionsMeters[i] = table.getDoubleArray(drivePositionsKeys[i], drivePositionsMeters[i]);
+            anglesDegrees[i] = table.getDoubleArray(anglesKeys[i], anglesDegrees[i]);
+        }
+    }
+}
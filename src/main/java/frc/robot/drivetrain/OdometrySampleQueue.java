@@ -0,0 +1,63 @@
+package frc.robot.drivetrain;
+
+/**
+ * Hands samples from the high rate odometry thread to the main loop. Samples are kept as a struct of
+ * arrays in a fixed ring, so neither side allocates. If the main loop falls behind far enough to fill the
+ * ring, the oldest samples are overwritten and counted as dropped.
+ */
+class OdometrySampleQueue {
+    private final double[] timestamps;
+    private final double[] yawDegrees;
+    private final double[][] drivePositionsMeters;
+    private final double[][] anglesDegrees;
+    private int head = 0;
+    private int size = 0;
+    private long droppedSamples = 0;
+
+    OdometrySampleQueue(int moduleCount, int capacity) {
+        timestamps = new double[capacity];
+        yawDegrees = new double[capacity];
+        drivePositionsMeters = new double[moduleCount][capacity];
+        anglesDegrees = new double[moduleCount][capacity];
+    }
+
+    /** Queues the odometry signals of sample. Called by the odometry thread. */
+    synchronized void add(DrivetrainSensorSnapshot sample) {
+        int capacity = timestamps.length;
+        int slot = (head + size) % capacity;
+        if (size == capacity) {
+            head = (head + 1) % capacity;
+            droppedSamples++;
+        } else {
+            size++;
+        }
+
+        timestamps[slot] = sample.timestamp;
+        yawDegrees[slot] = sample.yawDegrees;
+        for (int i = 0; i < drivePositionsMeters.length; i++) {
+            drivePositionsMeters[i][slot] = sample.drivePositionMeters[i];
+            anglesDegrees[i][slot] = sample.angleDegrees[i];
+        }
+    }
+
+    /** Moves every queued sample into inputs, oldest first. Called by the main loop. */
+    synchronized void drainTo(OdometrySampleInputs inputs) {
+        inputs.setSampleCount(size);
+        int capacity = timestamps.length;
+        for (int n = 0; n < size; n++) {
+            int slot = (head + n) % capacity;
+            inputs.timestamps[n] = timestamps[slot];
+            inputs.yawDegrees[n] = yawDegrees[slot];
+            for (int i = 0; i < drivePositionsMeters.length; i++) {
+                inputs.drivePositionsMeters[i][n] = drivePositionsMeters[i][slot];
+                inputs.anglesDegrees[i][n] = anglesDegrees[i][slot];
+            }
+        }
+        head = 0;
+        size = 0;
+    }
+
+    synchronized long getDroppedSampleCount() {
+        return droppedSamples;
+    }
+}
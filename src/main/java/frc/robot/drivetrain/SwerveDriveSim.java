@@ -0,0 +1,329 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.system.plant.DCMotor;
+import frc.robot.CrevoLib.math.Conversions;
+
+/**
+ * Rigid body swerve drive model. Each module has a Falcon 500 drive and steer motor through
+ * {@link DrivetrainConfig#kDriveGearRatio} / {@link DrivetrainConfig#kAngleGearRatio} into a wheel / module
+ * inertia, and the wheels push the chassis through a friction limited contact, so wheels can spin up or
+ * skid sideways when asked for more than the carpet will give. Drive gearbox friction matches the
+ * characterized {@link DrivetrainConfig#kDriveS}, so low speed commands don't overdrive the wheels.
+ *
+ * <p>The model is stepped at a fixed {@link DrivetrainConfig#kSimStepSeconds} and emulates the Talon
+ * onboard closed loops (percent output with open loop ramp, velocity P + arbitrary feedforward, position
+ * PD) at that rate. The field's charge stations are modeled as {@link ChargeStationSim} platforms; on one,
+ * gravity pulls the robot down the slope and the gyro reads the platform's tilt. Nothing here allocates or
+ * touches HAL, so {@link #update(double)} can be driven from a headless harness far faster than real time.
+ *
+ * <p>Per module state is kept in arrays indexed by module id. All public methods are synchronized since
+ * the high rate odometry thread reads module positions while the main thread steps the model.
+ */
+public class SwerveDriveSim {
+    private static final double kGravity = 9.81;
+    private static final double kBatteryVoltage = 12.0;
+    // Talon closed loop gains act on native units, full output is 1023
+    private static final double kTalonFullOutput = 1023.0;
+
+    private enum DriveControl { OPEN_LOOP, VELOCITY }
+
+    private final int moduleCount;
+    private final DCMotor driveMotor = DCMotor.getFalcon500(1);
+    private final DCMotor steerMotor = DCMotor.getFalcon500(1);
+    private final double driveGearing = Math.abs(DrivetrainConfig.kDriveGearRatio);
+    private final double steerGearing = Math.abs(DrivetrainConfig.kAngleGearRatio);
+    private final double wheelRadius = DrivetrainConfig.kWheelDiameter / 2.0;
+    private final double normalForce;
+    // Gearbox and bearing friction at the wheel, what the characterized kS overcomes
+    private final double driveFrictionTorque;
+    // Inverse effective mass the chassis presents to one wheel contact
+    private final double[] chassisInverseMass;
+
+    // Module state
+    private final double[] wheelVelocity;   // rad/s at the wheel
+    private final double[] wheelPosition;   // rad at the wheel
+    private final double[] steerVelocity;   // rad/s at the module
+    private final double[] steerAngle;      // rad at the module, continuous
+    private final boolean[] slipping;
+
+    // Module control requests
+    private final DriveControl[] driveControl;
+    private final double[] driveDemand;     // percent, or Falcon ticks / 100ms in velocity mode
+    private final double[] driveFeedforward;
+    private final double[] driveApplied;    // percent actually applied after ramping
+    private final double[] steerSetpoint;   // rad
+    private final double[] steerFeedforward;
+    private final double[] lastSteerError;  // Falcon ticks, for the Talon D term
+
+    // Chassis state, field relative
+    private double x, y, heading;
+    private double vx, vy, omega;
+
+    // Terrain
+    private final ChargeStationSim[] chargeStations;
+    private double surfaceAngle;            // rad, +x uphill, of the station the robot is on
+
+    public SwerveDriveSim() {
+        moduleCount = DrivetrainConfig.kModuleLocationsX.length;
+        normalForce = DrivetrainConfig.kRobotMassKg * kGravity / moduleCount;
+        driveFrictionTorque = motorTorque(driveMotor, DrivetrainConfig.kDriveS * kBatteryVoltage, 0.0) * driveGearing;
+
+        chassisInverseMass = new double[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            double r2 = DrivetrainConfig.kModuleLocationsX[i] * DrivetrainConfig.kModuleLocationsX[i]
+                    + DrivetrainConfig.kModuleLocationsY[i] * DrivetrainConfig.kModuleLocationsY[i];
+            // Every wheel solves its contact at once, so each assumes it is pushing against all of them
+            chassisInverseMass[i] = moduleCount
+                    * (1.0 / DrivetrainConfig.kRobotMassKg + r2 / DrivetrainConfig.kRobotMomentOfInertia);
+        }
+
+        wheelVelocity = new double[moduleCount];
+        wheelPosition = new double[moduleCount];
+        steerVelocity = new double[moduleCount];
+        steerAngle = new double[moduleCount];
+        slipping = new boolean[moduleCount];
+
+        driveControl = new DriveControl[moduleCount];
+        driveDemand = new double[moduleCount];
+        driveFeedforward = new double[moduleCount];
+        driveApplied = new double[moduleCount];
+        steerSetpoint = new double[moduleCount];
+        steerFeedforward = new double[moduleCount];
+        lastSteerError = new double[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            driveControl[i] = DriveControl.OPEN_LOOP;
+        }
+
+        chargeStations = new ChargeStationSim[DrivetrainConfig.kChargeStationCentersX.length];
+        for (int i = 0; i < chargeStations.length; i++) {
+            chargeStations[i] = new ChargeStationSim(DrivetrainConfig.kChargeStationCentersX[i],
+                    DrivetrainConfig.kChargeStationCenterY);
+        }
+    }
+
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    /**
+     * Advances the model by a whole number of fixed steps covering the given time.
+     */
+    public synchronized void update(double seconds) {
+        double dt = DrivetrainConfig.kSimStepSeconds;
+        int steps = (int) Math.max(1, Math.round(seconds / dt));
+        for (int step = 0; step < steps; step++) {
+            step(dt);
+        }
+    }
+
+    public synchronized void setDriveOpenLoop(int module, double percentOutput) {
+        driveControl[module] = DriveControl.OPEN_LOOP;
+        driveDemand[module] = percentOutput;
+        driveFeedforward[module] = 0.0;
+    }
+
+    /**
+     * @param falconVelocity Setpoint in the Talon's native units (ticks / 100ms), exactly as sent to the
+     *                       motor controller, so a bad unit conversion shows up as a wrong sim speed
+     */
+    public synchronized void setDriveVelocity(int module, double falconVelocity, double feedforwardPercent) {
+        driveControl[module] = DriveControl.VELOCITY;
+        driveDemand[module] = falconVelocity;
+        driveFeedforward[module] = feedforwardPercent;
+    }
+
+    public synchronized void setSteerAngle(int module, double degrees, double feedforwardPercent) {
+        steerSetpoint[module] = Math.toRadians(degrees);
+        steerFeedforward[module] = feedforwardPercent;
+    }
+
+    public synchronized double getDrivePositionMeters(int module) {
+        return wheelPosition[module] * wheelRadius;
+    }
+
+    public synchronized double getDriveVelocityMetersPerSecond(int module) {
+        return wheelVelocity[module] * wheelRadius;
+    }
+
+    public synchronized double getSteerAngleDegrees(int module) {
+        return Math.toDegrees(steerAngle[module]);
+    }
+
+    /**
+     * @return True if the wheel's contact force hit the friction limit on the last step
+     */
+    public synchronized boolean isSlipping(int module) {
+        return slipping[module];
+    }
+
+    /** Chassis heading (rad, CCW positive, continuous). */
+    public synchronized double getHeadingRadians() {
+        return heading;
+    }
+
+    public synchronized double getAngularVelocity() {
+        return omega;
+    }
+
+    /** Chassis pitch from the surface it is on (deg, nose up positive). */
+    public synchronized double getPitchDegrees() {
+        return Math.toDegrees(surfaceAngle * Math.cos(heading));
+    }
+
+    /** Chassis roll from the surface it is on (deg, left side up positive). */
+    public synchronized double getRollDegrees() {
+        return Math.toDegrees(-surfaceAngle * Math.sin(heading));
+    }
+
+    /** Ground truth pose, for comparing against odometry. */
+    public synchronized Pose2d getPose() {
+        return new Pose2d(x, y, new Rotation2d(heading));
+    }
+
+    /**
+     * Ground truth pose as [x (m), y (m), heading (rad)] without allocating.
+     */
+    public synchronized void getPose(double[] out) {
+        out[0] = x;
+        out[1] = y;
+        out[2] = heading;
+    }
+
+    public synchronized void resetPose(Pose2d pose) {
+        x = pose.getX();
+        y = pose.getY();
+        heading = pose.getRotation().getRadians();
+        vx = 0.0;
+        vy = 0.0;
+        omega = 0.0;
+        for (int i = 0; i < moduleCount; i++) {
+            wheelVelocity[i] = 0.0;
+            steerVelocity[i] = 0.0;
+        }
+        for (ChargeStationSim station : chargeStations) {
+            station.reset();
+        }
+        surfaceAngle = 0.0;
+    }
+
+    private void step(double dt) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        // Chassis velocity in the robot frame
+        double robotVx = vx * cos + vy * sin;
+        double robotVy = -vx * sin + vy * cos;
+
+        double forceX = 0.0, forceY = 0.0, torque = 0.0;
+
+        for (int i = 0; i < moduleCount; i++) {
+            stepMotors(i, dt);
+
+            double moduleX = DrivetrainConfig.kModuleLocationsX[i];
+            double moduleY = DrivetrainConfig.kModuleLocationsY[i];
+            double contactVx = robotVx - omega * moduleY;
+            double contactVy = robotVy + omega * moduleX;
+
+            double wheelCos = Math.cos(steerAngle[i]);
+            double wheelSin = Math.sin(steerAngle[i]);
+            double groundLongitudinal = contactVx * wheelCos + contactVy * wheelSin;
+            double groundLateral = -contactVx * wheelSin + contactVy * wheelCos;
+
+            // Force that would remove the slip this step, then clamped to the friction circle
+            double slip = wheelVelocity[i] * wheelRadius - groundLongitudinal;
+            double wheelInverseMass = wheelRadius * wheelRadius / DrivetrainConfig.kDriveInertia;
+            double longitudinal = slip / (dt * (wheelInverseMass + chassisInverseMass[i]));
+            double lateral = -groundLateral / (dt * chassisInverseMass[i]);
+
+            double maxForce = DrivetrainConfig.kWheelCoefficientOfFriction * normalForce;
+            double force = Math.hypot(longitudinal, lateral);
+            slipping[i] = force > maxForce;
+            if (slipping[i]) {
+                longitudinal *= maxForce / force;
+                lateral *= maxForce / force;
+            }
+
+            wheelVelocity[i] -= longitudinal * wheelRadius / DrivetrainConfig.kDriveInertia * dt;
+            wheelPosition[i] += wheelVelocity[i] * dt;
+
+            double moduleForceX = longitudinal * wheelCos - lateral * wheelSin;
+            double moduleForceY = longitudinal * wheelSin + lateral * wheelCos;
+            forceX += moduleForceX;
+            forceY += moduleForceY;
+            torque += moduleX * moduleForceY - moduleY * moduleForceX;
+        }
+
+        surfaceAngle = 0.0;
+        for (ChargeStationSim station : chargeStations) {
+            station.step(x, y, dt);
+            if (station.contains(x, y)) {
+                surfaceAngle = station.getAngleRadians();
+            }
+        }
+        // Gravity along the slope, the wheels have to hold against it
+        double slopeForceX = -DrivetrainConfig.kRobotMassKg * kGravity * Math.sin(surfaceAngle);
+
+        // Semi-implicit Euler, wheel forces are in the robot frame
+        vx += ((forceX * cos - forceY * sin) + slopeForceX) / DrivetrainConfig.kRobotMassKg * dt;
+        vy += (forceX * sin + forceY * cos) / DrivetrainConfig.kRobotMassKg * dt;
+        omega += torque / DrivetrainConfig.kRobotMomentOfInertia * dt;
+
+        x += vx * dt;
+        y += vy * dt;
+        heading += omega * dt;
+    }
+
+    private void stepMotors(int i, double dt) {
+        // Drive
+        double demand;
+        if (driveControl[i] == DriveControl.OPEN_LOOP) {
+            double maxChange = dt / DrivetrainConfig.kOpenLoopRamp;
+            demand = driveApplied[i] + MathUtil.clamp(driveDemand[i] - driveApplied[i], -maxChange, maxChange);
+        } else {
+            // Measured from the motor shaft, independent of any wheel size constant
+            double errorTicks = driveDemand[i] - Conversions.RPMToFalcon(
+                    wheelVelocity[i] * 60.0 / (2.0 * Math.PI),
+                    driveGearing
+            );
+            demand = DrivetrainConfig.kDriveP * errorTicks / kTalonFullOutput + driveFeedforward[i];
+        }
+        driveApplied[i] = MathUtil.clamp(demand, -1.0, 1.0);
+
+        double driveTorque = motorTorque(driveMotor, driveApplied[i] * kBatteryVoltage,
+                wheelVelocity[i] * driveGearing) * driveGearing;
+        wheelVelocity[i] += driveTorque / DrivetrainConfig.kDriveInertia * dt;
+        // Coulomb friction, can stop the wheel but never reverse it
+        double frictionChange = driveFrictionTorque / DrivetrainConfig.kDriveInertia * dt;
+        if (Math.abs(wheelVelocity[i]) <= frictionChange) {
+            wheelVelocity[i] = 0.0;
+        } else {
+            wheelVelocity[i] -= Math.copySign(frictionChange, wheelVelocity[i]);
+        }
+
+        // Steer, Talon position PD with the D term on the per millisecond change in error
+        double steerErrorTicks = Conversions.degreesToFalcon(
+                Math.toDegrees(steerSetpoint[i] - steerAngle[i]),
+                steerGearing
+        );
+        double steerErrorDelta = (steerErrorTicks - lastSteerError[i]) * (0.001 / dt);
+        lastSteerError[i] = steerErrorTicks;
+        double steerOutput = MathUtil.clamp(
+                (DrivetrainConfig.kAngleP * steerErrorTicks + DrivetrainConfig.kAngleD * steerErrorDelta)
+                        / kTalonFullOutput + steerFeedforward[i],
+                -1.0,
+                1.0
+        );
+
+        double steerTorque = motorTorque(steerMotor, steerOutput * kBatteryVoltage,
+                steerVelocity[i] * steerGearing) * steerGearing;
+        steerVelocity[i] += steerTorque / DrivetrainConfig.kSteerInertia * dt;
+        steerAngle[i] += steerVelocity[i] * dt;
+    }
+
+    private static double motorTorque(DCMotor motor, double volts, double motorVelocity) {
+        double current = (volts - motorVelocity / motor.KvRadPerSecPerVolt) / motor.rOhms;
+        return current * motor.KtNMPerAmp;
+    }
+}
@@ -1,15 +1,12 @@
 package frc.robot.drivetrain;
 
-import com.ctre.phoenix.motorcontrol.ControlMode;
-import com.ctre.phoenix.motorcontrol.DemandType;
-import com.ctre.phoenix.motorcontrol.can.TalonFX;
-import com.ctre.phoenix.sensors.CANCoder;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import frc.SpectrumLib.swerve.CTREModuleState;
-import frc.robot.CrevoLib.math.Conversions;
+import frc.robot.CrevoLib.util.CTREModuleState;
+import frc.robot.drivetrain.ModuleIO.ModuleIOInputs;
+import org.littletonrobotics.junction.Logger;
 
 public class SwerveModule {
     public static class Config {
@@ -31,26 +28,18 @@ public class SwerveModule {
     }
 
     private final int moduleId;
-    private final Rotation2d angleOffset;
-    private Rotation2d lastAngle;
+    private final String logKey;
+    private double lastAngleDegrees;
 
-    private final TalonFX angleMotor, driveMotor;
-    private final CANCoder angleEncoder;
+    private final ModuleIO io;
+    private final ModuleIOInputs inputs = new ModuleIOInputs();
 
     private final SimpleMotorFeedforward ffDriveController;
 
-    public SwerveModule(int moduleId, Config config) {
+    public SwerveModule(int moduleId, ModuleIO io) {
         this.moduleId = moduleId;
-        this.angleOffset = config.angleOffset;
-
-        angleEncoder = new CANCoder(config.angleEncoderId);
-        configAngleEncoder(config.angleEncoderInvert);
-
-        angleMotor = new TalonFX(config.angleMotorId);
-        configAngleMotor(config.angleInvert);
-
-        driveMotor = new TalonFX(config.driveMotorId);
-        configDriveMotor(config.driveInvert);
+        this.io = io;
+        logKey = "Drive/Module" + moduleId;
 
         ffDriveController = new SimpleMotorFeedforward(
                 DrivetrainConfig.kDriveS,
@@ -58,55 +47,109 @@ public class SwerveModule {
                 DrivetrainConfig.kDriveA
         );
 
-        lastAngle = getState().angle;
+        updateInputs();
+        lastAngleDegrees = inputs.angleDegrees;
     }
 
     public int getModuleId() {
         return moduleId;
     }
 
+    /**
+     * Reads the module through its IO layer and records the inputs to the log (or, in replay, overwrites
+     * them from the log). Called once per robot loop, before anything reads {@link #getInputs()}.
+     */
+    public void updateInputs() {
+        io.updateInputs(inputs);
+        Logger.getInstance().processInputs(logKey, inputs);
+    }
+
+    /**
+     * Inputs from the last {@link #updateInputs()}.
+     */
+    public ModuleIOInputs getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Reads drive position and angle into a caller owned inputs object. For the high rate odometry
+     * thread, which logs them with the rest of its samples.
+     */
+    void updateOdometryInputs(ModuleIOInputs out) {
+        io.updateOdometryInputs(out);
+    }
+
     public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop) {
-        desiredState = CTREModuleState.optimize(desiredState, getState().angle);
-        setAngle(desiredState);
-        setSpeed(desiredState, isOpenLoop);
+        desiredState = CTREModuleState.optimize(desiredState, getAngle());
+        setAngle(desiredState.speedMetersPerSecond, desiredState.angle.getDegrees());
+        setSpeed(desiredState.speedMetersPerSecond, isOpenLoop);
+    }
+
+    /**
+     * Allocation free version of {@link #setDesiredState(SwerveModuleState, boolean)}. The setpoint for
+     * this module is optimized in place against the angle from this cycle's sensor snapshot.
+     */
+    public void setDesiredState(SwerveSetpoints setpoints, double currentAngleDegrees, boolean isOpenLoop) {
+        double speedBeforeOptimize = setpoints.speedsMetersPerSecond[moduleId];
+        CTREModuleState.optimize(setpoints.speedsMetersPerSecond, setpoints.anglesDegrees, moduleId, currentAngleDegrees);
+        double speed = setpoints.speedsMetersPerSecond[moduleId];
+
+        // Reversing the wheel reverses its acceleration, the steer rate is the same either way
+        double acceleration = setpoints.accelerationsMetersPerSecondSquared[moduleId];
+        if (speed * speedBeforeOptimize < 0) {
+            acceleration = -acceleration;
+        }
+
+        setAngle(speed, setpoints.anglesDegrees[moduleId], setpoints.steerVelocitiesDegreesPerSecond[moduleId]);
+        setSpeed(speed, acceleration, isOpenLoop);
+    }
+
+    /**
+     * Stops the wheel and turns it to an angle, for locking the wheels in an X. Unlike setDesiredState this
+     * skips the low speed angle hold, since turning a stopped wheel is the point, and never flips the wheel
+     * 180 degrees, only moves the angle into the continuous range nearest the current one.
+     */
+    public void lock(double angleDegrees, double currentAngleDegrees) {
+        double angle = CTREModuleState.placeInAppropriate0To360Scope(currentAngleDegrees, angleDegrees);
+        io.setAnglePosition(angle, 0.0);
+        lastAngleDegrees = angle;
+        setSpeed(0.0, false);
+    }
+
+    private void setSpeed(double speedMetersPerSecond, boolean isOpenLoop){
+        setSpeed(speedMetersPerSecond, 0.0, isOpenLoop);
     }
 
-    private void setSpeed(SwerveModuleState desiredState, boolean isOpenLoop){
+    private void setSpeed(double speedMetersPerSecond, double accelerationMetersPerSecondSquared, boolean isOpenLoop){
         if(isOpenLoop){
-            double percentOutput = desiredState.speedMetersPerSecond / DrivetrainConfig.kMaxVelocity;
-            driveMotor.set(ControlMode.PercentOutput, percentOutput);
+            io.setDriveOpenLoop(speedMetersPerSecond / DrivetrainConfig.kMaxVelocity);
         }
         else {
-            double velocity = Conversions.MPSToFalcon(
-                    desiredState.speedMetersPerSecond,
-                    DrivetrainConfig.kWheelDiameter,
-                    DrivetrainConfig.kDriveGearRatio
-            );
-
-            driveMotor.set(
-                    ControlMode.Velocity,
-                    velocity,
-                    DemandType.ArbitraryFeedForward,
-                    ffDriveController.calculate(desiredState.speedMetersPerSecond)
-            );
+            io.setDriveVelocity(speedMetersPerSecond,
+                    ffDriveController.calculate(speedMetersPerSecond, accelerationMetersPerSecondSquared));
         }
     }
 
-    private void setAngle(SwerveModuleState desiredState){
+    private void setAngle(double speedMetersPerSecond, double angleDegrees){
+        setAngle(speedMetersPerSecond, angleDegrees, 0.0);
+    }
+
+    private void setAngle(double speedMetersPerSecond, double angleDegrees, double steerVelocityDegreesPerSecond){
         // Prevent rotating module if speed is less then 1%. Prevents Jittering.
-        Rotation2d angle = (Math.abs(desiredState.speedMetersPerSecond) <= (DrivetrainConfig.kMaxVelocity * 0.01)) ?
-                lastAngle : desiredState.angle;
+        boolean hold = Math.abs(speedMetersPerSecond) <= (DrivetrainConfig.kMaxVelocity * 0.01);
+        double angle = hold ? lastAngleDegrees : angleDegrees;
+        double feedforward = hold ? 0.0 : steerVelocityDegreesPerSecond * DrivetrainConfig.kAngleV;
 
-        angleMotor.set(ControlMode.Position, Conversions.degreesToFalcon(angle.getDegrees(), DrivetrainConfig.kAngleGearRatio));
-        lastAngle = angle;
+        io.setAnglePosition(angle, feedforward);
+        lastAngleDegrees = angle;
     }
 
     private Rotation2d getAngle(){
-        return Rotation2d.fromDegrees(Conversions.falconToDegrees(angleMotor.getSelectedSensorPosition(), DrivetrainConfig.kAngleGearRatio));
+        return Rotation2d.fromDegrees(inputs.angleDegrees);
     }
 
     public Rotation2d getCanCoder(){
-        return Rotation2d.fromDegrees(angleEncoder.getAbsolutePosition());
+        return Rotation2d.fromDegrees(inputs.absoluteAngleDegrees);
     }
 
     /**
@@ -116,43 +159,14 @@ public class SwerveModule {
      */
 
     void resetToAbsolute(){
-        double absolutePosition = Conversions.degreesToFalcon(getCanCoder().getDegrees() - angleOffset.getDegrees(), DrivetrainConfig.kAngleGearRatio);
-        angleMotor.setSelectedSensorPosition(absolutePosition);
+        io.resetToAbsolute();
     }
 
     public SwerveModuleState getState(){
-        return new SwerveModuleState(
-                Conversions.falconToMPS(driveMotor.getSelectedSensorVelocity(), DrivetrainConfig.kWheelCircumfurence, DrivetrainConfig.kDriveGearRatio),
-                getAngle()
-        );
+        return new SwerveModuleState(inputs.driveVelocityMetersPerSecond, getAngle());
     }
 
     public SwerveModulePosition getPosition(){
-        return new SwerveModulePosition(
-                Conversions.falconToMeters(driveMotor.getSelectedSensorPosition(), DrivetrainConfig.kWheelCircumfurence, DrivetrainConfig.kDriveGearRatio),
-                getAngle()
-        );
-    }
-
-
-    private void configAngleEncoder(boolean inverted) {
-        angleEncoder.configFactoryDefault();
-        angleEncoder.configAllSettings(DrivetrainConfig.getCANCoderConfiguration(inverted));
-    }
-
-    private void configAngleMotor(boolean inverted) {
-        angleMotor.configFactoryDefault();
-        angleMotor.configAllSettings(DrivetrainConfig.getAngleMotorConfiguration());
-        angleMotor.setInverted(inverted);
-        angleMotor.setNeutralMode(DrivetrainConfig.kAngleNeutralMode);
-        resetToAbsolute();
-    }
-
-    private void configDriveMotor(boolean inverted) {
-        driveMotor.configFactoryDefault();
-        driveMotor.configAllSettings(DrivetrainConfig.getDriveMotorConfiguration());
-        driveMotor.setInverted(inverted);
-        driveMotor.setNeutralMode(DrivetrainConfig.kDriveNeutralMode);
-        driveMotor.setSelectedSensorPosition(0);
+        return new SwerveModulePosition(inputs.drivePositionMeters, getAngle());
     }
 }
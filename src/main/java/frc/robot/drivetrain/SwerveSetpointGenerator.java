@@ -0,0 +1,156 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * Limits how far the module setpoints can move in one cycle. Given the previous setpoint and a desired
+ * one, every module's velocity vector is moved the same fraction s of the way from previous to desired,
+ * with s as large as possible while no module changes wheel speed faster than the drive acceleration
+ * limit or turns faster than the steer velocity limit. Using one s for every module keeps the output a
+ * blend of two rigid body motions, so the robot slows its approach to the command instead of scrubbing.
+ *
+ * <p>A module may reverse its wheel instead of turning more than 90 degrees, the same as
+ * CTREModuleState#optimize. Modules that are stopped rotate toward their next heading at the steer
+ * limit before being asked to drive.
+ *
+ * <p>Works in place on a {@link SwerveSetpoints} and does not allocate.
+ */
+public class SwerveSetpointGenerator {
+    private static final int kMaxIterations = 12;
+    private static final double kStoppedSpeed = 1e-6;
+
+    private final double maxDriveAcceleration;
+    private final double maxSteerVelocity;
+
+    // Previous setpoint, signed speed along a continuous angle
+    private final double[] prevSpeeds;
+    private final double[] prevAnglesDegrees;
+
+    // Per call scratch, module velocity vectors (m/s)
+    private final double[] prevX, prevY, desiredX, desiredY;
+
+    /**
+     * @param moduleCount Number of modules
+     * @param maxDriveAcceleration Max change in wheel speed (m/s^2)
+     * @param maxSteerVelocity Max module rotation rate (deg/s)
+     */
+    public SwerveSetpointGenerator(int moduleCount, double maxDriveAcceleration, double maxSteerVelocity) {
+        this.maxDriveAcceleration = maxDriveAcceleration;
+        this.maxSteerVelocity = maxSteerVelocity;
+
+        prevSpeeds = new double[moduleCount];
+        prevAnglesDegrees = new double[moduleCount];
+        prevX = new double[moduleCount];
+        prevY = new double[moduleCount];
+        desiredX = new double[moduleCount];
+        desiredY = new double[moduleCount];
+    }
+
+    /**
+     * Seeds the previous setpoint, e.g. from measured module states while disabled so the first enabled
+     * cycle starts from what the modules are really doing.
+     */
+    public void reset(double[] speedsMetersPerSecond, double[] anglesDegrees) {
+        System.arraycopy(speedsMetersPerSecond, 0, prevSpeeds, 0, prevSpeeds.length);
+        System.arraycopy(anglesDegrees, 0, prevAnglesDegrees, 0, prevAnglesDegrees.length);
+    }
+
+    /**
+     * Replaces the desired setpoint with the nearest feasible one and remembers it for next cycle.
+     *
+     * @param setpoints Desired (already desaturated) setpoint in, limited setpoint out
+     * @param dt Time since the previous setpoint (s)
+     * @return Fraction of the way from the previous to the desired setpoint that was taken
+     */
+    public double apply(SwerveSetpoints setpoints, double dt) {
+        int count = prevSpeeds.length;
+        double maxSpeedChange = maxDriveAcceleration * dt;
+        double maxAngleChange = maxSteerVelocity * dt;
+
+        for (int i = 0; i < count; i++) {
+            double prevAngle = Math.toRadians(prevAnglesDegrees[i]);
+            prevX[i] = prevSpeeds[i] * Math.cos(prevAngle);
+            prevY[i] = prevSpeeds[i] * Math.sin(prevAngle);
+
+            double desiredAngle = Math.toRadians(setpoints.anglesDegrees[i]);
+            desiredX[i] = setpoints.speedsMetersPerSecond[i] * Math.cos(desiredAngle);
+            desiredY[i] = setpoints.speedsMetersPerSecond[i] * Math.sin(desiredAngle);
+        }
+
+        // s = 0 is the previous setpoint and always feasible, bisect for the furthest feasible step
+        double s = 1.0;
+        if (!isFeasible(1.0, maxSpeedChange, maxAngleChange)) {
+            double lo = 0.0;
+            double hi = 1.0;
+            for (int iteration = 0; iteration < kMaxIterations; iteration++) {
+                double mid = 0.5 * (lo + hi);
+                if (isFeasible(mid, maxSpeedChange, maxAngleChange)) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            s = lo;
+        }
+
+        for (int i = 0; i < count; i++) {
+            double x = prevX[i] + s * (desiredX[i] - prevX[i]);
+            double y = prevY[i] + s * (desiredY[i] - prevY[i]);
+            double speed = Math.sqrt(x * x + y * y);
+
+            double angle;
+            if (speed > kStoppedSpeed) {
+                angle = Math.toDegrees(Math.atan2(y, x));
+            } else {
+                // Stopped, turn toward where the module is headed next at the steer limit
+                speed = 0.0;
+                angle = (setpoints.speedsMetersPerSecond[i] != 0.0) ? setpoints.anglesDegrees[i] : prevAnglesDegrees[i];
+            }
+
+            double delta = headingError(angle, prevAnglesDegrees[i]);
+            if (Math.abs(MathUtil.inputModulus(angle - prevAnglesDegrees[i], -180.0, 180.0)) > 90.0) {
+                speed = -speed;
+            }
+            if (speed == 0.0) {
+                delta = MathUtil.clamp(delta, -maxAngleChange, maxAngleChange);
+            }
+
+            prevSpeeds[i] = speed;
+            prevAnglesDegrees[i] += delta;
+            setpoints.speedsMetersPerSecond[i] = speed;
+            setpoints.anglesDegrees[i] = prevAnglesDegrees[i];
+        }
+        return s;
+    }
+
+    private boolean isFeasible(double s, double maxSpeedChange, double maxAngleChange) {
+        for (int i = 0; i < prevSpeeds.length; i++) {
+            double x = prevX[i] + s * (desiredX[i] - prevX[i]);
+            double y = prevY[i] + s * (desiredY[i] - prevY[i]);
+            double speed = Math.sqrt(x * x + y * y);
+
+            if (speed > kStoppedSpeed) {
+                double angle = Math.toDegrees(Math.atan2(y, x));
+                if (Math.abs(headingError(angle, prevAnglesDegrees[i])) > maxAngleChange) {
+                    return false;
+                }
+                // Signed along the previous heading, so reversing through zero counts the whole change
+                if (Math.abs(MathUtil.inputModulus(angle - prevAnglesDegrees[i], -180.0, 180.0)) > 90.0) {
+                    speed = -speed;
+                }
+            }
+            if (Math.abs(speed - prevSpeeds[i]) > maxSpeedChange) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Smallest rotation (deg) taking the module from current to a heading where the wheel is parallel to
+     * target, either direction. Always within [-90, 90].
+     */
+    private static double headingError(double targetDegrees, double currentDegrees) {
+        return MathUtil.inputModulus(targetDegrees - currentDegrees, -90.0, 90.0);
+    }
+}
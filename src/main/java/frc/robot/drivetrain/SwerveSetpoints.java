@@ -0,0 +1,136 @@
+package frc.robot.drivetrain;
+
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Preallocated per-module speed and angle buffers used by the drive path. Everything is computed in
+ * place so a steady state drive cycle does not allocate any ChassisSpeeds / SwerveModuleState objects.
+ */
+public class SwerveSetpoints {
+    public final double[] speedsMetersPerSecond;
+    public final double[] anglesDegrees;
+    /** Rate of change of each module angle, see {@link #updateDerivatives(double, double, double)}. */
+    public final double[] steerVelocitiesDegreesPerSecond;
+    /** Rate of change of each module's signed speed, see {@link #updateDerivatives(double, double, double)}. */
+    public final double[] accelerationsMetersPerSecondSquared;
+
+    private final double[] moduleX;
+    private final double[] moduleY;
+
+    // Module velocity vectors from the previous updateDerivatives call
+    private final double[] prevVelocityX;
+    private final double[] prevVelocityY;
+    private boolean hasPrevious = false;
+
+    /**
+     * @param moduleX Module locations relative to the robot center, forward positive (m)
+     * @param moduleY Module locations relative to the robot center, left positive (m)
+     */
+    public SwerveSetpoints(double[] moduleX, double[] moduleY) {
+        if (moduleX.length != moduleY.length) {
+            throw new IllegalArgumentException("Module location arrays must be the same length");
+        }
+        this.moduleX = moduleX.clone();
+        this.moduleY = moduleY.clone();
+        speedsMetersPerSecond = new double[moduleX.length];
+        anglesDegrees = new double[moduleX.length];
+        steerVelocitiesDegreesPerSecond = new double[moduleX.length];
+        accelerationsMetersPerSecondSquared = new double[moduleX.length];
+        prevVelocityX = new double[moduleX.length];
+        prevVelocityY = new double[moduleX.length];
+    }
+
+    public int size() {
+        return speedsMetersPerSecond.length;
+    }
+
+    /**
+     * Robot relative inverse kinematics, same math as SwerveDriveKinematics#toSwerveModuleStates. A
+     * module with no commanded speed keeps its previous angle.
+     */
+    public void fromChassisSpeeds(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond,
+                                  double centerOfRotationX, double centerOfRotationY) {
+        for (int i = 0; i < speedsMetersPerSecond.length; i++) {
+            double x = vxMetersPerSecond - omegaRadiansPerSecond * (moduleY[i] - centerOfRotationY);
+            double y = vyMetersPerSecond + omegaRadiansPerSecond * (moduleX[i] - centerOfRotationX);
+            double speed = Math.sqrt(x * x + y * y);
+
+            speedsMetersPerSecond[i] = speed;
+            if (speed > 1e-9) {
+                anglesDegrees[i] = Math.toDegrees(Math.atan2(y, x));
+            }
+        }
+    }
+
+    public void fromStates(SwerveModuleState[] states) {
+        for (int i = 0; i < speedsMetersPerSecond.length; i++) {
+            speedsMetersPerSecond[i] = states[i].speedMetersPerSecond;
+            anglesDegrees[i] = states[i].angle.getDegrees();
+        }
+    }
+
+    /** In place version of SwerveDriveKinematics#desaturateWheelSpeeds. */
+    public void desaturate(double maxSpeedMetersPerSecond) {
+        double realMaxSpeed = 0;
+        for (double speed : speedsMetersPerSecond) {
+            realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+        }
+        if (realMaxSpeed > maxSpeedMetersPerSecond) {
+            double scale = maxSpeedMetersPerSecond / realMaxSpeed;
+            for (int i = 0; i < speedsMetersPerSecond.length; i++) {
+                speedsMetersPerSecond[i] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Second order kinematics. Differentiates each module's velocity vector against the previous call,
+     * which is the chassis acceleration (including the rotating robot frame) mapped through the same
+     * kinematics, and splits it into a steer rate and a drive acceleration:
+     *
+     * <pre>
+     * steer rate   = (v x a) / |v|^2
+     * acceleration = (v . a) / speed
+     * </pre>
+     *
+     * Modules slower than minSpeed get zero for both, the angle is meaningless there.
+     *
+     * @param dt Time since the previous call (s)
+     * @param minSpeed Speed below which a module is treated as stopped (m/s)
+     * @param maxSteerVelocity Clamp on the steer rate (deg/s)
+     */
+    public void updateDerivatives(double dt, double minSpeed, double maxSteerVelocity) {
+        for (int i = 0; i < speedsMetersPerSecond.length; i++) {
+            double speed = speedsMetersPerSecond[i];
+            double angle = Math.toRadians(anglesDegrees[i]);
+            double x = speed * Math.cos(angle);
+            double y = speed * Math.sin(angle);
+
+            if (hasPrevious && dt > 0 && Math.abs(speed) > minSpeed) {
+                double ax = (x - prevVelocityX[i]) / dt;
+                double ay = (y - prevVelocityY[i]) / dt;
+                double steerRate = Math.toDegrees((x * ay - y * ax) / (speed * speed));
+                steerVelocitiesDegreesPerSecond[i] = Math.max(-maxSteerVelocity, Math.min(maxSteerVelocity, steerRate));
+                accelerationsMetersPerSecondSquared[i] = (x * ax + y * ay) / speed;
+            } else {
+                steerVelocitiesDegreesPerSecond[i] = 0.0;
+                accelerationsMetersPerSecondSquared[i] = 0.0;
+            }
+
+            prevVelocityX[i] = x;
+            prevVelocityY[i] = y;
+        }
+        hasPrevious = true;
+    }
+
+    /**
+     * Zeroes the derivatives and forgets the previous velocities, e.g. while disabled.
+     */
+    public void resetDerivatives() {
+        for (int i = 0; i < speedsMetersPerSecond.length; i++) {
+            steerVelocitiesDegreesPerSecond[i] = 0.0;
+            accelerationsMetersPerSecondSquared[i] = 0.0;
+        }
+        hasPrevious = false;
+    }
+}
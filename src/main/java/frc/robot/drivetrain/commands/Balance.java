@@ -0,0 +1,66 @@
+package frc.robot.drivetrain.commands;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.drivetrain.ChargeStationBalancer;
+import frc.robot.drivetrain.ChargeStationBalancer.State;
+import frc.robot.drivetrain.Drivetrain;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Drives onto the charge station and balances it, see {@link ChargeStationBalancer}. Every scheduler tick
+ * this steps the balancer through the pitch samples taken since the last tick, applies its latest speed,
+ * and locks the wheels in an X once the station is level. Runs until interrupted.
+ *
+ * <p>The balancer is shared rather than owned, so build it once and hand the same one to every Balance.
+ * Only one can run at a time anyway, they all require the drivetrain.
+ */
+public class Balance extends CommandBase {
+    private final Drivetrain drivetrain;
+    private final ChargeStationBalancer balancer;
+    private final boolean forward;
+
+    /**
+     * @param balancer Balancer for this drivetrain, shared between Balance commands
+     * @param forward Drive onto the station forwards, otherwise backwards
+     */
+    public Balance(Drivetrain drivetrain, ChargeStationBalancer balancer, boolean forward) {
+        this.drivetrain = drivetrain;
+        this.balancer = balancer;
+        this.forward = forward;
+
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        balancer.start(forward);
+    }
+
+    @Override
+    public void execute() {
+        balancer.periodic();
+        State state = balancer.getState();
+        if (state == State.LEVEL) {
+            drivetrain.lockWheels();
+        } else {
+            drivetrain.drive(balancer.getSpeed(), 0.0, 0.0, false, false, 0.0, 0.0);
+        }
+
+        Logger logger = Logger.getInstance();
+        logger.recordOutput("Balance/State", state.name());
+        logger.recordOutput("Balance/PitchDegrees", balancer.getPitchDegrees());
+        logger.recordOutput("Balance/PitchRate", balancer.getPitchRate());
+        logger.recordOutput("Balance/Speed", balancer.getSpeed());
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        balancer.stop();
+        drivetrain.stopSwerve();
+    }
+
+    /** Level and locked, for callers that want to know without waiting on the command. */
+    public boolean isLevel() {
+        return balancer.getState() == State.LEVEL;
+    }
+}
@@ -0,0 +1,423 @@
+package frc.robot.navigation;
+
+/**
+ * Any-angle (Lazy Theta*) planner over a {@link NavGrid}. It searches like A* on the 8-connected grid, but
+ * a cell's parent may be any earlier cell in line of sight, so the result is a short list of corner
+ * waypoints instead of a staircase of cells, ready to hand to trajectory generation. Line of sight is only
+ * checked when a cell is expanded rather than for every neighbor, which is where the time goes.
+ *
+ * <p>All search state is primitive arrays indexed by cell, allocated once per grid. The open set is a
+ * binary heap of cell indices keyed by f with a cell to heap position map for decrease-key, and a search
+ * counter stamps which cells were touched so nothing is cleared between searches. One planner must only be
+ * used from one thread.
+ */
+public final class GridPlanner {
+    private static final int[] kNeighborX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] kNeighborY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final NavGrid grid;
+
+    // Per cell search state, valid when stamp[cell] == search
+    private final double[] g;
+    private final double[] f;
+    private final int[] parent;
+    private final int[] stamp;
+    private final int[] closedStamp;
+    private final int[] heapPosition;
+    private int search = 0;
+
+    // Open set
+    private final int[] heap;
+    private int heapSize = 0;
+
+    // Result, start and goal included
+    private final double[] waypointX;
+    private final double[] waypointY;
+    private int waypointCount = 0;
+    private final int[] pathScratch;
+    private int expandedCount = 0;
+
+    public GridPlanner(NavGrid grid) {
+        this.grid = grid;
+        int cells = grid.getCellCount();
+        g = new double[cells];
+        f = new double[cells];
+        parent = new int[cells];
+        stamp = new int[cells];
+        closedStamp = new int[cells];
+        heapPosition = new int[cells];
+        heap = new int[cells];
+        // Every cell on the path, plus the requested start and goal
+        waypointX = new double[cells + 2];
+        waypointY = new double[cells + 2];
+        pathScratch = new int[cells];
+    }
+
+    public NavGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Plans from start to goal (field coordinates, m). The returned waypoints begin and end at the requested
+     * points, and every leg between them stays in free cells, except when the start or goal was inside an
+     * inflated obstacle. Such an endpoint is moved to the nearest free cell within
+     * {@link NavigationConfig#kMaxSnapDistanceMeters}, and the first (last) leg runs straight between it and
+     * that cell's center, so only that leg crosses blocked cells, for at most the snap distance.
+     *
+     * @return false if no path exists, the waypoints are then left empty
+     */
+    public boolean plan(double startX, double startY, double goalX, double goalY) {
+        waypointCount = 0;
+        expandedCount = 0;
+        int start = nearestFreeCell(grid.toCellX(startX), grid.toCellY(startY));
+        int goal = nearestFreeCell(grid.toCellX(goalX), grid.toCellY(goalY));
+        if (start < 0 || goal < 0) {
+            return false;
+        }
+
+        search++;
+        heapSize = 0;
+        int goalCellX = goal % grid.width;
+        int goalCellY = goal / grid.width;
+
+        touch(start);
+        g[start] = 0.0;
+        parent[start] = start;
+        push(start, heuristic(start, goalCellX, goalCellY));
+
+        while (heapSize > 0) {
+            int cell = pop();
+            int cellX = cell % grid.width;
+            int cellY = cell / grid.width;
+            closedStamp[cell] = search;
+            expandedCount++;
+            if (!lineOfSight(parent[cell], cell)) {
+                repairParent(cell, cellX, cellY);
+            }
+            if (cell == goal) {
+                buildWaypoints(start, goal, startX, startY, goalX, goalY);
+                return true;
+            }
+
+            for (int k = 0; k < kNeighborX.length; k++) {
+                int nx = cellX + kNeighborX[k];
+                int ny = cellY + kNeighborY[k];
+                if (!isStepFree(cellX, cellY, k)) {
+                    continue;
+                }
+                int neighbor = ny * grid.width + nx;
+                if (closedStamp[neighbor] == search) {
+                    continue;
+                }
+                touch(neighbor);
+
+                // Optimistically hang the neighbor off this cell's parent, checked when it's expanded
+                int candidateParent = parent[cell];
+                double candidate = g[candidateParent] + distance(candidateParent, neighbor);
+                if (candidate < g[neighbor]) {
+                    g[neighbor] = candidate;
+                    parent[neighbor] = candidateParent;
+                    double key = candidate + heuristic(neighbor, goalCellX, goalCellY);
+                    if (heapPosition[neighbor] >= 0) {
+                        decreaseKey(neighbor, key);
+                    } else {
+                        push(neighbor, key);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public int getWaypointCount() {
+        return waypointCount;
+    }
+
+    public double getWaypointX(int i) {
+        return waypointX[i];
+    }
+
+    public double getWaypointY(int i) {
+        return waypointY[i];
+    }
+
+    /** Cells closed by the last search, for profiling. */
+    public int getExpandedCount() {
+        return expandedCount;
+    }
+
+    /** The assumed parent can't see the cell, take the best already closed grid neighbor instead. */
+    private void repairParent(int cell, int cellX, int cellY) {
+        g[cell] = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < kNeighborX.length; k++) {
+            if (!isStepFree(cellX, cellY, k)) {
+                continue;
+            }
+            int neighbor = (cellY + kNeighborY[k]) * grid.width + cellX + kNeighborX[k];
+            if (closedStamp[neighbor] != search) {
+                continue;
+            }
+            double candidate = g[neighbor] + distance(neighbor, cell);
+            if (candidate < g[cell]) {
+                g[cell] = candidate;
+                parent[cell] = neighbor;
+            }
+        }
+    }
+
+    // Step k is free if the target is, and a diagonal doesn't cut a blocked corner
+    private boolean isStepFree(int cellX, int cellY, int k) {
+        if (grid.isBlocked(cellX + kNeighborX[k], cellY + kNeighborY[k])) {
+            return false;
+        }
+        return k < 4 || !(grid.isBlocked(cellX + kNeighborX[k], cellY) || grid.isBlocked(cellX, cellY + kNeighborY[k]));
+    }
+
+    /**
+     * The search checked line of sight between cell centers. The requested endpoints replace the start and
+     * goal cell centers only where the leg from the actual point is still clear, otherwise the cell center
+     * stays as an extra waypoint: in the same free cell as the point, or the free cell it was snapped to.
+     */
+    private void buildWaypoints(int start, int goal, double startX, double startY, double goalX, double goalY) {
+        boolean startSnapped = grid.isBlocked(grid.toCellX(startX), grid.toCellY(startY));
+        boolean goalSnapped = grid.isBlocked(grid.toCellX(goalX), grid.toCellY(goalY));
+        // Goal cell back to the start cell, both included
+        int length = 0;
+        for (int cell = goal; cell != start; cell = parent[cell]) {
+            pathScratch[length++] = cell;
+        }
+        pathScratch[length++] = start;
+
+        boolean keepStartCell;
+        boolean keepGoalCell;
+        if (length == 1) {
+            // One cell, convex, so only a snapped endpoint needs its center
+            keepStartCell = startSnapped || goalSnapped;
+            keepGoalCell = false;
+        } else {
+            // Goal end first, the start end's check needs to know which point follows it
+            int beforeGoal = pathScratch[1];
+            keepGoalCell = goalSnapped || !segmentClear(cellX(beforeGoal), cellY(beforeGoal), goalX, goalY);
+            int afterStart = pathScratch[length - 2];
+            boolean nextIsGoal = length == 2 && !keepGoalCell;
+            keepStartCell = startSnapped || !segmentClear(startX, startY,
+                    nextIsGoal ? goalX : cellX(afterStart), nextIsGoal ? goalY : cellY(afterStart));
+        }
+
+        waypointX[0] = startX;
+        waypointY[0] = startY;
+        waypointCount = 1;
+        for (int i = length - 1; i >= 0; i--) {
+            if ((i == length - 1 && !keepStartCell) || (i == 0 && length > 1 && !keepGoalCell)) {
+                continue;
+            }
+            waypointX[waypointCount] = cellX(pathScratch[i]);
+            waypointY[waypointCount] = cellY(pathScratch[i]);
+            waypointCount++;
+        }
+        waypointX[waypointCount] = goalX;
+        waypointY[waypointCount] = goalY;
+        waypointCount++;
+    }
+
+    private double cellX(int cell) {
+        return grid.getCellCenterX(cell % grid.width);
+    }
+
+    private double cellY(int cell) {
+        return grid.getCellCenterY(cell / grid.width);
+    }
+
+    /**
+     * Line of sight between two arbitrary points, walking every cell the segment passes through like
+     * {@link #lineOfSight}: through a cell corner both side cells must be free.
+     */
+    private boolean segmentClear(double x0, double y0, double x1, double y1) {
+        int x = grid.toCellX(x0);
+        int y = grid.toCellY(y0);
+        int endX = grid.toCellX(x1);
+        int endY = grid.toCellY(y1);
+        if (grid.isBlocked(x, y)) {
+            return false;
+        }
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        int stepX = (dx > 0) ? 1 : -1;
+        int stepY = (dy > 0) ? 1 : -1;
+        // Segment fraction at the next vertical / horizontal grid line, and between lines
+        double nextX = (dx == 0) ? Double.POSITIVE_INFINITY : (grid.cellSize * (x + (dx > 0 ? 1 : 0)) - x0) / dx;
+        double nextY = (dy == 0) ? Double.POSITIVE_INFINITY : (grid.cellSize * (y + (dy > 0 ? 1 : 0)) - y0) / dy;
+        double deltaX = (dx == 0) ? Double.POSITIVE_INFINITY : grid.cellSize / Math.abs(dx);
+        double deltaY = (dy == 0) ? Double.POSITIVE_INFINITY : grid.cellSize / Math.abs(dy);
+
+        while ((x != endX || y != endY) && Math.min(nextX, nextY) <= 1.0) {
+            if (nextX == nextY) {
+                if (grid.isBlocked(x + stepX, y) || grid.isBlocked(x, y + stepY)) {
+                    return false;
+                }
+                x += stepX;
+                y += stepY;
+                nextX += deltaX;
+                nextY += deltaY;
+            } else if (nextX < nextY) {
+                x += stepX;
+                nextX += deltaX;
+            } else {
+                y += stepY;
+                nextY += deltaY;
+            }
+            if (grid.isBlocked(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks every cell the segment between the two cell centers passes through; a segment through a cell
+     * corner must have both side cells free.
+     */
+    private boolean lineOfSight(int from, int to) {
+        int x = from % grid.width;
+        int y = from / grid.width;
+        int dx = to % grid.width - x;
+        int dy = to / grid.width - y;
+        int stepX = Integer.signum(dx);
+        int stepY = Integer.signum(dy);
+        int nx = Math.abs(dx);
+        int ny = Math.abs(dy);
+
+        int ix = 0, iy = 0;
+        while (ix < nx || iy < ny) {
+            long decision = (long) (1 + 2 * ix) * ny - (long) (1 + 2 * iy) * nx;
+            if (decision == 0) {
+                if (grid.isBlocked(x + stepX, y) || grid.isBlocked(x, y + stepY)) {
+                    return false;
+                }
+                x += stepX;
+                y += stepY;
+                ix++;
+                iy++;
+            } else if (decision < 0) {
+                x += stepX;
+                ix++;
+            } else {
+                y += stepY;
+                iy++;
+            }
+            if (grid.isBlocked(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nearestFreeCell(int cellX, int cellY) {
+        if (!grid.isBlocked(cellX, cellY)) {
+            return cellY * grid.width + cellX;
+        }
+        int maxRadius = (int) Math.ceil(NavigationConfig.kMaxSnapDistanceMeters / grid.cellSize);
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        // Square rings outward; a ring's nearest cell may still lose to the next ring's, so check one more
+        for (int radius = 1; radius <= maxRadius && (best < 0 || radius * radius <= bestDistance); radius++) {
+            for (int oy = -radius; oy <= radius; oy++) {
+                int step = (oy == -radius || oy == radius) ? 1 : 2 * radius;
+                for (int ox = -radius; ox <= radius; ox += step) {
+                    int x = cellX + ox;
+                    int y = cellY + oy;
+                    int distanceSquared = ox * ox + oy * oy;
+                    if (distanceSquared < bestDistance && !grid.isBlocked(x, y)) {
+                        best = y * grid.width + x;
+                        bestDistance = distanceSquared;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private double heuristic(int cell, int goalCellX, int goalCellY) {
+        return Math.hypot(cell % grid.width - goalCellX, cell / grid.width - goalCellY);
+    }
+
+    private double distance(int a, int b) {
+        return Math.hypot(a % grid.width - b % grid.width, a / grid.width - b / grid.width);
+    }
+
+    private void touch(int cell) {
+        if (stamp[cell] != search) {
+            stamp[cell] = search;
+            g[cell] = Double.POSITIVE_INFINITY;
+            heapPosition[cell] = -1;
+        }
+    }
+
+    // Binary min heap on f
+
+    private void push(int cell, double key) {
+        f[cell] = key;
+        heap[heapSize] = cell;
+        heapPosition[cell] = heapSize;
+        heapSize++;
+        siftUp(heapSize - 1);
+    }
+
+    private void decreaseKey(int cell, double key) {
+        f[cell] = key;
+        siftUp(heapPosition[cell]);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapPosition[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPosition[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        double key = f[cell];
+        while (i > 0) {
+            int up = (i - 1) >> 1;
+            int upCell = heap[up];
+            if (f[upCell] <= key) {
+                break;
+            }
+            heap[i] = upCell;
+            heapPosition[upCell] = i;
+            i = up;
+        }
+        heap[i] = cell;
+        heapPosition[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        double key = f[cell];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && f[heap[child + 1]] < f[heap[child]]) {
+                child++;
+            }
+            int childCell = heap[child];
+            if (f[childCell] >= key) {
+                break;
+            }
+            heap[i] = childCell;
+            heapPosition[childCell] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        heapPosition[cell] = i;
+    }
+}
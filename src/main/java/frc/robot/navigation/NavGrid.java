@@ -0,0 +1,161 @@
+package frc.robot.navigation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Occupancy grid of the field in field coordinates (m, origin at the blue alliance wall). Obstacles are
+ * axis aligned rectangles; each one, and the field perimeter, is inflated by a radius when the grid is
+ * built, so planners can treat the robot as a point at its center. Cells are indexed x major:
+ * {@code index = cellY * width + cellX}.
+ *
+ * <p>The map file is JSON:
+ * <pre>
+ * { "fieldLength": 16.54, "fieldWidth": 8.02, "cellSize": 0.1,
+ *   "obstacles": [ { "name": "...", "minX": 0, "minY": 0, "maxX": 1, "maxY": 1 }, ... ] }
+ * </pre>
+ */
+public final class NavGrid {
+    public final double fieldLength;
+    public final double fieldWidth;
+    public final double cellSize;
+    public final int width;
+    public final int height;
+    private final boolean[] blocked;
+
+    /**
+     * @param obstacles Rectangles as {minX, minY, maxX, maxY} (m)
+     * @param inflationRadius Distance (m) every obstacle and the field wall grow by
+     */
+    public NavGrid(double fieldLength, double fieldWidth, double cellSize, double[][] obstacles,
+                   double inflationRadius) {
+        this.fieldLength = fieldLength;
+        this.fieldWidth = fieldWidth;
+        this.cellSize = cellSize;
+        width = (int) Math.ceil(fieldLength / cellSize);
+        height = (int) Math.ceil(fieldWidth / cellSize);
+        blocked = new boolean[width * height];
+
+        for (int cy = 0; cy < height; cy++) {
+            for (int cx = 0; cx < width; cx++) {
+                double x = getCellCenterX(cx);
+                double y = getCellCenterY(cy);
+                if (x < inflationRadius || x > fieldLength - inflationRadius
+                        || y < inflationRadius || y > fieldWidth - inflationRadius) {
+                    blocked[cy * width + cx] = true;
+                }
+            }
+        }
+        for (double[] obstacle : obstacles) {
+            inflate(obstacle[0], obstacle[1], obstacle[2], obstacle[3], inflationRadius);
+        }
+    }
+
+    /**
+     * Reads a map file, see the class comment for the format.
+     *
+     * @throws IOException If the file can't be read or parsed, or a field is missing, not a number or out of
+     *         range
+     */
+    public static NavGrid load(File file, double inflationRadius) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file);
+        if (root == null || !root.isObject()) {
+            throw new IOException(file + ": expected a JSON object");
+        }
+        double fieldLength = readPositive(root, "fieldLength", file);
+        double fieldWidth = readPositive(root, "fieldWidth", file);
+        double cellSize = readPositive(root, "cellSize", file);
+
+        JsonNode obstacleNodes = root.path("obstacles");
+        if (!obstacleNodes.isMissingNode() && !obstacleNodes.isArray()) {
+            throw new IOException(file + ": obstacles must be an array");
+        }
+        double[][] obstacles = new double[obstacleNodes.size()][];
+        for (int i = 0; i < obstacles.length; i++) {
+            JsonNode obstacle = obstacleNodes.get(i);
+            String where = "obstacles[" + i + "]";
+            obstacles[i] = new double[] {
+                    readNumber(obstacle, "minX", where, file),
+                    readNumber(obstacle, "minY", where, file),
+                    readNumber(obstacle, "maxX", where, file),
+                    readNumber(obstacle, "maxY", where, file)
+            };
+            if (obstacles[i][2] < obstacles[i][0] || obstacles[i][3] < obstacles[i][1]) {
+                throw new IOException(file + ": " + where + " has max below min");
+            }
+        }
+        return new NavGrid(fieldLength, fieldWidth, cellSize, obstacles, inflationRadius);
+    }
+
+    private static double readNumber(JsonNode node, String key, String where, File file) throws IOException {
+        JsonNode value = node.get(key);
+        if (value == null || !value.isNumber()) {
+            throw new IOException(file + ": " + where + "." + key + " is missing or not a number");
+        }
+        return value.asDouble();
+    }
+
+    private static double readPositive(JsonNode node, String key, File file) throws IOException {
+        double value = readNumber(node, key, "root", file);
+        if (!(value > 0.0)) {
+            throw new IOException(file + ": " + key + " must be positive, got " + value);
+        }
+        return value;
+    }
+
+    // Blocks every cell whose center is within radius of the rectangle
+    private void inflate(double minX, double minY, double maxX, double maxY, double radius) {
+        int cellMinX = Math.max(0, toCellX(minX - radius));
+        int cellMaxX = Math.min(width - 1, toCellX(maxX + radius));
+        int cellMinY = Math.max(0, toCellY(minY - radius));
+        int cellMaxY = Math.min(height - 1, toCellY(maxY + radius));
+        double radiusSquared = radius * radius;
+
+        for (int cy = cellMinY; cy <= cellMaxY; cy++) {
+            double y = getCellCenterY(cy);
+            double dy = Math.max(0.0, Math.max(minY - y, y - maxY));
+            for (int cx = cellMinX; cx <= cellMaxX; cx++) {
+                double x = getCellCenterX(cx);
+                double dx = Math.max(0.0, Math.max(minX - x, x - maxX));
+                if (dx * dx + dy * dy <= radiusSquared) {
+                    blocked[cy * width + cx] = true;
+                }
+            }
+        }
+    }
+
+    public int getCellCount() {
+        return blocked.length;
+    }
+
+    /** Cells outside the grid count as blocked. */
+    public boolean isBlocked(int cellX, int cellY) {
+        if (cellX < 0 || cellY < 0 || cellX >= width || cellY >= height) {
+            return true;
+        }
+        return blocked[cellY * width + cellX];
+    }
+
+    public boolean isBlocked(int index) {
+        return blocked[index];
+    }
+
+    public int toCellX(double x) {
+        return (int) Math.floor(x / cellSize);
+    }
+
+    public int toCellY(double y) {
+        return (int) Math.floor(y / cellSize);
+    }
+
+    public double getCellCenterX(int cellX) {
+        return (cellX + 0.5) * cellSize;
+    }
+
+    public double getCellCenterY(int cellY) {
+        return (cellY + 0.5) * cellSize;
+    }
+}
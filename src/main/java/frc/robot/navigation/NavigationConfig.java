@@ -0,0 +1,18 @@
+package frc.robot.navigation;
+
+import frc.robot.drivetrain.DrivetrainConfig;
+
+public class NavigationConfig {
+    // Field map, relative to the deploy directory
+    public static final String kGridFile = "navigation/navgrid.json";
+
+    // Obstacles and walls grow by this much so the robot's center can be planned as a point. The robot can
+    // be at any heading along a path, so the inflation is the circumscribed radius of the frame
+    public static final double kClearanceMeters = 0.05;
+    public static final double kInflationRadius =
+            Math.hypot(DrivetrainConfig.kDrivetrainActualLength, DrivetrainConfig.kDrivetrainWidth) / 2.0
+                    + kClearanceMeters;
+
+    // Start / goal inside an inflated obstacle are moved to the nearest free cell within this distance
+    public static final double kMaxSnapDistanceMeters = 1.0;
+}
@@ -0,0 +1,245 @@
+package frc.robot.vision;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.CrevoLib.util.logging.BinaryLogger;
+import frc.robot.CrevoLib.util.logging.LogProducer;
+import frc.robot.drivetrain.Drivetrain;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Fuses AprilTag poses into the drivetrain's pose estimator. Every camera is polled by its own
+ * {@link VisionCameraWorker} thread, which solves the pose and offers the candidate to a bounded lock free
+ * {@link VisionMeasurementQueue}. {@link #periodic()} drains the queue once per cycle, logs what it drained
+ * as AdvantageKit inputs, checks each candidate against the ambiguity, distance, latency and field bounds
+ * limits and hands the ones that pass to {@link Drivetrain#addVisionMeasurement} with their capture
+ * timestamp and distance scaled std devs. The main loop never waits on a camera or a pose solve.
+ *
+ * <p>Because the drained candidates are inputs, replay re-runs the rejection and fusion from the log.
+ *
+ * <p>Every candidate, accepted or not, goes to the {@link BinaryLogger} as
+ * [camera, x, y, theta, ambiguity, tags, distance, result] stamped with its capture time.
+ */
+public class Vision extends SubsystemBase {
+    public static final int kAccepted = 0;
+    public static final int kRejectedAmbiguity = 1;
+    public static final int kRejectedDistance = 2;
+    public static final int kRejectedLatency = 3;
+    public static final int kRejectedOutOfField = 4;
+    private static final String[] kResultNames = {"Accepted", "Ambiguity", "Distance", "Latency", "OutOfField"};
+
+    /** Candidates drained this cycle, one array element per candidate. */
+    public static class VisionInputs implements LoggableInputs {
+        public double[] cameras = new double[0];
+        public double[] timestamps = new double[0];
+        public double[] poseX = new double[0];
+        public double[] poseY = new double[0];
+        public double[] poseTheta = new double[0];
+        public double[] ambiguity = new double[0];
+        public double[] tagCount = new double[0];
+        public double[] averageTagDistance = new double[0];
+
+        /** Reallocates the arrays only when the candidate count changes. */
+        void resize(int count) {
+            if (cameras.length == count) {
+                return;
+            }
+            cameras = new double[count];
+            timestamps = new double[count];
+            poseX = new double[count];
+            poseY = new double[count];
+            poseTheta = new double[count];
+            ambiguity = new double[count];
+            tagCount = new double[count];
+            averageTagDistance = new double[count];
+        }
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("Cameras", cameras);
+            table.put("Timestamps", timestamps);
+            table.put("PoseX", poseX);
+            table.put("PoseY", poseY);
+            table.put("PoseTheta", poseTheta);
+            table.put("Ambiguity", ambiguity);
+            table.put("TagCount", tagCount);
+            table.put("AverageTagDistance", averageTagDistance);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            cameras = table.getDoubleArray("Cameras", cameras);
+            timestamps = table.getDoubleArray("Timestamps", timestamps);
+            poseX = table.getDoubleArray("PoseX", poseX);
+            poseY = table.getDoubleArray("PoseY", poseY);
+            poseTheta = table.getDoubleArray("PoseTheta", poseTheta);
+            ambiguity = table.getDoubleArray("Ambiguity", ambiguity);
+            tagCount = table.getDoubleArray("TagCount", tagCount);
+            averageTagDistance = table.getDoubleArray("AverageTagDistance", averageTagDistance);
+        }
+    }
+
+    private final Drivetrain drivetrain;
+    private final VisionMeasurementQueue queue = new VisionMeasurementQueue(VisionConfig.kQueueCapacity);
+    private final VisionCameraWorker[] workers;
+    private final VisionInputs inputs = new VisionInputs();
+
+    // Drain scratch, sized to the queue so a full drain never allocates
+    private final int[] drainedCameras = new int[VisionConfig.kQueueCapacity];
+    private final double[] drainedValues = new double[VisionConfig.kQueueCapacity * VisionMeasurementQueue.kWidth];
+    private int drainedCount = 0;
+    private final VisionMeasurementQueue.Sink drainSink = this::collect;
+
+    private final long[] resultCounts = new long[kResultNames.length];
+    private final String[] resultKeys = new String[kResultNames.length];
+    private final String[] latencyKeys, framesReceivedKeys, framesDroppedKeys;
+    private final double[] latencyMs;
+    private final double[] poseLog = new double[3];
+
+    private final LogProducer binaryLog;
+    private final int measurementChannel;
+    private final double[] measurementRecord = new double[8];
+
+    /**
+     * @param cameras One IO per {@link VisionConfig#kCameraNames} entry, or none in replay where the
+     *                candidates come from the log
+     */
+    public Vision(Drivetrain drivetrain, VisionIO... cameras) {
+        this.drivetrain = drivetrain;
+
+        int cameraCount = VisionConfig.kCameraNames.length;
+        if (cameras.length != 0 && cameras.length != cameraCount) {
+            throw new IllegalArgumentException("Expected an IO for each of the " + cameraCount + " cameras");
+        }
+        latencyKeys = new String[cameraCount];
+        framesReceivedKeys = new String[cameraCount];
+        framesDroppedKeys = new String[cameraCount];
+        latencyMs = new double[cameraCount];
+        for (int i = 0; i < cameraCount; i++) {
+            String prefix = "Vision/" + VisionConfig.kCameraNames[i] + "/";
+            latencyKeys[i] = prefix + "LatencyMs";
+            framesReceivedKeys[i] = prefix + "FramesReceived";
+            framesDroppedKeys[i] = prefix + "FramesDropped";
+        }
+        for (int i = 0; i < kResultNames.length; i++) {
+            resultKeys[i] = "Vision/" + kResultNames[i];
+        }
+
+        binaryLog = BinaryLogger.getInstance().createProducer("Vision", 256, measurementRecord.length);
+        measurementChannel = BinaryLogger.getInstance().registerChannel("Vision/Measurement", measurementRecord.length);
+
+        workers = new VisionCameraWorker[cameras.length];
+        for (int i = 0; i < cameras.length; i++) {
+            workers[i] = new VisionCameraWorker(i, VisionConfig.kCameraNames[i], cameras[i], queue);
+            workers[i].start();
+        }
+    }
+
+    @Override
+    public void periodic() {
+        drainedCount = 0;
+        queue.drain(drainSink);
+        inputs.resize(drainedCount);
+        for (int j = 0; j < drainedCount; j++) {
+            int offset = j * VisionMeasurementQueue.kWidth;
+            inputs.cameras[j] = drainedCameras[j];
+            inputs.timestamps[j] = drainedValues[offset + VisionMeasurementQueue.kTimestamp];
+            inputs.poseX[j] = drainedValues[offset + VisionMeasurementQueue.kX];
+            inputs.poseY[j] = drainedValues[offset + VisionMeasurementQueue.kY];
+            inputs.poseTheta[j] = drainedValues[offset + VisionMeasurementQueue.kTheta];
+            inputs.ambiguity[j] = drainedValues[offset + VisionMeasurementQueue.kAmbiguity];
+            inputs.tagCount[j] = drainedValues[offset + VisionMeasurementQueue.kTagCount];
+            inputs.averageTagDistance[j] = drainedValues[offset + VisionMeasurementQueue.kDistance];
+        }
+        Logger logger = Logger.getInstance();
+        logger.processInputs("Vision", inputs);
+
+        double now = Timer.getFPGATimestamp();
+        for (int j = 0; j < inputs.cameras.length; j++) {
+            fuse(j, now);
+        }
+
+        for (int i = 0; i < resultCounts.length; i++) {
+            logger.recordOutput(resultKeys[i], resultCounts[i]);
+        }
+        for (int i = 0; i < latencyMs.length; i++) {
+            logger.recordOutput(latencyKeys[i], latencyMs[i]);
+        }
+        for (int i = 0; i < workers.length; i++) {
+            logger.recordOutput(framesReceivedKeys[i], workers[i].getFramesReceived());
+            logger.recordOutput(framesDroppedKeys[i], workers[i].getFramesDropped());
+            workers[i].outputTelemetry();
+        }
+        logger.recordOutput("Vision/LastAcceptedPose", poseLog);
+    }
+
+    public long getResultCount(int result) {
+        return resultCounts[result];
+    }
+
+    private void collect(int camera, double[] values, int offset) {
+        drainedCameras[drainedCount] = camera;
+        System.arraycopy(values, offset, drainedValues, drainedCount * VisionMeasurementQueue.kWidth,
+                VisionMeasurementQueue.kWidth);
+        drainedCount++;
+    }
+
+    private void fuse(int j, double now) {
+        int camera = (int) inputs.cameras[j];
+        double timestamp = inputs.timestamps[j];
+        double distance = inputs.averageTagDistance[j];
+        int tagCount = (int) inputs.tagCount[j];
+        if (camera >= 0 && camera < latencyMs.length) {
+            // Capture to fusion, covers the coprocessor, NT, the worker and the wait for this cycle
+            latencyMs[camera] = (now - timestamp) * 1e3;
+        }
+
+        int result = check(inputs.poseX[j], inputs.poseY[j], inputs.ambiguity[j], tagCount, distance,
+                now - timestamp);
+        if (result == kAccepted) {
+            // Far tags and single tag solves get less weight
+            double scale = distance * distance / Math.max(1, tagCount);
+            double xyStdDev = VisionConfig.kXYStdDevCoefficient * scale;
+            double thetaStdDev = VisionConfig.kThetaStdDevCoefficient * scale;
+            Pose2d pose = new Pose2d(inputs.poseX[j], inputs.poseY[j], new Rotation2d(inputs.poseTheta[j]));
+            drivetrain.addVisionMeasurement(pose, timestamp, VecBuilder.fill(xyStdDev, xyStdDev, thetaStdDev));
+            poseLog[0] = inputs.poseX[j];
+            poseLog[1] = inputs.poseY[j];
+            poseLog[2] = inputs.poseTheta[j];
+        }
+        resultCounts[result]++;
+
+        measurementRecord[0] = camera;
+        measurementRecord[1] = inputs.poseX[j];
+        measurementRecord[2] = inputs.poseY[j];
+        measurementRecord[3] = inputs.poseTheta[j];
+        measurementRecord[4] = inputs.ambiguity[j];
+        measurementRecord[5] = tagCount;
+        measurementRecord[6] = distance;
+        measurementRecord[7] = result;
+        binaryLog.log(measurementChannel, (long) (timestamp * 1e6), measurementRecord);
+    }
+
+    private static int check(double x, double y, double ambiguity, int tagCount, double distance, double age) {
+        if (tagCount == 1 && ambiguity > VisionConfig.kMaxAmbiguity) {
+            return kRejectedAmbiguity;
+        }
+        if (distance > VisionConfig.kMaxTagDistanceMeters) {
+            return kRejectedDistance;
+        }
+        if (age > VisionConfig.kMaxLatencySeconds) {
+            return kRejectedLatency;
+        }
+        double margin = VisionConfig.kFieldMarginMeters;
+        if (x < -margin || x > VisionConfig.kFieldLayout.getFieldLength() + margin
+                || y < -margin || y > VisionConfig.kFieldLayout.getFieldWidth() + margin) {
+            return kRejectedOutOfField;
+        }
+        return kAccepted;
+    }
+}
@@ -0,0 +1,85 @@
+package frc.robot.vision;
+
+import frc.robot.CrevoLib.util.loopController.Loop;
+import frc.robot.CrevoLib.util.loopController.Looper;
+import frc.robot.vision.VisionIO.VisionIOInputs;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls one camera on its own Looper, so a slow pose solve on one camera can't delay another or the
+ * main loop. Each new frame's pose candidate is offered to the shared {@link VisionMeasurementQueue}.
+ */
+class VisionCameraWorker implements Loop {
+    private final int cameraIndex;
+    private final VisionIO io;
+    private final VisionMeasurementQueue queue;
+    private final Looper looper;
+
+    // Only touched by the worker Looper
+    private final VisionIOInputs inputs = new VisionIOInputs();
+    private final double[] record = new double[VisionMeasurementQueue.kWidth];
+    private double lastTimestamp = Double.NaN;
+
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+
+    VisionCameraWorker(int cameraIndex, String name, VisionIO io, VisionMeasurementQueue queue) {
+        this.cameraIndex = cameraIndex;
+        this.io = io;
+        this.queue = queue;
+        looper = new Looper("Vision/" + name, VisionConfig.kPollPeriod);
+        looper.register(this);
+    }
+
+    void start() {
+        looper.start();
+    }
+
+    /** New frames with a pose candidate. */
+    long getFramesReceived() {
+        return framesReceived.get();
+    }
+
+    /**
+     * Frames lost because the queue was full. Frames the camera produced between two polls are never seen
+     * by the worker and aren't counted here or in {@link #getFramesReceived()}.
+     */
+    long getFramesDropped() {
+        return framesDropped.get();
+    }
+
+    /** Publishes the worker's timing histograms. Call from the main robot thread. */
+    void outputTelemetry() {
+        looper.outputTelemetry();
+    }
+
+    @Override
+    public void onStart() {
+    }
+
+    @Override
+    public void onLoop() {
+        io.updateInputs(inputs);
+        if (!inputs.hasPose || inputs.timestampSeconds == lastTimestamp) {
+            return;
+        }
+        lastTimestamp = inputs.timestampSeconds;
+        framesReceived.incrementAndGet();
+
+        record[VisionMeasurementQueue.kTimestamp] = inputs.timestampSeconds;
+        record[VisionMeasurementQueue.kX] = inputs.poseX;
+        record[VisionMeasurementQueue.kY] = inputs.poseY;
+        record[VisionMeasurementQueue.kTheta] = inputs.poseThetaRadians;
+        record[VisionMeasurementQueue.kAmbiguity] = inputs.ambiguity;
+        record[VisionMeasurementQueue.kTagCount] = inputs.tagCount;
+        record[VisionMeasurementQueue.kDistance] = inputs.averageTagDistanceMeters;
+        if (!queue.offer(cameraIndex, record)) {
+            framesDropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onStop() {
+    }
+}
@@ -0,0 +1,58 @@
+package frc.robot.vision;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.io.IOException;
+import java.util.List;
+
+public class VisionConfig {
+    // Cameras, indexed by camera id. Names match the PhotonVision camera names.
+    public static final String[] kCameraNames = {"orangePi", "rear"};
+    public static final Transform3d[] kRobotToCameras = {
+            new Transform3d(
+                    new Translation3d(Units.inchesToMeters(12.0), 0.0, Units.inchesToMeters(20.0)),
+                    new Rotation3d(0.0, 0.0, 0.0)),
+            new Transform3d(
+                    new Translation3d(Units.inchesToMeters(-12.0), 0.0, Units.inchesToMeters(20.0)),
+                    new Rotation3d(0.0, 0.0, Math.PI))
+    };
+
+    // Ingestion
+    public static final double kPollPeriod = 0.01; // 100hz per camera, faster than frames arrive
+    public static final int kQueueCapacity = 32; // Power of two, several cycles of every camera
+
+    // Outlier rejection
+    public static final double kMaxAmbiguity = 0.2; // Checked on one tag solves, which is every VisionIOPhoton pose
+    public static final double kMaxTagDistanceMeters = 4.0;
+    public static final double kMaxLatencySeconds = 0.5; // Older than this and the pose history may not reach back
+    public static final double kFieldMarginMeters = 0.5;
+
+    // Measurement std devs, scaled by average tag distance squared over tag count
+    public static final double kXYStdDevCoefficient = 0.02; // m per m^2
+    public static final double kThetaStdDevCoefficient = 0.05; // rad per m^2
+
+    // Simulated camera
+    public static final double kSimDiagonalFovDegrees = 75.0;
+    public static final int kSimResolutionWidth = 960;
+    public static final int kSimResolutionHeight = 720;
+    public static final double kSimMaxRangeMeters = 6.0;
+    public static final double kSimMinTargetArea = 10.0;
+
+    public static final AprilTagFieldLayout kFieldLayout = loadFieldLayout();
+
+    private static AprilTagFieldLayout loadFieldLayout() {
+        try {
+            return AprilTagFieldLayout.loadFromResource(AprilTagFields.k2023ChargedUp.m_resourceFile);
+        } catch (IOException e) {
+            DriverStation.reportError("Failed to load AprilTag field layout: " + e.getMessage(), e.getStackTrace());
+            // No tags, every measurement is rejected
+            return new AprilTagFieldLayout(List.of(), 16.54, 8.02);
+        }
+    }
+}
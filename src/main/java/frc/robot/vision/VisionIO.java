@@ -0,0 +1,23 @@
+package frc.robot.vision;
+
+/**
+ * Hardware abstraction for one AprilTag camera. Implementations turn the camera's latest frame into a
+ * robot pose candidate; filtering and fusion happen in {@link Vision}.
+ */
+public interface VisionIO {
+    class VisionIOInputs {
+        /** FPGA time the frame was captured (s), latency already removed. */
+        public double timestampSeconds = 0.0;
+        public boolean hasPose = false;
+        public double poseX = 0.0;
+        public double poseY = 0.0;
+        public double poseThetaRadians = 0.0;
+        /** Lowest pose ambiguity among the tags used, 0 to 1. */
+        public double ambiguity = 0.0;
+        /** Tags the pose was solved from, not every tag in the frame. */
+        public int tagCount = 0;
+        public double averageTagDistanceMeters = 0.0;
+    }
+
+    default void updateInputs(VisionIOInputs inputs) {}
+}
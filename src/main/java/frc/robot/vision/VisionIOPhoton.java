@@ -0,0 +1,62 @@
+package frc.robot.vision;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import java.util.Optional;
+
+/**
+ * PhotonVision camera. Works against a coprocessor or a {@link VisionSim} publishing under the same
+ * camera name.
+ *
+ * <p>Poses are solved from the single least ambiguous tag in the frame, so every candidate is reported as
+ * a one tag solve with that tag's ambiguity and distance, whatever else the camera saw.
+ */
+public class VisionIOPhoton implements VisionIO {
+    private final PhotonCamera camera;
+    private final PhotonPoseEstimator poseEstimator;
+
+    public VisionIOPhoton(String cameraName, Transform3d robotToCamera, AprilTagFieldLayout fieldLayout) {
+        camera = new PhotonCamera(cameraName);
+        poseEstimator = new PhotonPoseEstimator(fieldLayout, PoseStrategy.LOWEST_AMBIGUITY, camera, robotToCamera);
+    }
+
+    @Override
+    public void updateInputs(VisionIOInputs inputs) {
+        Optional<EstimatedRobotPose> estimate = poseEstimator.update();
+        if (estimate.isEmpty()) {
+            inputs.hasPose = false;
+            return;
+        }
+
+        EstimatedRobotPose robotPose = estimate.get();
+        Pose2d pose = robotPose.estimatedPose.toPose2d();
+        // targetsUsed holds every tag in the frame, find the one LOWEST_AMBIGUITY solved from
+        PhotonTrackedTarget solved = null;
+        for (PhotonTrackedTarget target : robotPose.targetsUsed) {
+            double ambiguity = target.getPoseAmbiguity();
+            if (ambiguity >= 0.0 && (solved == null || ambiguity < solved.getPoseAmbiguity())) {
+                solved = target;
+            }
+        }
+        if (solved == null) {
+            inputs.hasPose = false;
+            return;
+        }
+
+        inputs.timestampSeconds = robotPose.timestampSeconds;
+        inputs.hasPose = true;
+        inputs.poseX = pose.getX();
+        inputs.poseY = pose.getY();
+        inputs.poseThetaRadians = pose.getRotation().getRadians();
+        inputs.ambiguity = solved.getPoseAmbiguity();
+        inputs.tagCount = 1;
+        inputs.averageTagDistanceMeters = solved.getBestCameraToTarget().getTranslation().getNorm();
+    }
+}
@@ -0,0 +1,100 @@
+package frc.robot.vision;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi producer / single consumer queue of pose candidates. Camera workers offer from their own
+ * threads and the main loop drains once per cycle. Slots are preallocated and handed between threads with
+ * a per slot sequence number, so neither side locks or allocates; a full queue rejects the offer and the
+ * worker counts a dropped frame.
+ */
+class VisionMeasurementQueue {
+    static final int kTimestamp = 0;
+    static final int kX = 1;
+    static final int kY = 2;
+    static final int kTheta = 3;
+    static final int kAmbiguity = 4;
+    static final int kTagCount = 5;
+    static final int kDistance = 6;
+    static final int kWidth = 7;
+
+    interface Sink {
+        void accept(int camera, double[] values, int offset);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] cameras;
+    private final double[] values;
+    // Slot i is free for the producer claiming position p when sequence == p, readable when p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    // Consumer only
+    private long tail = 0;
+
+    VisionMeasurementQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Vision queue capacity must be a power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        cameras = new int[capacity];
+        values = new double[capacity * kWidth];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @param record {@link #kWidth} values laid out by the k* indices, copied before returning
+     * @return false if the queue was full
+     */
+    boolean offer(int camera, double[] record) {
+        long position;
+        int slot;
+        while (true) {
+            position = head.get();
+            slot = (int) (position & mask);
+            long available = sequences.get(slot) - position;
+            if (available == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                // The consumer hasn't freed this slot from the previous lap
+                return false;
+            }
+            // Another producer claimed this position, retry with the new head
+        }
+
+        cameras[slot] = camera;
+        System.arraycopy(record, 0, values, slot * kWidth, kWidth);
+        sequences.lazySet(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Hands every published record to the sink, oldest first. Consumer thread only.
+     *
+     * @return Records drained
+     */
+    int drain(Sink sink) {
+        int count = 0;
+        while (true) {
+            int slot = (int) (tail & mask);
+            if (sequences.get(slot) != tail + 1) {
+                return count;
+            }
+            sink.accept(cameras[slot], values, slot * kWidth);
+            sequences.lazySet(slot, tail + capacity);
+            tail++;
+            count++;
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+}
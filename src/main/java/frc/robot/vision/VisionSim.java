@@ -0,0 +1,42 @@
+package frc.robot.vision;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import org.photonvision.SimVisionSystem;
+
+/**
+ * Simulated PhotonVision cameras. Renders the field's AprilTags from a ground truth robot pose and
+ * publishes each frame under the camera's name, so a {@link VisionIOPhoton} reads it like a real
+ * coprocessor.
+ */
+public class VisionSim {
+    private final SimVisionSystem[] visionSystems;
+
+    /**
+     * @param cameraNames PhotonVision camera names
+     * @param robotToCameras Camera mounting, indexed like the names
+     */
+    public VisionSim(String[] cameraNames, Transform3d[] robotToCameras, AprilTagFieldLayout fieldLayout) {
+        visionSystems = new SimVisionSystem[cameraNames.length];
+        for (int i = 0; i < cameraNames.length; i++) {
+            visionSystems[i] = new SimVisionSystem(
+                    cameraNames[i],
+                    VisionConfig.kSimDiagonalFovDegrees,
+                    robotToCameras[i].inverse(),
+                    VisionConfig.kSimMaxRangeMeters,
+                    VisionConfig.kSimResolutionWidth,
+                    VisionConfig.kSimResolutionHeight,
+                    VisionConfig.kSimMinTargetArea
+            );
+            visionSystems[i].addVisionTargets(fieldLayout);
+        }
+    }
+
+    /** Renders one frame per camera. Call from simulationPeriodic with the physics model's pose. */
+    public void update(Pose2d robotPose) {
+        for (SimVisionSystem visionSystem : visionSystems) {
+            visionSystem.processFrame(robotPose);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package frc.robot.CrevoLib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Holds a field relative translate-while-rotating command for each loop, the way the drivetrain does, and
+ * integrates the arc the robot actually drives to measure how far its direction of travel drifts.
+ */
+class ChassisSpeedsDiscretizerTest {
+    private static final double kDt = 0.02;
+    private static final double kSpeed = 2.0;
+
+    /**
+     * Drives field relative +x at kSpeed while spinning at omega for the given time, and returns the
+     * direction of the net displacement (rad), zero being no drift.
+     */
+    private static double travelDirection(double omega, double seconds, boolean discretize) {
+        double[] speeds = new double[3];
+        double x = 0.0;
+        double y = 0.0;
+        double heading = 0.0;
+
+        for (int i = 0; i < Math.round(seconds / kDt); i++) {
+            double cos = Math.cos(heading);
+            double sin = Math.sin(heading);
+            double vx = kSpeed * cos;
+            double vy = -kSpeed * sin;
+            if (discretize) {
+                ChassisSpeedsDiscretizer.discretize(vx, vy, omega, kDt, speeds);
+            } else {
+                speeds[0] = vx;
+                speeds[1] = vy;
+                speeds[2] = omega;
+            }
+
+            // Constant robot relative speeds for a whole loop trace an arc, the pose exponential of the twist
+            double dx = speeds[0] * kDt;
+            double dy = speeds[1] * kDt;
+            double dtheta = speeds[2] * kDt;
+            double s;
+            double c;
+            // Series below 1e-4, where 1 - cos loses most of its precision
+            if (Math.abs(dtheta) < 1e-4) {
+                s = 1.0 - dtheta * dtheta / 6.0;
+                c = 0.5 * dtheta - dtheta * dtheta * dtheta / 24.0;
+            } else {
+                s = Math.sin(dtheta) / dtheta;
+                c = (1.0 - Math.cos(dtheta)) / dtheta;
+            }
+            double tx = dx * s - dy * c;
+            double ty = dx * c + dy * s;
+
+            x += tx * cos - ty * sin;
+            y += tx * sin + ty * cos;
+            heading += dtheta;
+        }
+        return Math.atan2(y, x);
+    }
+
+    @Test
+    void undiscretizedCommandDriftsTowardRotation() {
+        double omega = Math.PI;
+        double drift = travelDirection(omega, 2.0, false);
+
+        // Each arc leaves the robot rotated half a loop's rotation off the chord it was meant to follow
+        assertEquals(omega * kDt / 2.0, drift, 0.1 * omega * kDt / 2.0);
+    }
+
+    @Test
+    void discretizedCommandHoldsHeading() {
+        for (double omega : new double[] {-2 * Math.PI, -1.0, 1e-7, 0.5, Math.PI, 3 * Math.PI}) {
+            double drift = travelDirection(omega, 2.0, true);
+            double undiscretized = travelDirection(omega, 2.0, false);
+
+            assertTrue(Math.abs(drift) < 1e-9, "Drifted " + drift + " rad at omega " + omega);
+            assertTrue(Math.abs(drift) <= Math.abs(undiscretized),
+                    "Discretized " + drift + " vs " + undiscretized + " rad at omega " + omega);
+        }
+    }
+
+    @Test
+    void noRotationIsUnchanged() {
+        double[] out = new double[3];
+        ChassisSpeedsDiscretizer.discretize(1.5, -0.5, 0.0, kDt, out);
+        assertEquals(1.5, out[0], 1e-12);
+        assertEquals(-0.5, out[1], 1e-12);
+        assertEquals(0.0, out[2], 1e-12);
+    }
+}
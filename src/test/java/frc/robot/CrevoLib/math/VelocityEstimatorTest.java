@@ -0,0 +1,132 @@
+package frc.robot.CrevoLib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Replays synthetic 100hz encoder traces with position noise and loop timing jitter through each
+ * estimator and bounds the resulting noise and lag.
+ */
+class VelocityEstimatorTest {
+    private static final double kPeriod = 0.01;
+    private static final double kPositionNoise = 0.002;
+    private static final double kTimingJitter = 0.0005;
+    private static final double kVelocity = 2.0;
+    private static final double kStepTime = 1.0;
+    private static final double kDuration = 4.0;
+    private static final long kSeed = 971;
+
+    private static VelocityEstimator[] estimators() {
+        return new VelocityEstimator[] {
+            new FiniteDifferenceVelocityEstimator(),
+            new LinearRegressionVelocityEstimator(5),
+            new AlphaBetaVelocityEstimator(0.5, 0.1),
+            new KalmanVelocityEstimator(1, kPositionNoise),
+        };
+    }
+
+    /** Velocity is zero until kStepTime, then kVelocity. Position is sampled at the jittered time. */
+    private static double truePosition(double time) {
+        return time < kStepTime ? 0 : kVelocity * (time - kStepTime);
+    }
+
+    private static class Result {
+        /** RMS velocity error once settled at constant speed. */
+        double rmsError;
+        /** Time after the step for the estimate to first reach 90% of the new speed. */
+        double riseTime = Double.POSITIVE_INFINITY;
+    }
+
+    private static Result replay(VelocityEstimator estimator, long seed) {
+        Random random = new Random(seed);
+        Result result = new Result();
+        estimator.reset(0, 0);
+
+        double squaredError = 0;
+        int settledSamples = 0;
+        for (int i = 1; i * kPeriod <= kDuration; i++) {
+            double time = i * kPeriod + random.nextGaussian() * kTimingJitter;
+            double position = truePosition(time) + random.nextGaussian() * kPositionNoise;
+            double velocity = estimator.update(position, time);
+
+            assertTrue(Double.isFinite(velocity), "Non finite velocity at t=" + time);
+            if (time >= kStepTime && velocity >= 0.9 * kVelocity && Double.isInfinite(result.riseTime)) {
+                result.riseTime = time - kStepTime;
+            }
+            if (time >= kStepTime + 1.0) {
+                double error = velocity - kVelocity;
+                squaredError += error * error;
+                settledSamples++;
+            }
+        }
+        result.rmsError = Math.sqrt(squaredError / settledSamples);
+        return result;
+    }
+
+    @Test
+    void filteredEstimatorsAreQuieterThanFiniteDifference() {
+        // Finite difference, regression, alpha-beta, Kalman (m/s RMS)
+        double[] maxNoise = {0.45, 0.1, 0.05, 0.1};
+        VelocityEstimator[] estimators = estimators();
+        double finiteDifferenceNoise = replay(estimators[0], kSeed).rmsError;
+
+        // Two noisy samples over one period
+        double expected = Math.sqrt(2) * kPositionNoise / kPeriod;
+        assertEquals(expected, finiteDifferenceNoise, 0.5 * expected);
+
+        for (int i = 0; i < estimators.length; i++) {
+            double noise = replay(estimators[i], kSeed).rmsError;
+            String name = estimators[i].getClass().getSimpleName();
+            assertTrue(noise <= maxNoise[i], name + " noise " + noise);
+            if (i > 0) {
+                assertTrue(noise < 0.5 * finiteDifferenceNoise, name + " noise " + noise
+                        + " vs finite difference " + finiteDifferenceNoise);
+            }
+        }
+    }
+
+    @Test
+    void estimatorsTrackAStepWithinBoundedLag() {
+        // Finite difference, regression, alpha-beta, Kalman (s)
+        double[] maxRiseTimes = {0.03, 0.06, 0.15, 0.06};
+        VelocityEstimator[] estimators = estimators();
+
+        for (int i = 0; i < estimators.length; i++) {
+            double riseTime = replay(estimators[i], kSeed).riseTime;
+            assertTrue(riseTime <= maxRiseTimes[i], estimators[i].getClass().getSimpleName()
+                    + " took " + riseTime + "s to reach 90% of a step");
+        }
+    }
+
+    @Test
+    void estimatorsHaveNoSteadyStateBias() {
+        for (VelocityEstimator estimator : estimators()) {
+            double sum = 0;
+            int count = 0;
+            for (long seed = 0; seed < 20; seed++) {
+                replay(estimator, seed);
+                sum += estimator.getVelocity();
+                count++;
+            }
+            assertEquals(kVelocity, sum / count, 0.05 * kVelocity, estimator.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void repeatedTimestampKeepsPreviousEstimate() {
+        for (VelocityEstimator estimator : estimators()) {
+            estimator.reset(0, 0);
+            for (int i = 1; i <= 20; i++) {
+                estimator.update(kVelocity * i * kPeriod, i * kPeriod);
+            }
+            double before = estimator.getVelocity();
+            double after = estimator.update(1.0, 20 * kPeriod);
+
+            assertTrue(Double.isFinite(after), estimator.getClass().getSimpleName());
+            assertEquals(before, after, 0.0, estimator.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CrashTrackerTest {
+    private File log;
+
+    @BeforeEach
+    void setup() throws IOException {
+        log = File.createTempFile("crash_tracking", ".txt");
+        CrashTracker.setLogPath(log.getPath());
+    }
+
+    @AfterEach
+    void shutdown() {
+        CrashTracker.flush();
+        CrashTracker.setLogPath(CrashTracker.kDefaultLogPath);
+        log.delete();
+        new File(log.getPath() + ".1").delete();
+    }
+
+    @Test
+    void crashIsWrittenEvenWhenTheQueueIsFull() throws IOException {
+        long droppedBefore = CrashTracker.getDroppedMarkerCount();
+        // Outrun the writer thread so routine markers start dropping
+        while (CrashTracker.getDroppedMarkerCount() == droppedBefore) {
+            for (int i = 0; i < CrashTracker.kQueueCapacity * 4; i++) {
+                CrashTracker.logTeleopInit();
+            }
+        }
+
+        CrashTracker.logThrowableCrash(new IllegalStateException("queue full crash"));
+
+        // On disk before logThrowableCrash returned, without waiting on the writer
+        String contents = new String(Files.readAllBytes(log.toPath()));
+        assertTrue(contents.contains("queue full crash"), "Crash entry missing from the log");
+    }
+
+    @Test
+    void crashIsWrittenAfterQueuedMarkers() throws IOException {
+        CrashTracker.flush();
+        CrashTracker.logAutoInit();
+        CrashTracker.logThrowableCrash(new IllegalStateException("ordered crash"));
+
+        List<String> lines = Files.readAllLines(log.toPath());
+        int auto = -1;
+        int crash = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).contains("auto init")) {
+                auto = i;
+            } else if (lines.get(i).contains("ordered crash")) {
+                crash = i;
+            }
+        }
+        assertTrue(auto >= 0 && crash > auto, "Expected the auto marker before the crash");
+    }
+}
@@ -0,0 +1,145 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoopSchedulerTest {
+    private final LoopScheduler scheduler = LoopScheduler.getInstance();
+    private final CountingLoop encoder = new CountingLoop();
+    private final CountingLoop fast = new CountingLoop();
+    private final CountingLoop slow = new CountingLoop();
+
+    private static class CountingLoop implements Loop {
+        final AtomicInteger loops = new AtomicInteger();
+
+        @Override
+        public void onStart() {
+        }
+
+        @Override
+        public void onLoop() {
+            loops.incrementAndGet();
+        }
+
+        @Override
+        public void onStop() {
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @AfterEach
+    void shutdown() {
+        // The scheduler is process wide
+        scheduler.unregister(encoder);
+        scheduler.unregister(fast);
+        scheduler.unregister(slow);
+    }
+
+    @Test
+    void basePeriodIsGcdOfRegisteredPeriods() {
+        scheduler.register(encoder, 0.01);
+        assertEquals(0.01, scheduler.getBasePeriod(), 1e-9);
+
+        scheduler.register(fast, 0.005);
+        assertEquals(0.005, scheduler.getBasePeriod(), 1e-9);
+
+        scheduler.register(slow, 0.015);
+        assertEquals(0.005, scheduler.getBasePeriod(), 1e-9);
+
+        scheduler.unregister(fast);
+        assertEquals(0.005, scheduler.getBasePeriod(), 1e-9);
+
+        scheduler.unregister(slow);
+        assertEquals(0.01, scheduler.getBasePeriod(), 1e-9);
+    }
+
+    @Test
+    void basePeriodIsClampedToMinimum() {
+        scheduler.register(encoder, 0.01);
+        scheduler.register(slow, 0.0103);
+        assertEquals(LoopScheduler.kMinBasePeriod, scheduler.getBasePeriod(), 1e-9);
+    }
+
+    /**
+     * Waits, however long the machine takes, until loop has run at least count more times. Only fails if the
+     * scheduler thread has stopped altogether.
+     */
+    private static void awaitLoops(CountingLoop loop, int count) throws InterruptedException {
+        int target = loop.loops.get() + count;
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (loop.loops.get() < target) {
+            assertTrue(System.nanoTime() < deadline, "Scheduler stopped running loops");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Reads loop's count and then the other counts, retrying until the loop didn't run in between, so they
+     * are all from the same tick give or take the one in progress.
+     */
+    private static int[] readTogether(CountingLoop loop, CountingLoop other) {
+        while (true) {
+            int before = loop.loops.get();
+            int otherLoops = other.loops.get();
+            if (loop.loops.get() == before) {
+                return new int[] {before, otherLoops};
+            }
+        }
+    }
+
+    private long[] readWithWakeups(CountingLoop loop) {
+        while (true) {
+            int before = loop.loops.get();
+            long wakeups = scheduler.getWakeupCount();
+            if (loop.loops.get() == before) {
+                return new long[] {before, wakeups};
+            }
+        }
+    }
+
+    @Test
+    void singleLoopWakesOncePerPeriod() throws InterruptedException {
+        scheduler.register(encoder, 0.02);
+        assertEquals(0.02, scheduler.getBasePeriod(), 1e-9);
+        assertEquals(1, scheduler.getDivider(encoder));
+
+        awaitLoops(encoder, 1);
+        long[] start = readWithWakeups(encoder);
+        awaitLoops(encoder, 20);
+        long[] end = readWithWakeups(encoder);
+        long loops = end[0] - start[0];
+        long wakeups = end[1] - start[1];
+
+        // The wakeup count is bumped after the loops run, so the two can be one apart either way
+        assertTrue(Math.abs(wakeups - loops) <= 1, wakeups + " wakeups for " + loops + " loop runs");
+    }
+
+    @Test
+    void loopsRunAtTheirOwnRates() throws InterruptedException {
+        scheduler.register(fast, 0.005);
+        scheduler.register(slow, 0.015);
+        assertEquals(0.005, scheduler.getBasePeriod(), 1e-9);
+        assertEquals(1, scheduler.getDivider(fast));
+        assertEquals(3, scheduler.getDivider(slow));
+
+        awaitLoops(slow, 1);
+        int[] start = readTogether(fast, slow);
+        awaitLoops(slow, 30);
+        int[] end = readTogether(fast, slow);
+
+        // Fast runs every tick and slow every third one, however long the ticks actually took
+        int fastLoops = end[0] - start[0];
+        int slowLoops = end[1] - start[1];
+        assertTrue(Math.abs(fastLoops - 3 * slowLoops) <= 3, fastLoops + " fast runs for " + slowLoops + " slow");
+    }
+}
@@ -0,0 +1,267 @@
+package frc.robot.CrevoLib.util.loopController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LooperTest {
+    private static final double kPeriod = 0.005;
+    private static final long kTimeoutSeconds = 5;
+
+    private Looper looper;
+    private ExecutorService executor;
+
+    /** Counts callbacks and flags onLoop / onStop overlapping. */
+    private static class CountingLoop implements Loop {
+        final AtomicInteger starts = new AtomicInteger();
+        final AtomicInteger loops = new AtomicInteger();
+        final AtomicInteger stops = new AtomicInteger();
+        final AtomicBoolean inLoop = new AtomicBoolean();
+        final AtomicBoolean stoppedDuringLoop = new AtomicBoolean();
+
+        @Override
+        public void onStart() {
+            starts.incrementAndGet();
+        }
+
+        @Override
+        public void onLoop() {
+            inLoop.set(true);
+            loops.incrementAndGet();
+            loopBody();
+            inLoop.set(false);
+        }
+
+        void loopBody() {
+        }
+
+        @Override
+        public void onStop() {
+            if (inLoop.get()) {
+                stoppedDuringLoop.set(true);
+            }
+            stops.incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        looper = new Looper("Test", kPeriod);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void shutdown() {
+        looper.stop();
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(kTimeoutSeconds, TimeUnit.SECONDS), "Timed out waiting on the loop thread");
+    }
+
+    private static void waitFor(AtomicInteger counter, int atLeast) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(kTimeoutSeconds);
+        while (counter.get() < atLeast) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting on the loop thread");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void registerDoesNotWaitForSlowLoop() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountingLoop slow = new CountingLoop() {
+            @Override
+            void loopBody() {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        looper.register(slow);
+        looper.start();
+        await(entered);
+
+        // Mid iteration, registration from another thread completes without the loop thread
+        CountingLoop added = new CountingLoop();
+        Future<?> register = executor.submit(() -> looper.register(added));
+        register.get(kTimeoutSeconds, TimeUnit.SECONDS);
+        assertEquals(2, looper.getLoopCount());
+        assertTrue(looper.unregister(added));
+
+        release.countDown();
+    }
+
+    @Test
+    void loopCanRegisterAndUnregisterDuringIteration() throws Exception {
+        CountingLoop added = new CountingLoop();
+        CountingLoop selfRemoving = new CountingLoop() {
+            @Override
+            void loopBody() {
+                looper.register(added);
+                looper.unregister(this);
+            }
+        };
+        looper.register(selfRemoving);
+        looper.start();
+
+        waitFor(added.loops, 5);
+        assertEquals(1, selfRemoving.loops.get());
+        assertEquals(1, looper.getLoopCount());
+        // Registered while running, so it never saw onStart
+        assertEquals(0, added.starts.get());
+    }
+
+    @Test
+    void stopWaitsForIterationInProgress() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountingLoop slow = new CountingLoop() {
+            @Override
+            void loopBody() {
+                if (loops.get() == 1) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        looper.register(slow);
+        looper.start();
+        await(entered);
+
+        Future<?> stop = executor.submit(looper::stop);
+        Thread.sleep(50);
+        assertFalse(stop.isDone(), "stop() returned while onLoop was still running");
+        assertEquals(0, slow.stops.get());
+
+        release.countDown();
+        stop.get(kTimeoutSeconds, TimeUnit.SECONDS);
+        assertEquals(1, slow.stops.get());
+        assertFalse(slow.stoppedDuringLoop.get());
+        assertFalse(looper.isRunning());
+    }
+
+    @Test
+    void loopCanRegisterWhileAnotherThreadStops() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch stopStarted = new CountDownLatch(1);
+        CountingLoop added = new CountingLoop();
+        CountingLoop registering = new CountingLoop() {
+            @Override
+            void loopBody() {
+                if (loops.get() == 1) {
+                    entered.countDown();
+                    try {
+                        stopStarted.await();
+                        // Give stop() time to reach its wait on this iteration
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    looper.register(added);
+                }
+            }
+        };
+        looper.register(registering);
+        looper.start();
+        await(entered);
+
+        Future<?> stop = executor.submit(() -> {
+            stopStarted.countDown();
+            looper.stop();
+        });
+        stop.get(kTimeoutSeconds, TimeUnit.SECONDS);
+
+        assertEquals(2, looper.getLoopCount());
+        assertEquals(1, registering.stops.get());
+    }
+
+    @Test
+    void loopCanStopItsOwnLooper() throws Exception {
+        CountingLoop selfStopping = new CountingLoop() {
+            @Override
+            void loopBody() {
+                looper.stop();
+            }
+        };
+        looper.register(selfStopping);
+        looper.start();
+
+        waitFor(selfStopping.stops, 1);
+        assertFalse(looper.isRunning());
+        Thread.sleep(50);
+        assertEquals(1, selfStopping.loops.get());
+    }
+
+    @Test
+    void startStopCyclesPairCallbacks() throws Exception {
+        CountingLoop loop = new CountingLoop();
+        CountingLoop divided = new CountingLoop();
+        looper.register(loop);
+        looper.register(divided, 4);
+
+        int cycles = 50;
+        for (int i = 0; i < cycles; i++) {
+            looper.start();
+            looper.start();
+            Thread.sleep(i % 3 == 0 ? 0 : 10);
+            looper.stop();
+            looper.stop();
+
+            int loopsAtStop = loop.loops.get();
+            Thread.sleep(i % 10 == 0 ? 20 : 0);
+            assertEquals(loopsAtStop, loop.loops.get(), "onLoop ran after stop() returned");
+        }
+
+        assertEquals(cycles, loop.starts.get());
+        assertEquals(cycles, loop.stops.get());
+        assertEquals(cycles, divided.stops.get());
+        assertFalse(loop.stoppedDuringLoop.get());
+        assertTrue(loop.loops.get() > 0);
+        assertTrue(divided.loops.get() <= loop.loops.get());
+    }
+
+    @Test
+    void concurrentStartStopFromTwoThreads() throws Exception {
+        CountingLoop loop = new CountingLoop();
+        looper.register(loop);
+
+        Future<?> other = executor.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+                looper.start();
+                looper.stop();
+            }
+        });
+        for (int i = 0; i < 200; i++) {
+            looper.start();
+            looper.stop();
+        }
+        other.get(kTimeoutSeconds, TimeUnit.SECONDS);
+
+        assertFalse(looper.isRunning());
+        assertEquals(loop.starts.get(), loop.stops.get());
+        assertFalse(loop.stoppedDuringLoop.get());
+    }
+}
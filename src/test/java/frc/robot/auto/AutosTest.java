@@ -0,0 +1,184 @@
+package frc.robot.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.auto.Autos.AutoRoutine;
+import frc.robot.drivetrain.Drivetrain;
+import frc.robot.drivetrain.DrivetrainConfig;
+import frc.robot.drivetrain.GyroIOSim;
+import frc.robot.drivetrain.ModuleIOSim;
+import frc.robot.drivetrain.SwerveDriveSim;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.littletonrobotics.junction.networktables.LoggedDashboardChooser;
+
+class AutosTest {
+    private static final long kLoadTimeoutSeconds = 10;
+    private static final double kPositionTolerance = 0.01;
+    private static final double kHeadingTolerance = Math.toRadians(0.5);
+    // Ground truth against the path when following it on the physics model. The follower ends on time, so
+    // the final error includes whatever it still lags by.
+    private static final double kMaxFinalErrorMeters = 0.15;
+    private static final double kMaxFinalHeadingError = Math.toRadians(6.0);
+    private static final double kMaxRmsErrorMeters = 0.1;
+
+    private final File pathDirectory = new File(Filesystem.getDeployDirectory(), AutoConfig.kPathDirectory);
+    private Autos autos;
+    private final List<Drivetrain> drivetrains = new ArrayList<>();
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        assertTrue(HAL.initialize(500, 0));
+        // Only the loader runs, periodic never builds commands, so there's no drivetrain or sim
+        autos = new Autos(null, null, new LoggedDashboardChooser<Command>("Auto"), null);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(kLoadTimeoutSeconds);
+        while (!autos.isLoaded()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting on the auto loader");
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        CommandScheduler.getInstance().unregisterSubsystem(autos);
+        for (Drivetrain drivetrain : drivetrains) {
+            CommandScheduler.getInstance().unregisterSubsystem(drivetrain);
+        }
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        SimHooks.resumeTiming();
+    }
+
+    private static double headingError(double expected, double actual) {
+        return Math.abs(Math.IEEEremainder(actual - expected, 2.0 * Math.PI));
+    }
+
+    @Test
+    void loadsEveryPathInTheDeployDirectory() {
+        String[] files = pathDirectory.list((dir, name) -> name.endsWith(".path"));
+        assertTrue(files != null && files.length > 0, "No paths in " + pathDirectory);
+        Arrays.sort(files);
+
+        assertEquals(files.length, autos.getRoutines().size(), "Some paths failed to load");
+        for (int i = 0; i < files.length; i++) {
+            assertEquals(files[i], autos.getRoutines().get(i).name + ".path");
+        }
+    }
+
+    @Test
+    void everyTrajectorySamplesAndEndsAtItsLastWaypoint() throws IOException {
+        double[] sample = new double[SampledTrajectory.kSampleWidth];
+        ObjectMapper mapper = new ObjectMapper();
+
+        for (AutoRoutine routine : autos.getRoutines()) {
+            SampledTrajectory trajectory = routine.sampled;
+            String name = routine.name;
+            assertTrue(trajectory.length >= 2, name + " has " + trajectory.length + " samples");
+
+            // Past both ends too, the follower holds the end of the path while it settles
+            double duration = trajectory.getDurationSeconds();
+            for (double t = -1.0; t <= duration + 1.0; t += trajectory.dt / 3.0) {
+                trajectory.sample(t, sample);
+                for (double value : sample) {
+                    assertTrue(Double.isFinite(value), name + " sampled " + Arrays.toString(sample) + " at " + t);
+                }
+            }
+
+            JsonNode waypoints = mapper.readTree(new File(pathDirectory, name + ".path")).get("waypoints");
+            JsonNode first = waypoints.get(0);
+            JsonNode last = waypoints.get(waypoints.size() - 1);
+
+            trajectory.sample(0.0, sample);
+            assertEquals(first.get("anchorPoint").get("x").asDouble(), sample[0], kPositionTolerance, name);
+            assertEquals(first.get("anchorPoint").get("y").asDouble(), sample[1], kPositionTolerance, name);
+            assertEquals(0.0, headingError(Math.toRadians(first.get("holonomicAngle").asDouble()), sample[2]),
+                    kHeadingTolerance, name);
+
+            trajectory.sample(duration, sample);
+            assertEquals(last.get("anchorPoint").get("x").asDouble(), sample[0], kPositionTolerance, name);
+            assertEquals(last.get("anchorPoint").get("y").asDouble(), sample[1], kPositionTolerance, name);
+            assertEquals(0.0, headingError(Math.toRadians(last.get("holonomicAngle").asDouble()), sample[2]),
+                    kHeadingTolerance, name);
+            // Paths end at rest
+            assertEquals(0.0, Math.hypot(sample[3], sample[4]), 0.05, name);
+        }
+    }
+
+    @Test
+    void everyAutoFollowsItsPathInSimulation() {
+        // Step the FPGA clock with the physics model, and enable so the setpoint generator isn't held in reset
+        SimHooks.pauseTiming();
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+        double dt = DrivetrainConfig.kLoopPeriod;
+        double[] reference = new double[SampledTrajectory.kSampleWidth];
+        double[] truth = new double[3];
+
+        for (AutoRoutine routine : autos.getRoutines()) {
+            String name = routine.name;
+            SwerveDriveSim sim = new SwerveDriveSim();
+            Drivetrain drivetrain = new Drivetrain(
+                    new GyroIOSim(sim),
+                    new ModuleIOSim(sim, 0),
+                    new ModuleIOSim(sim, 1),
+                    new ModuleIOSim(sim, 2),
+                    new ModuleIOSim(sim, 3),
+                    false
+            );
+            drivetrains.add(drivetrain);
+
+            // Same as the chooser's command: the robot is placed at the start, then odometry is reset to it
+            Pose2d startPose = routine.getStartPose();
+            sim.resetPose(startPose);
+            drivetrain.periodic();
+            drivetrain.resetOdometryAuton(startPose);
+
+            FollowTrajectory follower = new FollowTrajectory(drivetrain, routine.sampled);
+            double startTime = Timer.getFPGATimestamp();
+            double squaredErrorSum = 0.0;
+            int samples = 0;
+            follower.initialize();
+            do {
+                drivetrain.periodic();
+                follower.execute();
+                sim.update(dt);
+                SimHooks.stepTiming(dt);
+
+                routine.sampled.sample(Timer.getFPGATimestamp() - startTime, reference);
+                sim.getPose(truth);
+                double error = Math.hypot(truth[0] - reference[0], truth[1] - reference[1]);
+                squaredErrorSum += error * error;
+                samples++;
+            } while (!follower.isFinished());
+            follower.end(false);
+
+            int last = routine.sampled.length - 1;
+            sim.getPose(truth);
+            double finalError = Math.hypot(truth[0] - routine.sampled.x[last], truth[1] - routine.sampled.y[last]);
+            double rmsError = Math.sqrt(squaredErrorSum / samples);
+            assertTrue(finalError < kMaxFinalErrorMeters, name + " ended " + finalError + " m from its path");
+            assertTrue(headingError(routine.sampled.heading[last], truth[2]) < kMaxFinalHeadingError,
+                    name + " ended facing " + Math.toDegrees(truth[2]) + " deg");
+            assertTrue(rmsError < kMaxRmsErrorMeters, name + " tracked with " + rmsError + " m RMS error");
+        }
+    }
+}
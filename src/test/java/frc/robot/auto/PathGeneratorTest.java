@@ -0,0 +1,52 @@
+package frc.robot.auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PathGeneratorTest {
+    private static final double kTolerance = 1e-9;
+
+    @Test
+    void rotationFollowsDistanceAlongThePath() {
+        // Legs of 1, 3 and 4 meters
+        List<Translation2d> waypoints = List.of(
+                new Translation2d(0, 0),
+                new Translation2d(1, 0),
+                new Translation2d(1, 3),
+                new Translation2d(5, 3));
+        Rotation2d[] rotations = PathGenerator.holonomicRotations(
+                waypoints, Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(80));
+
+        assertEquals(0.0, rotations[0].getDegrees(), kTolerance);
+        assertEquals(10.0, rotations[1].getDegrees(), kTolerance);
+        assertEquals(40.0, rotations[2].getDegrees(), kTolerance);
+        assertEquals(80.0, rotations[3].getDegrees(), kTolerance);
+    }
+
+    @Test
+    void rotationTurnsTheShortWay() {
+        List<Translation2d> waypoints = List.of(
+                new Translation2d(0, 0),
+                new Translation2d(1, 0),
+                new Translation2d(2, 0));
+        Rotation2d[] rotations = PathGenerator.holonomicRotations(
+                waypoints, Rotation2d.fromDegrees(170), Rotation2d.fromDegrees(-170));
+
+        assertEquals(180.0, Math.abs(rotations[1].getDegrees()), kTolerance);
+        assertEquals(-170.0, rotations[2].getDegrees(), kTolerance);
+    }
+
+    @Test
+    void zeroLengthPathEndsAtEndRotation() {
+        Translation2d point = new Translation2d(2, 2);
+        Rotation2d[] rotations = PathGenerator.holonomicRotations(
+                List.of(point, point), Rotation2d.fromDegrees(30), Rotation2d.fromDegrees(90));
+
+        assertEquals(30.0, rotations[0].getDegrees(), kTolerance);
+        assertEquals(90.0, rotations[1].getDegrees(), kTolerance);
+    }
+}
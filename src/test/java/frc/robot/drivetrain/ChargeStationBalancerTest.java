@@ -0,0 +1,116 @@
+package frc.robot.drivetrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.CrevoLib.util.loopController.LoopScheduler;
+import frc.robot.drivetrain.ChargeStationBalancer.State;
+import frc.robot.drivetrain.commands.Balance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs {@link Balance} against the simulated blue charge station from either side and checks that it
+ * levels in time and stays level once locked.
+ */
+class ChargeStationBalancerTest {
+    private static final double kStartOffsetMeters = 1.89; // From the station center, clear of the ramp
+    private static final double kTimeoutSeconds = 10.0;
+    private static final double kHoldSeconds = 3.0;
+    private static final double kLockToleranceDegrees = 5.0;
+
+    private SwerveDriveSim sim;
+    private Drivetrain drivetrain;
+    private ChargeStationBalancer balancer;
+
+    @BeforeEach
+    void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        // Step the FPGA clock with the sim, and enable so periodic doesn't hold the setpoint generator in reset
+        SimHooks.pauseTiming();
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+
+        sim = new SwerveDriveSim();
+        drivetrain = new Drivetrain(
+                new GyroIOSim(sim),
+                new ModuleIOSim(sim, 0),
+                new ModuleIOSim(sim, 1),
+                new ModuleIOSim(sim, 2),
+                new ModuleIOSim(sim, 3),
+                false
+        );
+        balancer = new ChargeStationBalancer(drivetrain);
+    }
+
+    @AfterEach
+    void shutdown() {
+        balancer.stop();
+        CommandScheduler.getInstance().unregisterSubsystem(drivetrain);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        SimHooks.resumeTiming();
+    }
+
+    /** One robot loop, sampling the pitch at the balancer's rate in between like the loop thread would. */
+    private void cycle(Balance balance) {
+        double dt = DrivetrainConfig.kLoopPeriod;
+        int samples = (int) Math.round(dt / DrivetrainConfig.kBalancePeriod);
+
+        drivetrain.periodic();
+        balance.execute();
+        for (int i = 0; i < samples; i++) {
+            sim.update(DrivetrainConfig.kBalancePeriod);
+            SimHooks.stepTiming(DrivetrainConfig.kBalancePeriod);
+            balancer.onLoop();
+        }
+    }
+
+    private void balanceFrom(double startX, boolean forward) {
+        // Facing along field x either way, backwards climbs the station from the far side
+        sim.resetPose(new Pose2d(startX, DrivetrainConfig.kChargeStationCenterY, new Rotation2d()));
+        Balance balance = new Balance(drivetrain, balancer, forward);
+        balance.initialize();
+        // Sampled by hand below, in step with the sim
+        LoopScheduler.getInstance().unregister(balancer);
+
+        double elapsed = 0.0;
+        while (!balance.isLevel()) {
+            assertTrue(elapsed < kTimeoutSeconds, "Not level after " + kTimeoutSeconds + " s, "
+                    + balancer.getState() + " at " + sim.getPitchDegrees() + " deg");
+            cycle(balance);
+            elapsed += DrivetrainConfig.kLoopPeriod;
+        }
+
+        for (double t = 0.0; t < kHoldSeconds; t += DrivetrainConfig.kLoopPeriod) {
+            cycle(balance);
+            assertEquals(State.LEVEL, balancer.getState(), "Left LEVEL " + t + " s after levelling");
+            assertTrue(Math.abs(sim.getPitchDegrees()) < DrivetrainConfig.kBalanceLevelDegrees,
+                    "Platform at " + sim.getPitchDegrees() + " deg " + t + " s after levelling");
+        }
+
+        double[] lockAngles = {45.0, 315.0, 135.0, 225.0};
+        for (int i = 0; i < lockAngles.length; i++) {
+            double error = Math.IEEEremainder(sim.getSteerAngleDegrees(i) - lockAngles[i], 360.0);
+            assertTrue(Math.abs(error) < kLockToleranceDegrees, "Module " + i + " is " + error + " deg off the X");
+        }
+        balance.end(false);
+    }
+
+    @Test
+    void balancesDrivingOnForwards() {
+        balanceFrom(DrivetrainConfig.kChargeStationCentersX[0] - kStartOffsetMeters, true);
+    }
+
+    @Test
+    void balancesDrivingOnBackwards() {
+        balanceFrom(DrivetrainConfig.kChargeStationCentersX[0] + kStartOffsetMeters, false);
+    }
+}
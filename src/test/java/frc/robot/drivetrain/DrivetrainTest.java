@@ -0,0 +1,81 @@
+package frc.robot.drivetrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DrivetrainTest {
+    private static final double kEpsilon = 1e-9;
+
+    /** Reports a fixed angle and records the last angle and drive commands. */
+    private static final class RecordingModuleIO implements ModuleIO {
+        double angleDegrees;
+        double commandedAngleDegrees = Double.NaN;
+        double commandedVelocity = Double.NaN;
+
+        RecordingModuleIO(double angleDegrees) {
+            this.angleDegrees = angleDegrees;
+        }
+
+        @Override
+        public void updateInputs(ModuleIOInputs inputs) {
+            inputs.angleDegrees = angleDegrees;
+        }
+
+        @Override
+        public void setDriveVelocity(double metersPerSecond, double feedforwardPercent) {
+            commandedVelocity = metersPerSecond;
+        }
+
+        @Override
+        public void setAnglePosition(double degrees, double feedforwardPercent) {
+            commandedAngleDegrees = degrees;
+        }
+    }
+
+    private final RecordingModuleIO[] modules = {
+            new RecordingModuleIO(0.0),
+            new RecordingModuleIO(0.0),
+            // Continuous angles a few turns out, the lock has to stay near them
+            new RecordingModuleIO(730.0),
+            new RecordingModuleIO(-350.0)
+    };
+    private Drivetrain drivetrain;
+
+    @BeforeEach
+    void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        drivetrain = new Drivetrain(new GyroIO() {}, modules[0], modules[1], modules[2], modules[3], false);
+    }
+
+    @AfterEach
+    void shutdown() {
+        CommandScheduler.getInstance().unregisterSubsystem(drivetrain);
+    }
+
+    @Test
+    void lockWheelsTurnsStoppedWheelsIntoAnX() {
+        drivetrain.periodic();
+        // A stopped drive holds the wheels where they are
+        drivetrain.drive(0.0, 0.0, 0.0, false, false, 0.0, 0.0);
+        for (RecordingModuleIO module : modules) {
+            assertEquals(module.angleDegrees, module.commandedAngleDegrees, kEpsilon);
+        }
+
+        drivetrain.lockWheels();
+        double[] expected = {45.0, 315.0, 135.0, 225.0};
+        for (int i = 0; i < modules.length; i++) {
+            RecordingModuleIO module = modules[i];
+            assertEquals(expected[i], ((module.commandedAngleDegrees % 360.0) + 360.0) % 360.0, kEpsilon,
+                    "Module " + i);
+            assertTrue(Math.abs(module.commandedAngleDegrees - module.angleDegrees) <= 180.0,
+                    "Module " + i + " turned " + (module.commandedAngleDegrees - module.angleDegrees) + " deg");
+            assertEquals(0.0, module.commandedVelocity, "Module " + i);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package frc.robot.drivetrain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class OdometrySampleQueueTest {
+    private static final int kModuleCount = 4;
+
+    private final DrivetrainSensorSnapshot sensors = new DrivetrainSensorSnapshot(kModuleCount);
+    private final OdometrySampleInputs inputs = new OdometrySampleInputs(kModuleCount);
+
+    private void addSample(OdometrySampleQueue queue, int n) {
+        sensors.timestamp = n * DrivetrainConfig.kOdometryPeriod;
+        sensors.yawDegrees = n;
+        for (int i = 0; i < kModuleCount; i++) {
+            sensors.drivePositionMeters[i] = n + i * 0.1;
+            sensors.angleDegrees[i] = -n - i;
+        }
+        queue.add(sensors);
+    }
+
+    @Test
+    void drainsSamplesOldestFirst() {
+        OdometrySampleQueue queue = new OdometrySampleQueue(kModuleCount, 8);
+        for (int n = 0; n < 4; n++) {
+            addSample(queue, n);
+        }
+        queue.drainTo(inputs);
+
+        assertEquals(4, inputs.getSampleCount());
+        assertArrayEquals(new double[] {0, 1, 2, 3}, inputs.yawDegrees);
+        assertArrayEquals(new double[] {-2, -3, -4, -5}, inputs.anglesDegrees[2]);
+
+        DrivetrainSensorSnapshot out = new DrivetrainSensorSnapshot(kModuleCount);
+        inputs.copySample(3, out);
+        assertEquals(3 * DrivetrainConfig.kOdometryPeriod, out.timestamp);
+        assertEquals(3.1, out.drivePositionMeters[1], 1e-12);
+
+        queue.drainTo(inputs);
+        assertEquals(0, inputs.getSampleCount());
+    }
+
+    @Test
+    void overflowDropsOldestSamples() {
+        OdometrySampleQueue queue = new OdometrySampleQueue(kModuleCount, 4);
+        for (int n = 0; n < 6; n++) {
+            addSample(queue, n);
+        }
+        queue.drainTo(inputs);
+
+        assertArrayEquals(new double[] {2, 3, 4, 5}, inputs.yawDegrees);
+        assertEquals(2, queue.getDroppedSampleCount());
+    }
+
+    @Test
+    void steadySampleCountReusesArrays() {
+        OdometrySampleQueue queue = new OdometrySampleQueue(kModuleCount, 8);
+        for (int n = 0; n < 4; n++) {
+            addSample(queue, n);
+        }
+        queue.drainTo(inputs);
+        double[] timestamps = inputs.timestamps;
+        double[] positions = inputs.drivePositionsMeters[0];
+
+        for (int n = 4; n < 8; n++) {
+            addSample(queue, n);
+        }
+        queue.drainTo(inputs);
+        assertSame(timestamps, inputs.timestamps);
+        assertSame(positions, inputs.drivePositionsMeters[0]);
+        assertEquals(7.0, inputs.yawDegrees[3]);
+    }
+
+    @Test
+    void singleSampleMatchesLoopSnapshot() {
+        sensors.timestamp = 1.5;
+        sensors.yawDegrees = 30;
+        sensors.drivePositionMeters[3] = 2.0;
+        inputs.setSingleSample(sensors);
+
+        assertEquals(1, inputs.getSampleCount());
+        assertEquals(1.5, inputs.timestamps[0]);
+        assertEquals(30.0, inputs.yawDegrees[0]);
+        assertEquals(2.0, inputs.drivePositionsMeters[3][0]);
+    }
+}
@@ -0,0 +1,98 @@
+package frc.robot.drivetrain;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives a simulated robot in a straight field relative line while it spins, and measures how far the
+ * direction of travel skews from the command with and without the second order steer / drive feedforward.
+ */
+class SecondOrderKinematicsTest {
+    private static final double kSpeed = 2.0;
+    private static final double kOmega = Math.PI;
+    private static final double kSettleSeconds = 0.5;
+    private static final double kRunSeconds = 4.0;
+
+    private final List<Drivetrain> drivetrains = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        // Step the FPGA clock with the sim, and enable so periodic doesn't hold the setpoint generator in reset
+        SimHooks.pauseTiming();
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+    }
+
+    @AfterEach
+    void shutdown() {
+        for (Drivetrain drivetrain : drivetrains) {
+            CommandScheduler.getInstance().unregisterSubsystem(drivetrain);
+        }
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        SimHooks.resumeTiming();
+    }
+
+    /**
+     * Runs a Drivetrain on the simulated IO and returns the mean absolute angle (rad) between the commanded
+     * and actual field relative direction of travel once settled.
+     */
+    private double meanSkew(boolean secondOrder) {
+        SwerveDriveSim sim = new SwerveDriveSim();
+        Drivetrain drivetrain = new Drivetrain(
+                new GyroIOSim(sim),
+                new ModuleIOSim(sim, 0),
+                new ModuleIOSim(sim, 1),
+                new ModuleIOSim(sim, 2),
+                new ModuleIOSim(sim, 3),
+                false
+        );
+        drivetrains.add(drivetrain);
+        drivetrain.setSecondOrderKinematics(secondOrder);
+        double dt = DrivetrainConfig.kLoopPeriod;
+
+        double skewSum = 0.0;
+        int skewSamples = 0;
+        double[] pose = new double[3];
+        sim.getPose(pose);
+        for (double t = 0; t < kRunSeconds; t += dt) {
+            drivetrain.periodic();
+            // Field relative +x while spinning
+            drivetrain.drive(kSpeed, 0.0, kOmega, true, false, 0.0, 0.0);
+
+            double lastX = pose[0];
+            double lastY = pose[1];
+            sim.update(dt);
+            SimHooks.stepTiming(dt);
+            sim.getPose(pose);
+
+            if (t >= kSettleSeconds) {
+                skewSum += Math.abs(Math.atan2(pose[1] - lastY, pose[0] - lastX));
+                skewSamples++;
+            }
+        }
+        return skewSum / skewSamples;
+    }
+
+    @Test
+    void secondOrderKinematicsReducesSkew() {
+        double firstOrder = meanSkew(false);
+        double secondOrder = meanSkew(true);
+
+        // Position control alone lags the spinning module angles by several degrees
+        assertTrue(Math.toDegrees(firstOrder) > 3.0, "Skew " + Math.toDegrees(firstOrder) + " deg without feedforward");
+        assertTrue(secondOrder < 0.25 * firstOrder, "Skew " + Math.toDegrees(secondOrder)
+                + " deg with second order kinematics vs " + Math.toDegrees(firstOrder) + " deg without");
+        assertTrue(Math.toDegrees(secondOrder) < 2.0, "Skew " + Math.toDegrees(secondOrder) + " deg");
+    }
+}
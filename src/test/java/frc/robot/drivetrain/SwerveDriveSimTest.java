@@ -0,0 +1,69 @@
+package frc.robot.drivetrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import org.junit.jupiter.api.Test;
+
+class SwerveDriveSimTest {
+    private static final double kSettleSeconds = 3.0;
+
+    private final SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(
+            DrivetrainConfig.kDriveS,
+            DrivetrainConfig.kDriveV,
+            DrivetrainConfig.kDriveA
+    );
+
+    /**
+     * Holds a straight ahead request until it settles and returns module 0's speed. Closed loop is the same
+     * request SwerveModule makes, open loop applies only its feedforward.
+     */
+    private double driveStraight(double metersPerSecond, boolean closedLoop) {
+        SwerveDriveSim sim = new SwerveDriveSim();
+        ModuleIOSim[] modules = new ModuleIOSim[sim.getModuleCount()];
+        for (int i = 0; i < modules.length; i++) {
+            modules[i] = new ModuleIOSim(sim, i);
+        }
+
+        double feedforwardPercent = feedforward.calculate(metersPerSecond);
+        for (double t = 0; t < kSettleSeconds; t += DrivetrainConfig.kLoopPeriod) {
+            for (ModuleIOSim module : modules) {
+                module.setAnglePosition(0.0, 0.0);
+                if (closedLoop) {
+                    module.setDriveVelocity(metersPerSecond, feedforwardPercent);
+                } else {
+                    module.setDriveOpenLoop(feedforwardPercent);
+                }
+            }
+            sim.update(DrivetrainConfig.kLoopPeriod);
+        }
+
+        ModuleIO.ModuleIOInputs inputs = new ModuleIO.ModuleIOInputs();
+        modules[0].updateInputs(inputs);
+        return inputs.driveVelocityMetersPerSecond;
+    }
+
+    @Test
+    void closedLoopVelocityConversionRoundTrips() {
+        for (double speed = -DrivetrainConfig.kMaxVelocity; speed <= DrivetrainConfig.kMaxVelocity; speed += 0.5) {
+            double counts = ModuleIOFalcon.driveVelocityToFalcon(speed);
+            assertEquals(speed, ModuleIOFalcon.falconToDriveVelocity(counts), 1e-9);
+        }
+    }
+
+    @Test
+    void closedLoopCorrectsTowardSetpoint() {
+        // Wheel diameter in place of circumference once put the Talon setpoint pi times off, and the velocity
+        // loop pushed the wheels away from the requested speed instead of toward it
+        for (double speed : new double[] {1.0, 2.5}) {
+            double closedLoop = driveStraight(speed, true);
+            double feedforwardOnly = driveStraight(speed, false);
+
+            double low = Math.min(speed, feedforwardOnly) - 0.01;
+            double high = Math.max(speed, feedforwardOnly) + 0.01;
+            assertTrue(closedLoop >= low && closedLoop <= high, "Closed loop settled at " + closedLoop
+                    + " m/s for a " + speed + " m/s setpoint, feedforward alone gives " + feedforwardOnly);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package frc.robot.drivetrain;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SwerveSetpointsTest {
+    private static final int kWarmupCycles = 20000;
+    private static final int kMeasuredCycles = 10000;
+
+    private Drivetrain drivetrain;
+
+    @BeforeEach
+    void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        // Replay's no-op hardware, so everything below the IO calls is the real drive path
+        drivetrain = new Drivetrain(
+                new GyroIO() {},
+                new ModuleIO() {}, new ModuleIO() {}, new ModuleIO() {}, new ModuleIO() {},
+                false
+        );
+    }
+
+    @AfterEach
+    void shutdown() {
+        CommandScheduler.getInstance().unregisterSubsystem(drivetrain);
+    }
+
+    /**
+     * One field relative closed loop command through Drivetrain#drive: rotate, discretize, inverse
+     * kinematics, desaturate, limit, differentiate, per module optimize and feedforward, the IO calls and
+     * the binary log record.
+     */
+    private void driveCycle(int cycle) {
+        double t = cycle * DrivetrainConfig.kLoopPeriod;
+        drivetrain.drive(
+                3.0 * Math.cos(0.5 * t),
+                2.0 * Math.sin(0.3 * t),
+                2.0 * Math.sin(0.7 * t),
+                true,
+                false,
+                0.0,
+                0.0
+        );
+    }
+
+    @Test
+    void steadyStateDriveCycleDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        // Let class loading and the JIT settle first
+        for (int i = 0; i < kWarmupCycles; i++) {
+            driveCycle(i);
+        }
+
+        // The counter read itself may allocate, measure that on its own
+        long overheadStart = threads.getThreadAllocatedBytes(threadId);
+        long overhead = threads.getThreadAllocatedBytes(threadId) - overheadStart;
+
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < kMeasuredCycles; i++) {
+            driveCycle(kWarmupCycles + i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - start - overhead;
+
+        // Any allocation per cycle is at least an object header, so under a byte per cycle means none
+        assertTrue(allocated < kMeasuredCycles, "Drive cycle allocated " + allocated + " bytes over "
+                + kMeasuredCycles + " cycles");
+    }
+}
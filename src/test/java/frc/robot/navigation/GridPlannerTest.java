@@ -0,0 +1,132 @@
+package frc.robot.navigation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GridPlannerTest {
+    // In front of the blue charge station and past it, straight through it if it weren't there
+    private static final double kStartX = 2.0;
+    private static final double kGoalX = 5.8;
+    private static final double kChargeStationY = 2.75;
+    private static final double kChargeStationCenterX = 3.89;
+
+    private NavGrid grid;
+    private GridPlanner planner;
+
+    @BeforeEach
+    void setup() throws IOException {
+        grid = NavGrid.load(new File(Filesystem.getDeployDirectory(), NavigationConfig.kGridFile),
+                NavigationConfig.kInflationRadius);
+        planner = new GridPlanner(grid);
+    }
+
+    /** Samples the leg finely enough that no cell it crosses is skipped. */
+    private static void assertLegFree(NavGrid grid, double x0, double y0, double x1, double y1, String message) {
+        int steps = (int) Math.ceil(Math.hypot(x1 - x0, y1 - y0) / (grid.cellSize * 0.05)) + 1;
+        for (int i = 0; i <= steps; i++) {
+            double x = x0 + (x1 - x0) * i / steps;
+            double y = y0 + (y1 - y0) * i / steps;
+            assertFalse(grid.isBlocked(grid.toCellX(x), grid.toCellY(y)),
+                    message + ": (" + x + ", " + y + ") is blocked");
+        }
+    }
+
+    /** Every leg from the first to the last index (exclusive) stays in free cells. */
+    private void assertLegsFree(int first, int last, String message) {
+        for (int i = first; i < last; i++) {
+            assertLegFree(grid, planner.getWaypointX(i), planner.getWaypointY(i),
+                    planner.getWaypointX(i + 1), planner.getWaypointY(i + 1), message + " leg " + i);
+        }
+    }
+
+    private void assertEndsAt(double startX, double startY, double goalX, double goalY) {
+        int last = planner.getWaypointCount() - 1;
+        assertEquals(startX, planner.getWaypointX(0));
+        assertEquals(startY, planner.getWaypointY(0));
+        assertEquals(goalX, planner.getWaypointX(last));
+        assertEquals(goalY, planner.getWaypointY(last));
+    }
+
+    @Test
+    void routesAroundTheChargeStation() {
+        assertTrue(planner.plan(kStartX, kChargeStationY, kGoalX, kChargeStationY));
+
+        assertEndsAt(kStartX, kChargeStationY, kGoalX, kChargeStationY);
+        assertTrue(planner.getWaypointCount() > 2, "Went straight through the charge station");
+        assertLegsFree(0, planner.getWaypointCount() - 1, "Around the charge station");
+    }
+
+    @Test
+    void everyLegIncludingTheEndpointsStaysFree() {
+        // Requested points sit anywhere in their cells, so the legs to them aren't the ones the search checked
+        Random random = new Random(2024);
+        int planned = 0;
+        while (planned < 500) {
+            double sx = random.nextDouble() * grid.fieldLength;
+            double sy = random.nextDouble() * grid.fieldWidth;
+            double gx = random.nextDouble() * grid.fieldLength;
+            double gy = random.nextDouble() * grid.fieldWidth;
+            if (grid.isBlocked(grid.toCellX(sx), grid.toCellY(sy)) || grid.isBlocked(grid.toCellX(gx), grid.toCellY(gy))) {
+                continue;
+            }
+            String route = "(" + sx + ", " + sy + ") to (" + gx + ", " + gy + ")";
+            assertTrue(planner.plan(sx, sy, gx, gy), route);
+            assertEndsAt(sx, sy, gx, gy);
+            assertLegsFree(0, planner.getWaypointCount() - 1, route);
+            planned++;
+        }
+    }
+
+    @Test
+    void unreachableGoalFails() {
+        // A wall across the whole field
+        NavGrid walled = new NavGrid(4.0, 2.0, 0.1, new double[][] {{1.9, 0.0, 2.1, 2.0}}, 0.2);
+        GridPlanner walledPlanner = new GridPlanner(walled);
+
+        assertFalse(walledPlanner.plan(1.0, 1.0, 3.0, 1.0));
+        assertEquals(0, walledPlanner.getWaypointCount());
+        // Same side of the wall still plans
+        assertTrue(walledPlanner.plan(0.5, 0.5, 1.5, 1.5));
+    }
+
+    @Test
+    void endpointInsideAnObstacleSnapsToTheNearestFreeCell() {
+        // Just inside the inflated charge station, a few cells from free space
+        double insideX = 2.6;
+        assertTrue(grid.isBlocked(grid.toCellX(insideX), grid.toCellY(kChargeStationY)));
+
+        assertTrue(planner.plan(insideX, kChargeStationY, kGoalX, kChargeStationY));
+        assertEndsAt(insideX, kChargeStationY, kGoalX, kChargeStationY);
+        // Straight out to the snapped cell, then free from there
+        double snappedX = planner.getWaypointX(1);
+        double snappedY = planner.getWaypointY(1);
+        assertFalse(grid.isBlocked(grid.toCellX(snappedX), grid.toCellY(snappedY)));
+        assertTrue(Math.hypot(snappedX - insideX, snappedY - kChargeStationY)
+                <= NavigationConfig.kMaxSnapDistanceMeters);
+        assertLegsFree(1, planner.getWaypointCount() - 1, "From the snapped start");
+
+        assertTrue(planner.plan(kStartX, kChargeStationY, insideX, kChargeStationY));
+        assertEndsAt(kStartX, kChargeStationY, insideX, kChargeStationY);
+        int last = planner.getWaypointCount() - 1;
+        double goalCellX = planner.getWaypointX(last - 1);
+        double goalCellY = planner.getWaypointY(last - 1);
+        assertFalse(grid.isBlocked(grid.toCellX(goalCellX), grid.toCellY(goalCellY)));
+        assertTrue(Math.hypot(goalCellX - insideX, goalCellY - kChargeStationY)
+                <= NavigationConfig.kMaxSnapDistanceMeters);
+        assertLegsFree(0, last - 1, "To the snapped goal");
+    }
+
+    @Test
+    void endpointTooDeepInAnObstacleFails() {
+        assertFalse(planner.plan(kStartX, kChargeStationY, kChargeStationCenterX, kChargeStationY));
+        assertEquals(0, planner.getWaypointCount());
+    }
+}
@@ -0,0 +1,60 @@
+package frc.robot.navigation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.drivetrain.DrivetrainConfig;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+
+class NavGridTest {
+    private static File write(String json) throws IOException {
+        File file = Files.createTempFile("navgrid", ".json").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), json);
+        return file;
+    }
+
+    @Test
+    void loadsMapAndInflatesObstacles() throws IOException {
+        File file = write("{ \"fieldLength\": 4.0, \"fieldWidth\": 2.0, \"cellSize\": 0.1,"
+                + " \"obstacles\": [ { \"name\": \"box\", \"minX\": 1.0, \"minY\": 0.5, \"maxX\": 1.5, \"maxY\": 1.0 } ] }");
+        NavGrid grid = NavGrid.load(file, 0.25);
+
+        assertEquals(40, grid.width);
+        assertEquals(20, grid.height);
+        assertTrue(grid.isBlocked(grid.toCellX(0.1), grid.toCellY(1.0)), "Wall not inflated");
+        assertTrue(grid.isBlocked(grid.toCellX(0.9), grid.toCellY(0.75)), "Obstacle not inflated");
+        assertFalse(grid.isBlocked(grid.toCellX(3.0), grid.toCellY(1.0)), "Open field blocked");
+    }
+
+    @Test
+    void missingOrInvalidFieldsFailWithTheirName() throws IOException {
+        String[][] cases = {
+                {"{ \"fieldWidth\": 2.0, \"cellSize\": 0.1 }", "fieldLength"},
+                {"{ \"fieldLength\": 4.0, \"fieldWidth\": 2.0, \"cellSize\": \"small\" }", "cellSize"},
+                {"{ \"fieldLength\": 4.0, \"fieldWidth\": 2.0, \"cellSize\": 0.0 }", "cellSize"},
+                {"{ \"fieldLength\": 4.0, \"fieldWidth\": 2.0, \"cellSize\": 0.1,"
+                        + " \"obstacles\": [ { \"minX\": 1.0, \"minY\": 0.5, \"maxX\": 1.5 } ] }", "obstacles[0].maxY"},
+                {"{ \"fieldLength\": 4.0, \"fieldWidth\": 2.0, \"cellSize\": 0.1, \"obstacles\": {} }", "obstacles"},
+                {"[]", "object"},
+        };
+        for (String[] c : cases) {
+            File file = write(c[0]);
+            IOException e = assertThrows(IOException.class, () -> NavGrid.load(file, 0.25), c[0]);
+            assertTrue(e.getMessage().contains(c[1]), e.getMessage());
+        }
+    }
+
+    @Test
+    void inflationCoversTheRobotAtAnyHeading() {
+        double halfLength = DrivetrainConfig.kDrivetrainActualLength / 2.0;
+        double halfWidth = DrivetrainConfig.kDrivetrainWidth / 2.0;
+        // The frame's corners at 45 degrees reach the circumscribed radius
+        assertTrue(NavigationConfig.kInflationRadius >= Math.hypot(halfLength, halfWidth));
+    }
+}
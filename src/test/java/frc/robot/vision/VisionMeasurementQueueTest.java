@@ -0,0 +1,186 @@
+package frc.robot.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class VisionMeasurementQueueTest {
+    private static final int kProducers = 4;
+    private static final int kRecordsPerProducer = 20000;
+    private static final long kJoinTimeoutMillis = 10000;
+
+    /** Every value of a record is derived from its producer and sequence, so a torn record is caught. */
+    private static void fill(double[] record, int producer, int sequence) {
+        for (int k = 0; k < VisionMeasurementQueue.kWidth; k++) {
+            record[k] = sequence * VisionMeasurementQueue.kWidth + k + producer * 0.5;
+        }
+    }
+
+    /** Collects drained records on the consumer thread, checking each one as it arrives. */
+    private static final class Consumer implements VisionMeasurementQueue.Sink {
+        final boolean[][] seen = new boolean[kProducers][kRecordsPerProducer];
+        final int[] lastSequence = new int[kProducers];
+        int drained = 0;
+        String error = null;
+
+        Consumer() {
+            Arrays.fill(lastSequence, -1);
+        }
+
+        @Override
+        public void accept(int camera, double[] values, int offset) {
+            drained++;
+            int sequence = (int) (values[offset] / VisionMeasurementQueue.kWidth);
+            if (camera < 0 || camera >= kProducers || sequence < 0 || sequence >= kRecordsPerProducer) {
+                fail("Bad record from camera " + camera + " sequence " + sequence);
+                return;
+            }
+            for (int k = 0; k < VisionMeasurementQueue.kWidth; k++) {
+                double expected = sequence * VisionMeasurementQueue.kWidth + k + camera * 0.5;
+                if (values[offset + k] != expected) {
+                    fail("Torn record from camera " + camera + " sequence " + sequence);
+                    return;
+                }
+            }
+            if (seen[camera][sequence]) {
+                fail("Duplicate record from camera " + camera + " sequence " + sequence);
+            }
+            // One producer's offers claim increasing positions, so they drain in order
+            if (sequence <= lastSequence[camera]) {
+                fail("Camera " + camera + " drained " + sequence + " after " + lastSequence[camera]);
+            }
+            seen[camera][sequence] = true;
+            lastSequence[camera] = sequence;
+        }
+
+        private void fail(String message) {
+            if (error == null) {
+                error = message;
+            }
+        }
+    }
+
+    /**
+     * Runs every producer against a consumer that drains until they've all finished.
+     *
+     * @param fillFirst Hold the consumer off until an offer has been rejected, so the queue is known to fill
+     * @return Which records each producer had accepted
+     */
+    private static boolean[][] run(VisionMeasurementQueue queue, Consumer consumer, boolean fillFirst)
+            throws InterruptedException {
+        boolean[][] accepted = new boolean[kProducers][kRecordsPerProducer];
+        AtomicBoolean rejected = new AtomicBoolean(false);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[kProducers];
+        for (int p = 0; p < kProducers; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                double[] record = new double[VisionMeasurementQueue.kWidth];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < kRecordsPerProducer; n++) {
+                    fill(record, producer, n);
+                    accepted[producer][n] = queue.offer(producer, record);
+                    if (!accepted[producer][n]) {
+                        rejected.set(true);
+                    }
+                }
+            }, "VisionQueueProducer" + p);
+            producers[p].setDaemon(true);
+            producers[p].start();
+        }
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread consumerThread = new Thread(() -> {
+            while (fillFirst && !rejected.get()) {
+                Thread.yield();
+            }
+            while (producing.get()) {
+                queue.drain(consumer);
+                Thread.yield();
+            }
+            queue.drain(consumer);
+        }, "VisionQueueConsumer");
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+
+        start.countDown();
+        long deadline = System.currentTimeMillis() + kJoinTimeoutMillis;
+        for (Thread producer : producers) {
+            producer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            assertFalse(producer.isAlive(), producer.getName() + " is stuck");
+        }
+        producing.set(false);
+        consumerThread.join(kJoinTimeoutMillis);
+        assertFalse(consumerThread.isAlive(), "Consumer is stuck");
+        return accepted;
+    }
+
+    @Test
+    void concurrentProducersBelowCapacityLoseAndDuplicateNothing() throws InterruptedException {
+        // Room for every record, so no offer can be rejected however far the consumer falls behind
+        VisionMeasurementQueue queue = new VisionMeasurementQueue(
+                Integer.highestOneBit(kProducers * kRecordsPerProducer) * 2);
+        Consumer consumer = new Consumer();
+        boolean[][] accepted = run(queue, consumer, false);
+
+        assertEquals(null, consumer.error);
+        assertEquals(kProducers * kRecordsPerProducer, consumer.drained);
+        for (int p = 0; p < kProducers; p++) {
+            for (int n = 0; n < kRecordsPerProducer; n++) {
+                assertTrue(accepted[p][n], "Camera " + p + " record " + n + " was rejected");
+                assertTrue(consumer.seen[p][n], "Camera " + p + " record " + n + " was lost");
+            }
+        }
+    }
+
+    @Test
+    void fullQueueRejectsExactlyTheRecordsItDrops() throws InterruptedException {
+        VisionMeasurementQueue queue = new VisionMeasurementQueue(16);
+        Consumer consumer = new Consumer();
+        boolean[][] accepted = run(queue, consumer, true);
+
+        assertEquals(null, consumer.error);
+        int acceptedCount = 0;
+        for (int p = 0; p < kProducers; p++) {
+            for (int n = 0; n < kRecordsPerProducer; n++) {
+                // Every rejected offer is a counted drop, every accepted one is drained exactly once
+                assertEquals(accepted[p][n], consumer.seen[p][n], "Camera " + p + " record " + n);
+                if (accepted[p][n]) {
+                    acceptedCount++;
+                }
+            }
+        }
+        assertEquals(acceptedCount, consumer.drained);
+    }
+
+    @Test
+    void fullQueueRejectsUntilDrained() {
+        VisionMeasurementQueue queue = new VisionMeasurementQueue(4);
+        double[] record = new double[VisionMeasurementQueue.kWidth];
+        for (int n = 0; n < 4; n++) {
+            fill(record, 0, n);
+            assertTrue(queue.offer(0, record));
+        }
+        fill(record, 0, 4);
+        assertFalse(queue.offer(0, record));
+
+        Consumer consumer = new Consumer();
+        assertEquals(4, queue.drain(consumer));
+        assertEquals(null, consumer.error);
+        assertFalse(consumer.seen[0][4]);
+
+        fill(record, 0, 5);
+        assertTrue(queue.offer(0, record));
+        assertEquals(1, queue.drain(consumer));
+        assertTrue(consumer.seen[0][5]);
+    }
+}